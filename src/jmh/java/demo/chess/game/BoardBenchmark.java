@@ -0,0 +1,57 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Square lookup and make/unmake of each legal move of a middlegame position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+
+    private Board board;
+    private Coords[] coords;
+    private MoveList moves;
+    private int nextSquare;
+    private int nextMove;
+
+    @Setup
+    public void setUp() {
+        board = Position.KIWIPETE.board();
+        coords = new Coords[Bitboards.SQUARES];
+        for (int square = 0; square < coords.length; square++) {
+            coords[square] = Coords.of(square);
+        }
+        moves = new MoveList();
+        new MoveGenerator().generateLegalMoves(board, moves);
+    }
+
+    @Benchmark
+    public Square getSquare() {
+        int square = nextSquare;
+        nextSquare = (square + 1) & (Bitboards.SQUARES - 1);
+        return board.getSquare(coords[square]);
+    }
+
+    @Benchmark
+    public long makeUnmakeMove() {
+        int index = nextMove;
+        nextMove = index + 1 == moves.size() ? 0 : index + 1;
+        int move = moves.get(index);
+        board.makeMove(move);
+        long hash = board.hash();
+        board.unmakeMove(move);
+        return hash;
+    }
+
+}
@@ -0,0 +1,63 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Positions parsed and written per second, cycling through the perft reference positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FenBenchmark {
+
+    private String[] fens;
+    private Board[] boards;
+    private Board board;
+    private StringBuilder out;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Position[] positions = Position.values();
+        fens = new String[positions.length];
+        boards = new Board[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            fens[i] = positions[i].fen();
+            boards[i] = positions[i].board();
+        }
+        board = Board.newBoard();
+        out = new StringBuilder(128);
+    }
+
+    @Benchmark
+    public Board loadFen() {
+        return board.loadFen(fens[nextIndex()]);
+    }
+
+    @Benchmark
+    public Board fromFen() {
+        return Board.fromFen(fens[nextIndex()]);
+    }
+
+    @Benchmark
+    public StringBuilder toFen() {
+        out.setLength(0);
+        return boards[nextIndex()].toFen(out);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == fens.length ? 0 : index + 1;
+        return index;
+    }
+
+}
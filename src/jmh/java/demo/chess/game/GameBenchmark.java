@@ -0,0 +1,117 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DefaultGame#move} on a middlegame position, taken back after each call, and
+ * the replay of a fixed set of random legal games through {@link DefaultGame#move},
+ * reported in games per second.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GameBenchmark {
+
+    private static final int GAMES = 100;
+    private static final int MAX_PLIES = 120;
+    private static final long SEED = 42;
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    private DefaultGame game;
+    private Coords[] moveStarts;
+    private Coords[] moveEnds;
+    private PieceType[] movePromotions;
+    private int nextMove;
+
+    // Per game and ply of the replay set.
+    private Coords[][] starts;
+    private Coords[][] ends;
+    private PieceType[][] promotions;
+
+    @Setup
+    public void setUp() {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList legal = new MoveList();
+
+        game = DefaultGame.fromPosition(white, black, Position.KIWIPETE.board());
+        generator.generateLegalMoves(game.board(), legal);
+        moveStarts = new Coords[legal.size()];
+        moveEnds = new Coords[legal.size()];
+        movePromotions = new PieceType[legal.size()];
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            moveStarts[i] = Coords.of(Moves.from(move));
+            moveEnds[i] = Coords.of(Moves.to(move));
+            movePromotions[i] = Moves.isPromotion(move) ? Moves.promotion(move) : PieceType.QUEEN;
+        }
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        starts = new Coords[GAMES][];
+        ends = new Coords[GAMES][];
+        promotions = new PieceType[GAMES][];
+        for (int g = 0; g < GAMES; g++) {
+            Board board = Position.INITIAL.board();
+            int[] moves = new int[MAX_PLIES];
+            int plies = 0;
+            for (; plies < MAX_PLIES; plies++) {
+                generator.generateLegalMoves(board, legal);
+                if (legal.isEmpty()) {
+                    break;
+                }
+                moves[plies] = legal.get(random.nextInt(legal.size()));
+                board.makeMove(moves[plies]);
+            }
+            starts[g] = new Coords[plies];
+            ends[g] = new Coords[plies];
+            promotions[g] = new PieceType[plies];
+            for (int ply = 0; ply < plies; ply++) {
+                starts[g][ply] = Coords.of(Moves.from(moves[ply]));
+                ends[g][ply] = Coords.of(Moves.to(moves[ply]));
+                promotions[g][ply] = Moves.isPromotion(moves[ply]) ? Moves.promotion(moves[ply]) : PieceType.QUEEN;
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean moveAndUndo() {
+        int index = nextMove;
+        nextMove = index + 1 == moveStarts.length ? 0 : index + 1;
+        boolean accepted = game.move(white, moveStarts[index], moveEnds[index], movePromotions[index]);
+        game.undo();
+        return accepted;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(GAMES)
+    public int replayGames() {
+        int accepted = 0;
+        for (int g = 0; g < GAMES; g++) {
+            DefaultGame replay = DefaultGame.newGame(white, black);
+            for (int ply = 0; ply < starts[g].length; ply++) {
+                Player player = (ply & 1) == 0 ? white : black;
+                if (replay.move(player, starts[g][ply], ends[g][ply], promotions[g][ply])) {
+                    accepted++;
+                }
+            }
+        }
+        return accepted;
+    }
+
+}
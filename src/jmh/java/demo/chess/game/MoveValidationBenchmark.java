@@ -0,0 +1,59 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Piece#isMoveValid} per piece type: every piece of that type on a busy middlegame
+ * board asked about every square, legal target or not, cycling through the pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveValidationBenchmark {
+
+    @Param({"PAWN", "ROOK", "KNIGHT", "BISHOP", "QUEEN", "KING"})
+    public PieceType type;
+
+    private Board board;
+    private Piece piece;
+    private int[] starts;
+    private int[] ends;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        board = Position.KIWIPETE.board();
+        piece = Piece.of(type, board.sideToMove());
+        long pieces = board.pieces(type, board.sideToMove());
+        int pairs = Long.bitCount(pieces) * Bitboards.SQUARES;
+        starts = new int[pairs];
+        ends = new int[pairs];
+        int pair = 0;
+        for (; pieces != 0; pieces &= pieces - 1) {
+            for (int end = 0; end < Bitboards.SQUARES; end++) {
+                starts[pair] = Long.numberOfTrailingZeros(pieces);
+                ends[pair++] = end;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isMoveValid() {
+        int pair = next;
+        next = pair + 1 == starts.length ? 0 : pair + 1;
+        return piece.isMoveValid(board, starts[pair], ends[pair]);
+    }
+
+}
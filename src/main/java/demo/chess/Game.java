@@ -2,13 +2,21 @@ package demo.chess;
 
 import demo.chess.game.Board;
 import demo.chess.game.Coords;
+import demo.chess.game.GameEvent;
+import demo.chess.game.GameStatus;
 import demo.chess.player.Player;
 
+import java.util.concurrent.Flow;
+
 public interface Game {
     Player blackSidePlayer();
     Player whiteSidePlayer();
     Board board();
     boolean move(Player player, Coords start, Coords end);
+    boolean undo();
+    boolean redo();
+    GameStatus status();
+    Flow.Publisher<GameEvent> events();
 
 }
 
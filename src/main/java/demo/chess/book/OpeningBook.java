@@ -0,0 +1,138 @@
+package demo.chess.book;
+
+import demo.chess.game.Board;
+import demo.chess.game.Moves;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * An opening book file written by {@link OpeningBookBuilder}, memory-mapped and
+ * searched in place without loading anything on the heap.
+ * <p>
+ * After a 16-byte header (magic {@code CHBK}, format version, entry count) come
+ * 16-byte entries sorted by position hash, then move: the {@link Board#hash()}
+ * (64 bits), the move packed as in {@link Moves} (16), padding (16) and a weight
+ * (32). The moves of a position are adjacent and found by binary search. Reads
+ * only use absolute offsets and are safe from several threads.
+ */
+public class OpeningBook implements Closeable {
+
+    static final int MAGIC = 0x4348424B; // "CHBK"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long fileSize = channel.size();
+        if (fileSize < HEADER_BYTES) {
+            throw new IOException("Not an opening book: too short");
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Opening book of " + fileSize + " bytes is too large to map");
+        }
+        this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        if (entries.getInt(0) != MAGIC) {
+            throw new IOException("Not an opening book: bad magic");
+        }
+        if (entries.getShort(4) != VERSION) {
+            throw new IOException("Unsupported opening book version " + entries.getShort(4));
+        }
+        long count = entries.getLong(8);
+        if (HEADER_BYTES + count * ENTRY_BYTES != fileSize) {
+            throw new IOException("Opening book holds " + fileSize + " bytes for " + count + " entries");
+        }
+        this.size = (int) count;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        return new OpeningBook(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public int entries() {
+        return size;
+    }
+
+    /**
+     * Copies the book moves of the position {@code hash} and their weights into the arrays,
+     * as many as fit, and returns how many the book has.
+     */
+    public int moves(long hash, int[] moves, int[] weights) {
+        int first = firstEntry(hash);
+        int count = 0;
+        for (int entry = first; entry < size && hash(entry) == hash; entry++, count++) {
+            if (count < moves.length && count < weights.length) {
+                moves[count] = move(entry);
+                weights[count] = weight(entry);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A book move for {@code board}, chosen at random with probability proportional to its
+     * weight, or {@link Moves#NONE} if the position is not in the book.
+     */
+    public int pick(Board board, SplittableRandom random) {
+        long hash = board.hash();
+        int first = firstEntry(hash);
+        long total = 0;
+        int end = first;
+        for (; end < size && hash(end) == hash; end++) {
+            total += weight(end);
+        }
+        if (total == 0) {
+            return Moves.NONE;
+        }
+        long target = random.nextLong(total);
+        for (int entry = first; entry < end; entry++) {
+            target -= weight(entry);
+            if (target < 0) {
+                return move(entry);
+            }
+        }
+        return Moves.NONE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // The first entry whose hash is not less than hash.
+    private int firstEntry(long hash) {
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hash(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long hash(int entry) {
+        return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+
+    private int move(int entry) {
+        return entries.getShort(HEADER_BYTES + entry * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weight(int entry) {
+        return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 12);
+    }
+
+}
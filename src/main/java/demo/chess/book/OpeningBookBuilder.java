@@ -0,0 +1,154 @@
+package demo.chess.book;
+
+import demo.chess.game.Board;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.record.Outcome;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Collects the opening moves of a corpus of games and writes them as an {@link OpeningBook}.
+ * <p>
+ * Each game contributes its first {@code maxPlies} moves, weighted by the result for the
+ * side that played them: 2 for a win, 1 for a draw or an unknown result, nothing for a
+ * loss. Weights of the same move from the same position add up across games.
+ */
+public class OpeningBookBuilder {
+
+    private static final int WIN_WEIGHT = 2, DRAW_WEIGHT = 1;
+
+    private final int maxPlies;
+
+    // Distinct (position, move) pairs in insertion order, found again through an open-addressing index.
+    private long[] hashes = new long[1024];
+    private int[] moves = new int[1024];
+    private int[] weights = new int[1024];
+    private int size;
+    private int[] index = new int[2048];
+    private long games;
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Adds the moves of {@code game}, replayed through {@link DefaultGame#move}, e.g. by the PGN
+     * reader or {@link demo.chess.record.StoredGame#replay}.
+     */
+    public void add(DefaultGame game, Outcome outcome) {
+        int plies = Math.min(game.plies(), maxPlies);
+        Board board = game.board().copy();
+        for (int ply = game.plies() - 1; ply >= 0; ply--) {
+            board.unmakeMove(game.movePlayed(ply));
+        }
+        for (int ply = 0; ply < plies; ply++) {
+            int move = game.movePlayed(ply);
+            int weight = weight(outcome, board.sideToMove());
+            if (weight > 0) {
+                add(board.hash(), move, weight);
+            }
+            board.makeMove(move);
+        }
+        games++;
+    }
+
+    public long games() {
+        return games;
+    }
+
+    /**
+     * Distinct (position, move) entries collected so far.
+     */
+    public int entries() {
+        return size;
+    }
+
+    public void write(Path path) throws IOException {
+        Integer[] order = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> hashes[i]).thenComparingInt(i -> moves[i]));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            buffer.putInt(OpeningBook.MAGIC).putShort(OpeningBook.VERSION).putShort((short) 0).putLong(size);
+            for (int i : order) {
+                if (buffer.remaining() < OpeningBook.ENTRY_BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(hashes[i]).putShort((short) moves[i]).putShort((short) 0).putInt(weights[i]);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static int weight(Outcome outcome, PieceColor mover) {
+        switch (outcome) {
+            case WHITE_WINS:
+                return mover == PieceColor.WHITE ? WIN_WEIGHT : 0;
+            case BLACK_WINS:
+                return mover == PieceColor.BLACK ? WIN_WEIGHT : 0;
+            default:
+                return DRAW_WEIGHT;
+        }
+    }
+
+    private void add(long hash, int move, int weight) {
+        int mask = index.length - 1;
+        int slot = (int) mix(hash, move) & mask;
+        for (; index[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = index[slot] - 1;
+            if (hashes[entry] == hash && moves[entry] == move) {
+                weights[entry] = (int) Math.min(Integer.MAX_VALUE, (long) weights[entry] + weight);
+                return;
+            }
+        }
+
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            moves = Arrays.copyOf(moves, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        hashes[size] = hash;
+        moves[size] = move;
+        weights[size] = weight;
+        // Entries are stored plus one so that 0 marks a free slot.
+        index[slot] = ++size;
+        if (size * 2 > index.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        index = new int[index.length * 2];
+        int mask = index.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = (int) mix(hashes[entry], moves[entry]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = entry + 1;
+        }
+    }
+
+    private static long mix(long hash, int move) {
+        long mixed = hash ^ move * 0x9E3779B97F4A7C15L;
+        return mixed ^ mixed >>> 32;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,70 @@
+package demo.chess.book;
+
+import demo.chess.game.Board;
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import demo.chess.pgn.PgnGame;
+import demo.chess.pgn.PgnReader;
+import demo.chess.record.Outcome;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Builds an opening book from the legal games of a PGN file, then follows random
+ * weighted lines through it from the initial position, printing the time per probe.
+ */
+public class PgnToBook {
+
+    private static final int DEFAULT_MAX_PLIES = 24;
+    private static final int PROBES = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: PgnToBook <in.pgn> <out.book> [max plies]");
+            System.exit(2);
+        }
+        Path pgn = Paths.get(args[0]);
+        Path bookFile = Paths.get(args[1]);
+        int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLIES;
+
+        long start = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        PgnGame game = new PgnGame();
+        try (PgnReader reader = PgnReader.open(pgn)) {
+            while (reader.next(game)) {
+                // Only games from the standard initial position lead to book lines.
+                if (game.isLegal() && game.tag("FEN") == null) {
+                    builder.add(game.game(), Outcome.fromPgn(game.result()));
+                }
+            }
+        }
+        builder.write(bookFile);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%,d games, %,d entries, %,d bytes in %,d ms%n", builder.games(), builder.entries(),
+                Files.size(bookFile), nanos / 1_000_000);
+
+        try (OpeningBook book = OpeningBook.open(bookFile)) {
+            SplittableRandom random = new SplittableRandom(1);
+            Board board = Position.INITIAL.board();
+            long hits = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < PROBES; i++) {
+                int move = book.pick(board, random);
+                if (move == Moves.NONE) {
+                    board.loadFen(Position.INITIAL.fen());
+                } else {
+                    hits++;
+                    board.makeMove(move);
+                }
+            }
+            nanos = System.nanoTime() - start;
+            System.out.printf("%,d probes (%,d in book) in %,d ms: %.2f us/probe%n", PROBES, hits,
+                    nanos / 1_000_000, nanos / 1_000.0 / PROBES);
+        }
+    }
+
+}
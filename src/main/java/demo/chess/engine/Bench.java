@@ -0,0 +1,49 @@
+package demo.chess.engine;
+
+import demo.chess.game.Perft.Position;
+
+/**
+ * Searches the perft reference positions to a fixed depth, once without and
+ * once with a transposition table, and prints time to each depth, nodes per
+ * second and table hit rate, the numbers tracked across releases.
+ */
+public class Bench {
+
+    private static final int TABLE_MEGABYTES = 64;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+
+        long[] totalNanos = new long[2];
+        long[] totalNodes = new long[2];
+        for (Position position : Position.values()) {
+            System.out.println(position);
+            for (int withTable = 0; withTable < 2; withTable++) {
+                TranspositionTable table = withTable == 1 ? new TranspositionTable(TABLE_MEGABYTES) : TranspositionTable.disabled();
+                SearchResult result = new Search(table).search(position.board(), SearchLimits.ofDepth(depth));
+
+                System.out.printf("  %-8s %s%n           time to depth%s%n",
+                        withTable == 1 ? "table" : "no table", result, timeToDepth(result));
+                totalNodes[withTable] += result.nodes();
+                totalNanos[withTable] += result.elapsedNanos();
+            }
+        }
+
+        for (int withTable = 0; withTable < 2; withTable++) {
+            System.out.printf("%-8s total nodes %,d in %,d ms: %,d nodes/s%n", withTable == 1 ? "table" : "no table",
+                    totalNodes[withTable], totalNanos[withTable] / 1_000_000,
+                    totalNanos[withTable] == 0 ? 0 : totalNodes[withTable] * 1_000_000_000L / totalNanos[withTable]);
+        }
+        System.out.printf("time-to-depth reduction with table: %.1f%%%n",
+                100.0 * (totalNanos[0] - totalNanos[1]) / Math.max(1, totalNanos[0]));
+    }
+
+    static String timeToDepth(SearchResult result) {
+        StringBuilder timeToDepth = new StringBuilder();
+        for (int d = 1; d <= result.depth(); d++) {
+            timeToDepth.append(' ').append(d).append(':').append(result.nanosToDepth(d) / 1_000_000).append("ms");
+        }
+        return timeToDepth.toString();
+    }
+
+}
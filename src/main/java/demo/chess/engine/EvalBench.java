@@ -0,0 +1,63 @@
+package demo.chess.engine;
+
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Perft.Position;
+
+/**
+ * Evaluates every node of the legal move tree of each perft reference position to a
+ * fixed depth, as a search would reach them by making and unmaking moves, and prints
+ * evaluations per second and the pawn table hit rate.
+ */
+public class EvalBench {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int ply = 0; ply <= depth; ply++) {
+            lists[ply] = new MoveList();
+        }
+        MoveGenerator generator = new MoveGenerator();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Evaluation evaluation = new Evaluation();
+            long evaluations = 0;
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (Position position : Position.values()) {
+                long[] totals = new long[2];
+                walk(position.board(), depth, evaluation, generator, lists, totals);
+                evaluations += totals[0];
+                checksum += totals[1];
+            }
+            long nanos = System.nanoTime() - start;
+            long probes = evaluation.pawnTableHits() + evaluation.pawnTableMisses();
+            System.out.printf("round %d: %,d evaluations in %,d ms, %,d evals/s, pawn table hit rate %.1f%% (checksum %d)%n",
+                    round + 1, evaluations, nanos / 1_000_000, evaluations * 1_000_000_000L / Math.max(1, nanos),
+                    100.0 * evaluation.pawnTableHits() / Math.max(1, probes), checksum);
+        }
+    }
+
+    // totals[0] counts evaluations, totals[1] sums their scores so the work cannot be optimized away.
+    private static void walk(Board board, int depth, Evaluation evaluation, MoveGenerator generator,
+                             MoveList[] lists, long[] totals) {
+        totals[0]++;
+        totals[1] += evaluation.evaluate(board);
+        if (depth == 0) {
+            return;
+        }
+        MoveList legal = lists[depth];
+        generator.generateLegalMoves(board, legal);
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            board.makeMove(move);
+            walk(board, depth - 1, evaluation, generator, lists, totals);
+            board.unmakeMove(move);
+        }
+    }
+
+}
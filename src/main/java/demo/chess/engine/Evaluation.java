@@ -0,0 +1,202 @@
+package demo.chess.engine;
+
+import demo.chess.game.Attacks;
+import demo.chess.game.Bitboards;
+import demo.chess.game.Board;
+import demo.chess.game.PieceSquareTables;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * Static score of a position in centipawns, from the point of view of the side to move.
+ * <p>
+ * Every term has a middlegame and an endgame value, blended by how much material is
+ * left. Material and piece-square scores come from {@link Board}, which keeps them
+ * up to date as moves are made and unmade; pawn structure comes from a
+ * {@link PawnTable}; mobility and king safety are computed on each call. Instances
+ * hold the pawn cache, so use one per thread.
+ */
+public final class Evaluation {
+
+    // Per attacked square not occupied by an own piece, indexed by PieceType ordinal:
+    // PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING.
+    private static final int[] MOBILITY_MIDDLEGAME = {0, 2, 4, 5, 1, 0};
+    private static final int[] MOBILITY_ENDGAME = {0, 4, 4, 5, 2, 0};
+
+    private static final int DOUBLED_MIDDLEGAME = -10, DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10, ISOLATED_ENDGAME = -15;
+    // Indexed by how many rows a passed pawn has advanced from its own back row.
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 20, 35, 60, 100, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 40, 70, 120, 200, 0};
+
+    private static final int SHIELD_PAWN = 10;
+    private static final int KING_ZONE_ATTACK = -8;
+
+    private static final int DEFAULT_PAWN_ENTRIES = 1 << 14;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // Squares ahead of a pawn on its own and the adjacent files, indexed by color ordinal then square.
+    private static final long[][] PASSED_SPAN = new long[2][Bitboards.SQUARES];
+    // The two rows in front of a king on its own and the adjacent files.
+    private static final long[][] SHIELD = new long[2][Bitboards.SQUARES];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = Bitboards.FILE_A << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0) | (file < 7 ? FILES[file + 1] : 0);
+        }
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            int row = Bitboards.row(square);
+            long span = FILES[Bitboards.column(square)] | ADJACENT_FILES[Bitboards.column(square)];
+            for (int ahead = 1; ahead < 8; ahead++) {
+                // White moves towards row 0, black towards row 7.
+                PASSED_SPAN[PieceColor.WHITE.ordinal()][square] |= span & row(row - ahead);
+                PASSED_SPAN[PieceColor.BLACK.ordinal()][square] |= span & row(row + ahead);
+                if (ahead <= 2) {
+                    SHIELD[PieceColor.WHITE.ordinal()][square] |= span & row(row - ahead);
+                    SHIELD[PieceColor.BLACK.ordinal()][square] |= span & row(row + ahead);
+                }
+            }
+        }
+    }
+
+    private final PawnTable pawns;
+
+    public Evaluation() {
+        this(DEFAULT_PAWN_ENTRIES);
+    }
+
+    public Evaluation(int pawnEntries) {
+        this.pawns = new PawnTable(pawnEntries);
+    }
+
+    public int evaluate(Board board) {
+        long pawnScores = pawnStructure(board);
+        int middlegame = board.middlegameScore() + middlegame(pawnScores);
+        int endgame = board.endgameScore() + endgame(pawnScores);
+
+        long occupied = board.occupancy();
+        long whiteMobility = mobility(board, PieceColor.WHITE, occupied);
+        long blackMobility = mobility(board, PieceColor.BLACK, occupied);
+        middlegame += middlegame(whiteMobility) - middlegame(blackMobility);
+        endgame += endgame(whiteMobility) - endgame(blackMobility);
+
+        middlegame += kingSafety(board, PieceColor.WHITE) - kingSafety(board, PieceColor.BLACK);
+
+        int phase = Math.min(board.phase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return board.sideToMove() == PieceColor.WHITE ? score : -score;
+    }
+
+    private static long row(int row) {
+        return row < 0 || row > 7 ? 0 : 0xFFL << (8 * row);
+    }
+
+    static int value(PieceType type) {
+        return PieceSquareTables.value(type);
+    }
+
+    long pawnTableHits() {
+        return pawns.hits();
+    }
+
+    long pawnTableMisses() {
+        return pawns.misses();
+    }
+
+    private long pawnStructure(Board board) {
+        long key = board.pawnHash();
+        if (!pawns.probe(key)) {
+            long white = pawnStructure(board, PieceColor.WHITE);
+            long black = pawnStructure(board, PieceColor.BLACK);
+            pawns.store(key, pack(middlegame(white) - middlegame(black), endgame(white) - endgame(black)));
+        }
+        return pawns.scores(key);
+    }
+
+    private static long pawnStructure(Board board, PieceColor color) {
+        long own = board.pieces(PieceType.PAWN, color);
+        long enemy = board.pieces(PieceType.PAWN, color.opposite());
+        int middlegame = 0, endgame = 0;
+
+        for (int file = 0; file < 8; file++) {
+            int onFile = Long.bitCount(own & FILES[file]);
+            if (onFile > 1) {
+                middlegame += DOUBLED_MIDDLEGAME * (onFile - 1);
+                endgame += DOUBLED_ENDGAME * (onFile - 1);
+            }
+            if (onFile > 0 && (own & ADJACENT_FILES[file]) == 0) {
+                middlegame += ISOLATED_MIDDLEGAME * onFile;
+                endgame += ISOLATED_ENDGAME * onFile;
+            }
+        }
+        for (long pawns = own; pawns != 0; pawns &= pawns - 1) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            if ((PASSED_SPAN[color.ordinal()][square] & enemy) == 0) {
+                int advanced = color == PieceColor.WHITE ? 7 - Bitboards.row(square) : Bitboards.row(square);
+                middlegame += PASSED_MIDDLEGAME[advanced];
+                endgame += PASSED_ENDGAME[advanced];
+            }
+        }
+        return pack(middlegame, endgame);
+    }
+
+    private static long mobility(Board board, PieceColor color, long occupied) {
+        long free = ~board.occupancy(color);
+        int squares;
+        int middlegame = 0, endgame = 0;
+
+        for (long knights = board.pieces(PieceType.KNIGHT, color); knights != 0; knights &= knights - 1) {
+            squares = Long.bitCount(Attacks.knight(Long.numberOfTrailingZeros(knights)) & free);
+            middlegame += squares * MOBILITY_MIDDLEGAME[PieceType.KNIGHT.ordinal()];
+            endgame += squares * MOBILITY_ENDGAME[PieceType.KNIGHT.ordinal()];
+        }
+        for (long bishops = board.pieces(PieceType.BISHOP, color); bishops != 0; bishops &= bishops - 1) {
+            squares = Long.bitCount(Attacks.bishop(Long.numberOfTrailingZeros(bishops), occupied) & free);
+            middlegame += squares * MOBILITY_MIDDLEGAME[PieceType.BISHOP.ordinal()];
+            endgame += squares * MOBILITY_ENDGAME[PieceType.BISHOP.ordinal()];
+        }
+        for (long rooks = board.pieces(PieceType.ROOK, color); rooks != 0; rooks &= rooks - 1) {
+            squares = Long.bitCount(Attacks.rook(Long.numberOfTrailingZeros(rooks), occupied) & free);
+            middlegame += squares * MOBILITY_MIDDLEGAME[PieceType.ROOK.ordinal()];
+            endgame += squares * MOBILITY_ENDGAME[PieceType.ROOK.ordinal()];
+        }
+        for (long queens = board.pieces(PieceType.QUEEN, color); queens != 0; queens &= queens - 1) {
+            squares = Long.bitCount(Attacks.queen(Long.numberOfTrailingZeros(queens), occupied) & free);
+            middlegame += squares * MOBILITY_MIDDLEGAME[PieceType.QUEEN.ordinal()];
+            endgame += squares * MOBILITY_ENDGAME[PieceType.QUEEN.ordinal()];
+        }
+        return pack(middlegame, endgame);
+    }
+
+    // A middlegame and an endgame score in one long, so helpers can return both.
+    private static long pack(int middlegame, int endgame) {
+        return (long) middlegame << 32 | (endgame & 0xFFFFFFFFL);
+    }
+
+    private static int middlegame(long scores) {
+        return (int) (scores >> 32);
+    }
+
+    private static int endgame(long scores) {
+        return (int) scores;
+    }
+
+    /**
+     * Middlegame only: pawns sheltering the king, less enemy attacks on the squares around it.
+     */
+    private static int kingSafety(Board board, PieceColor color) {
+        long king = board.pieces(PieceType.KING, color);
+        if (king == 0) {
+            return 0;
+        }
+        int square = Long.numberOfTrailingZeros(king);
+        int shield = Long.bitCount(SHIELD[color.ordinal()][square] & board.pieces(PieceType.PAWN, color));
+        int attacked = Long.bitCount(Attacks.king(square) & board.attacks(color.opposite()));
+        return SHIELD_PAWN * Math.min(shield, 3) + KING_ZONE_ATTACK * attacked;
+    }
+
+}
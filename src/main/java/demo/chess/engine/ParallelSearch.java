@@ -0,0 +1,118 @@
+package demo.chess.engine;
+
+import demo.chess.game.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP: the calling thread searches as usual while helper threads search
+ * copies of the same position, communicating only through the shared
+ * {@link TranspositionTable}. Every other helper searches one ply deeper so
+ * the threads fill the table with different subtrees instead of duplicating
+ * the main search. The main thread's result is returned once it finishes and
+ * the helpers are stopped; nodes and table statistics cover all threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService executor;
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed: " + threads);
+        }
+        this.table = table;
+        this.main = new Search(table);
+        this.helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(table);
+        }
+        this.executor = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length, helperThreads());
+    }
+
+    /**
+     * One thread per available core.
+     */
+    public static ParallelSearch allCores(TranspositionTable table) {
+        return new ParallelSearch(Runtime.getRuntime().availableProcessors(), table);
+    }
+
+    public int threads() {
+        return helpers.length + 1;
+    }
+
+    /**
+     * Searches {@code board} on all threads; the board is only read by the helpers and is
+     * restored by the main thread before returning.
+     */
+    public SearchResult search(Board board, SearchLimits limits) {
+        table.newSearch();
+
+        SearchLimits helperLimits = SearchLimits.ofDepth(Math.min(limits.depth() + 1, Search.MAX_PLY / 2));
+        List<Future<SearchResult>> running = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            Board copy = board.copy();
+            int depthOffset = (i + 1) & 1;
+            helper.clearStop();
+            running.add(executor.submit(() -> helper.run(copy, helperLimits, depthOffset)));
+        }
+
+        main.clearStop();
+        SearchResult result = main.run(board, limits, 0);
+
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        long nodes = result.nodes();
+        long probes = result.tableProbes();
+        long hits = result.tableHits();
+        for (Future<SearchResult> helper : running) {
+            SearchResult helperResult = await(helper);
+            nodes += helperResult.nodes();
+            probes += helperResult.tableProbes();
+            hits += helperResult.tableHits();
+        }
+        return result.withTotals(nodes, probes, hits);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static SearchResult await(Future<SearchResult> helper) {
+        try {
+            return helper.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for helper search", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory helperThreads() {
+        int pool = POOL_COUNT.incrementAndGet();
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "search-" + pool + "-helper-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,63 @@
+package demo.chess.engine;
+
+/**
+ * Cache of pawn-structure scores keyed by {@link demo.chess.game.Board#pawnHash()}. Pawns
+ * move rarely, so most evaluations in a search find their pawn terms here.
+ * <p>
+ * Direct-mapped with parallel {@code long[]} arrays of keys and scores, each score
+ * holding a middlegame and an endgame value packed by {@link Evaluation}. A pawnless
+ * position hashes to 0 and scores 0, which is also what an empty slot holds, so no
+ * slot is ever mistaken for another entry. Not thread-safe: each search owns one.
+ */
+class PawnTable {
+
+    private final long[] keys;
+    private final long[] scores;
+    private final int mask;
+    private long hits;
+    private long misses;
+
+    PawnTable(int entries) {
+        if (Integer.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("Entries must be a power of two: " + entries);
+        }
+        this.keys = new long[entries];
+        this.scores = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    /**
+     * Whether {@link #scores} holds an entry for {@code key}.
+     */
+    boolean probe(long key) {
+        if (keys[index(key)] == key) {
+            hits++;
+            return true;
+        }
+        misses++;
+        return false;
+    }
+
+    long scores(long key) {
+        return scores[index(key)];
+    }
+
+    void store(long key, long scores) {
+        int index = index(key);
+        keys[index] = key;
+        this.scores[index] = scores;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    private int index(long key) {
+        return (int) (key ^ key >>> 32) & mask;
+    }
+
+}
@@ -0,0 +1,39 @@
+package demo.chess.engine;
+
+import demo.chess.game.Perft.Position;
+
+/**
+ * Searches the perft reference positions to a fixed depth with 1, 2, 4, 8 and
+ * 16 threads and prints, per thread count, the total time to depth, nodes per
+ * second and the speedup over a single thread.
+ */
+public class ScalingBench {
+
+    private static final int TABLE_MEGABYTES = 64;
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+        System.out.printf("%d cores available%n", Runtime.getRuntime().availableProcessors());
+
+        long singleThreadNanos = 0;
+        for (int threads : THREADS) {
+            long totalNanos = 0;
+            long totalNodes = 0;
+            try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(TABLE_MEGABYTES))) {
+                for (Position position : Position.values()) {
+                    SearchResult result = search.search(position.board(), SearchLimits.ofDepth(depth));
+                    totalNanos += result.nanosToDepth(result.depth());
+                    totalNodes += result.nodes();
+                }
+            }
+            if (threads == 1) {
+                singleThreadNanos = totalNanos;
+            }
+            System.out.printf("%2d threads: time to depth %,d ms, %,d nodes/s, speedup %.2fx%n", threads,
+                    totalNanos / 1_000_000, totalNodes * 1_000_000_000L / Math.max(1, totalNanos),
+                    (double) singleThreadNanos / Math.max(1, totalNanos));
+        }
+    }
+
+}
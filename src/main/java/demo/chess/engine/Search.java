@@ -0,0 +1,396 @@
+package demo.chess.engine;
+
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Moves;
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.tablebase.Tablebase;
+
+/**
+ * Negamax alpha-beta search with iterative deepening and a quiescence search
+ * over captures. Moves are tried in the order: transposition table or previous
+ * best move, captures by MVV-LVA, killer moves, then quiet moves by history score.
+ * <p>
+ * The search plays moves on the board it is given and restores it before
+ * returning. Instances hold per-ply buffers and heuristics tables, so use one
+ * per thread.
+ */
+public class Search {
+
+    public static final int MAX_PLY = 64;
+    public static final int MATE = 30_000;
+    static final int INFINITY = 32_000;
+
+    private static final int BEST_MOVE_SCORE = 2_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int FIRST_KILLER_SCORE = 900_000;
+    private static final int SECOND_KILLER_SCORE = 800_000;
+    private static final int HISTORY_LIMIT = 700_000;
+
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+    // Tablebase wins score below the mate range, higher the sooner they mate.
+    private static final int TABLEBASE_WIN = MATE - MAX_PLY - 1;
+
+    private final MoveList[] moves = new MoveList[MAX_PLY + 1];
+    private final int[][] orderScores = new int[MAX_PLY + 1][MoveList.CAPACITY];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][][] history = new int[2][64][64];
+    private final TranspositionTable table;
+    private final Evaluation evaluation = new Evaluation();
+    private Tablebase tablebase;
+
+    private Board board;
+    private long nodes;
+    private long tableProbes;
+    private long tableHits;
+    private long deadline;
+    private boolean timed;
+    private boolean interruptible;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+    private int rootBestMove;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Searches sharing a table reuse each other's results; the table is safe to share across threads.
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moves[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Scores positions covered by {@code tablebase} from it instead of searching them.
+     */
+    public void useTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    public SearchResult search(Board board, SearchLimits limits) {
+        table.newSearch();
+        stopRequested = false;
+        return run(board, limits, 0);
+    }
+
+    /**
+     * Asks a running search, possibly on another thread, to return as soon as possible.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Iterative deepening where iteration {@code d} searches to depth {@code d + depthOffset};
+     * parallel helpers use an offset to stagger their depths against the main thread.
+     */
+    SearchResult run(Board board, SearchLimits limits, int depthOffset) {
+        long start = System.nanoTime();
+        prepare(board, limits, start);
+
+        long[] nanosToDepth = new long[limits.depth() + 1];
+        int bestMove = Moves.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+
+        for (int depth = 1; depth <= limits.depth(); depth++) {
+            // The first iteration always completes, past the deadline or a stop request,
+            // so that there is a move to return.
+            timed = limits.hasTimeBudget();
+            interruptible = depth > 1;
+            int score = negamax(depth + depthOffset, 0, -INFINITY, INFINITY);
+            if (stopped) {
+                break;
+            }
+
+            bestMove = rootBestMove;
+            bestScore = score;
+            completedDepth = depth;
+            long elapsed = System.nanoTime() - start;
+            nanosToDepth[depth] = elapsed;
+
+            if (bestMove == Moves.NONE || Math.abs(score) >= MATE - MAX_PLY) {
+                break;
+            }
+            // The next iteration costs several times this one; do not start what cannot finish.
+            if (limits.hasTimeBudget() && elapsed > (deadline - start) / 2) {
+                break;
+            }
+        }
+
+        this.board = null;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start, nanosToDepth,
+                tableProbes, tableHits);
+    }
+
+    private void prepare(Board board, SearchLimits limits, long start) {
+        this.board = board;
+        this.nodes = 0;
+        this.tableProbes = 0;
+        this.tableHits = 0;
+        this.stopped = false;
+        this.rootBestMove = Moves.NONE;
+        this.deadline = limits.hasTimeBudget() ? start + limits.budgetMillis() * 1_000_000L : Long.MAX_VALUE;
+
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = plyKillers[1] = Moves.NONE;
+        }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < from.length; to++) {
+                    from[to] >>= 3;
+                }
+            }
+        }
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (ply > 0 && (board.halfmoveClock() >= 100 || board.repetitionCount() > 1)) {
+            return 0;
+        }
+        if (ply > 0 && tablebase != null && Long.bitCount(board.occupancy()) <= tablebase.maxPieces()) {
+            int result = tablebase.probe(board);
+            if (result != Tablebase.NOT_FOUND) {
+                nodes++;
+                return tablebaseScore(result);
+            }
+        }
+
+        PieceColor us = board.sideToMove();
+        boolean inCheck = MoveGenerator.isInCheck(board, us);
+        if (inCheck && ply < MAX_PLY / 2) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (countNode() || ply >= MAX_PLY) {
+            return evaluation.evaluate(board);
+        }
+
+        long key = board.hash();
+        long entry = table.probe(key);
+        int tableMove = Moves.NONE;
+        tableProbes++;
+        if (entry != TranspositionTable.MISS) {
+            tableHits++;
+            tableMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList list = moves[ply];
+        int[] scores = orderScores[ply];
+        MoveGenerator.generatePseudoLegalMoves(board, list);
+        scoreMoves(list, scores, ply, ply == 0 && rootBestMove != Moves.NONE ? rootBestMove : tableMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Moves.NONE;
+        int legalMoves = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickNext(list, scores, i);
+
+            board.makeMove(move);
+            if (MoveGenerator.isInCheck(board, us)) {
+                board.unmakeMove(move);
+                continue;
+            }
+            legalMoves++;
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove(move);
+
+            if (stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        if (!Moves.isCapture(move)) {
+                            rememberQuietCutoff(move, us, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legalMoves == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    // Tablebase wins rank below any mate the search finds, nearer mates higher.
+    private static int tablebaseScore(int result) {
+        if (Tablebase.isWin(result)) {
+            return TABLEBASE_WIN - Tablebase.distanceToMate(result);
+        }
+        return Tablebase.isLoss(result) ? -TABLEBASE_WIN + Tablebase.distanceToMate(result) : 0;
+    }
+
+    // Mate scores are stored relative to the node, not the root, so they stay valid at any ply.
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private int quiesce(int ply, int alpha, int beta) {
+        if (countNode()) {
+            return 0;
+        }
+
+        int standPat = evaluation.evaluate(board);
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        PieceColor us = board.sideToMove();
+        MoveList list = moves[ply];
+        int[] scores = orderScores[ply];
+        MoveGenerator.generatePseudoLegalMoves(board, list);
+        scoreMoves(list, scores, ply, Moves.NONE);
+
+        for (int i = 0; i < list.size(); i++) {
+            int move = pickNext(list, scores, i);
+            if (!Moves.isCapture(move) && !Moves.isPromotion(move)) {
+                // Tactical moves sort first, so the rest of the list is quiet.
+                break;
+            }
+
+            board.makeMove(move);
+            if (MoveGenerator.isInCheck(board, us)) {
+                board.unmakeMove(move);
+                continue;
+            }
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            board.unmakeMove(move);
+
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private boolean countNode() {
+        if ((++nodes & (TIME_CHECK_INTERVAL - 1)) == 0 && interruptible &&
+                (stopRequested || (timed && System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private void scoreMoves(MoveList list, int[] scores, int ply, int bestMove) {
+        int side = board.sideToMove().ordinal();
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int score;
+            if (move == bestMove) {
+                score = BEST_MOVE_SCORE;
+            } else if (Moves.isCapture(move) || Moves.isPromotion(move)) {
+                score = CAPTURE_SCORE + mvvLva(move);
+            } else if (move == killers[ply][0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                score = history[side][Moves.from(move)][Moves.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    // Most valuable victim first, least valuable attacker as tie-break.
+    private int mvvLva(int move) {
+        int score = 0;
+        if (Moves.isCapture(move)) {
+            Piece victim = board.pieceAt(Moves.to(move));
+            int victimValue = victim == null ? Evaluation.value(PieceType.PAWN) : Evaluation.value(victim.type());
+            score += victimValue * 10 - board.pieceAt(Moves.from(move)).type().ordinal();
+        }
+        if (Moves.isPromotion(move)) {
+            score += Evaluation.value(Moves.promotion(move));
+        }
+        return score;
+    }
+
+    // Selection sort step: swaps the best remaining move into slot i.
+    private static int pickNext(MoveList list, int[] scores, int i) {
+        int best = i;
+        for (int j = i + 1; j < list.size(); j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            int move = list.get(best);
+            list.set(best, list.get(i));
+            list.set(i, move);
+            int score = scores[best];
+            scores[best] = scores[i];
+            scores[i] = score;
+        }
+        return list.get(i);
+    }
+
+    private void rememberQuietCutoff(int move, PieceColor us, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[us.ordinal()][Moves.from(move)];
+        fromHistory[Moves.to(move)] += depth * depth;
+        if (fromHistory[Moves.to(move)] > HISTORY_LIMIT) {
+            for (int[][] side : history) {
+                for (int[] from : side) {
+                    for (int to = 0; to < from.length; to++) {
+                        from[to] >>= 1;
+                    }
+                }
+            }
+        }
+    }
+
+}
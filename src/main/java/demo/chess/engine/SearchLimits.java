@@ -0,0 +1,46 @@
+package demo.chess.engine;
+
+/**
+ * When to stop iterative deepening: at a maximum depth, after a time budget, or both.
+ */
+public class SearchLimits {
+
+    private final int depth;
+    private final long budgetMillis;
+
+    private SearchLimits(int depth, long budgetMillis) {
+        if (depth < 1 || depth > Search.MAX_PLY / 2) {
+            throw new IllegalArgumentException("Depth out of range: " + depth);
+        }
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive: " + budgetMillis);
+        }
+        this.depth = depth;
+        this.budgetMillis = budgetMillis;
+    }
+
+    public static SearchLimits ofDepth(int depth) {
+        return new SearchLimits(depth, Long.MAX_VALUE);
+    }
+
+    public static SearchLimits ofMillis(long budgetMillis) {
+        return new SearchLimits(Search.MAX_PLY / 2, budgetMillis);
+    }
+
+    public static SearchLimits of(int depth, long budgetMillis) {
+        return new SearchLimits(depth, budgetMillis);
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long budgetMillis() {
+        return budgetMillis;
+    }
+
+    public boolean hasTimeBudget() {
+        return budgetMillis != Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,109 @@
+package demo.chess.engine;
+
+import demo.chess.game.Moves;
+
+import java.util.Arrays;
+
+/**
+ * Outcome of one search: the best move of the deepest completed iteration and
+ * the counters used to track engine throughput.
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+    private final long[] nanosToDepth;
+    private final long tableProbes;
+    private final long tableHits;
+
+    SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos, long[] nanosToDepth,
+                 long tableProbes, long tableHits) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.nanosToDepth = Arrays.copyOf(nanosToDepth, depth + 1);
+        this.tableProbes = tableProbes;
+        this.tableHits = tableHits;
+    }
+
+    /**
+     * Packed move (see {@link Moves}), or {@link Moves#NONE} when the side to move has no legal move.
+     */
+    public int bestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Centipawns from the side to move's point of view; mate scores are within
+     * {@link Search#MAX_PLY} of {@code +/-}{@link Search#MATE}.
+     */
+    public int score() {
+        return score;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * Time from the start of the search until iteration {@code depth} completed.
+     */
+    public long nanosToDepth(int depth) {
+        if (depth < 1 || depth > this.depth) {
+            throw new IllegalArgumentException("Depth " + depth + " was not completed");
+        }
+        return nanosToDepth[depth];
+    }
+
+    /**
+     * Share of transposition table probes that found an entry for the position.
+     */
+    public double tableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    long tableProbes() {
+        return tableProbes;
+    }
+
+    long tableHits() {
+        return tableHits;
+    }
+
+    /**
+     * This result with counters summed over all threads that took part in the search.
+     */
+    SearchResult withTotals(long nodes, long tableProbes, long tableHits) {
+        return new SearchResult(bestMove, score, depth, nodes, elapsedNanos, nanosToDepth, tableProbes, tableHits);
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    @Override
+    public String toString() {
+        return "bestmove " + (bestMove == Moves.NONE ? "(none)" : Moves.toString(bestMove)) +
+                " score " + score + " depth " + depth + " nodes " + nodes +
+                " time " + elapsedNanos / 1_000_000 + "ms nps " + nodesPerSecond() +
+                String.format(" tthits %.1f%%", tableHitRate() * 100);
+    }
+
+}
@@ -0,0 +1,127 @@
+package demo.chess.engine;
+
+import demo.chess.game.Moves;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results keyed by {@link demo.chess.game.Board#hash()}.
+ * <p>
+ * Entries live in a preallocated {@code long[]}, two slots each: the position key
+ * XOR the data word, then the data word. Threads read and write the slots without
+ * locks; a torn write leaves a pair whose XOR no longer gives back the key, and
+ * {@link #probe} reports it as a miss. Data words pack the best move (16 bits),
+ * score (16), depth (8), bound (2) and search generation (6) and are never zero,
+ * so {@link #MISS} is unambiguous.
+ * <p>
+ * Replacement is depth-preferred: an entry from the current search is kept
+ * unless the new result is for the same position or searched at least as deep.
+ */
+public class TranspositionTable {
+
+    public static final long MISS = 0L;
+
+    public static final int EXACT = 1, LOWER_BOUND = 2, UPPER_BOUND = 3;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] slots;
+    private final int mask;
+    private volatile int generation;
+
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 16 * 1024) {
+            throw new IllegalArgumentException("Size must be between 1 MB and 16 GB: " + megabytes);
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1 << 29);
+        this.slots = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
+    }
+
+    private TranspositionTable() {
+        this.slots = new long[0];
+        this.mask = -1;
+    }
+
+    /**
+     * A table that stores nothing, for measuring search without one.
+     */
+    public static TranspositionTable disabled() {
+        return new TranspositionTable();
+    }
+
+    public int capacity() {
+        return slots.length / 2;
+    }
+
+    /**
+     * Starts a new search generation; entries from older generations are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x3F;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0L);
+    }
+
+    public long probe(long key) {
+        if (mask < 0) {
+            return MISS;
+        }
+        int index = index(key);
+        long data = slots[index + 1];
+        long check = slots[index];
+        return (check ^ data) == key ? data : MISS;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        if (mask < 0) {
+            return;
+        }
+        int index = index(key);
+        long existing = slots[index + 1];
+        boolean samePosition = (slots[index] ^ existing) == key;
+
+        if (existing != MISS && !samePosition && generation(existing) == generation && depth < depth(existing)) {
+            return;
+        }
+        if (samePosition && move == Moves.NONE) {
+            move = move(existing);
+        }
+
+        long data = (move & 0xFFFFL) |
+                (score & 0xFFFFL) << 16 |
+                (long) (depth & 0xFF) << 32 |
+                (long) bound << 40 |
+                (long) generation << 42;
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 42) & 0x3F);
+    }
+
+    private int index(long key) {
+        return ((int) (key >>> 32) & mask) << 1;
+    }
+
+}
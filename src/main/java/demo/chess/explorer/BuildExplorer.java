@@ -0,0 +1,71 @@
+package demo.chess.explorer;
+
+import demo.chess.record.GameRecordReader;
+import demo.chess.record.StoredGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Aggregates the games of a record file from a given game on into an explorer snapshot,
+ * merged into the snapshot if it already exists, printing games per second; then looks
+ * up positions taken from random games, printing the time per lookup.
+ */
+public class BuildExplorer {
+
+    private static final int DEFAULT_MAX_PLIES = 30;
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BuildExplorer <in.chgr> <out.explorer> [first game] [max plies]");
+            System.exit(2);
+        }
+        Path records = Paths.get(args[0]);
+        Path snapshot = Paths.get(args[1]);
+        long from = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int maxPlies = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_PLIES;
+
+        try (GameRecordReader games = GameRecordReader.open(records)) {
+            long start = System.nanoTime();
+            ExplorerStats stats = new ExplorerStats(maxPlies);
+            long added = stats.addAll(games, from, ForkJoinPool.commonPool());
+            long aggregated = System.nanoTime() - start;
+            if (Files.exists(snapshot)) {
+                try (OpeningExplorer base = OpeningExplorer.open(snapshot)) {
+                    stats.writeMerged(base, snapshot);
+                }
+            } else {
+                stats.write(snapshot);
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("aggregated %,d games (%,d entries) in %,d ms, %,d games/s; wrote %,d bytes in %,d ms%n",
+                    added, stats.entries(), aggregated / 1_000_000, added * 1_000_000_000L / Math.max(1, aggregated),
+                    Files.size(snapshot), (nanos - aggregated) / 1_000_000);
+
+            try (OpeningExplorer explorer = OpeningExplorer.open(snapshot)) {
+                SplittableRandom random = new SplittableRandom(1);
+                long[] hashes = new long[1024];
+                for (int i = 0; i < hashes.length && games.games() > 0; i++) {
+                    StoredGame game = games.game(random.nextLong(games.games()));
+                    hashes[i] = game.board(random.nextInt(Math.min(game.plies(), maxPlies) + 1)).hash();
+                }
+                int[] moves = new int[256];
+                int[] counts = new int[256 * OpeningExplorer.COUNTERS];
+                long found = 0;
+                start = System.nanoTime();
+                for (int i = 0; i < LOOKUPS; i++) {
+                    found += explorer.moves(hashes[i & (hashes.length - 1)], moves, counts);
+                }
+                nanos = System.nanoTime() - start;
+                System.out.printf("%,d lookups over %,d entries (%,d moves found) in %,d ms: %.2f us/lookup%n",
+                        LOOKUPS, explorer.entries(), found, nanos / 1_000_000, nanos / 1_000.0 / LOOKUPS);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,380 @@
+package demo.chess.explorer;
+
+import demo.chess.game.Board;
+import demo.chess.game.DefaultGame;
+import demo.chess.player.Player;
+import demo.chess.record.GameRecordReader;
+import demo.chess.record.Outcome;
+import demo.chess.record.StoredGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Aggregates, for every position and move of a corpus of games up to {@code maxPlies},
+ * how many games played the move and how they ended, and writes the result as an
+ * {@link OpeningExplorer} snapshot.
+ * <p>
+ * Counters live off-heap in an open-addressing table with linear probing, in pages of
+ * direct memory so that it can outgrow the 2 GB of a single buffer and the collector
+ * never scans it. A slot holds the position hash, the move plus one (0 marks a free
+ * slot) and four counters. The table doubles when half full. Instances are not
+ * thread-safe; {@link #addAll} aggregates chunks of games in tables of their own on a
+ * pool and merges them.
+ */
+public class ExplorerStats {
+
+    private static final int SLOT_BYTES = 32;
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+    private static final int MAX_SLOTS = 1 << 30;
+    private static final int CHUNK_GAMES = 1024;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final int maxPlies;
+    private ByteBuffer[] pages;
+    private int mask;
+    private int size;
+
+    public ExplorerStats(int maxPlies) {
+        this.maxPlies = maxPlies;
+        allocate(PAGE_SLOTS);
+    }
+
+    /**
+     * Counts the moves of {@code game} under {@code outcome}, e.g. a game read by the PGN reader
+     * or replayed from a record file.
+     */
+    public void add(DefaultGame game, Outcome outcome) {
+        Board board = game.board().copy();
+        for (int ply = game.plies() - 1; ply >= 0; ply--) {
+            board.unmakeMove(game.movePlayed(ply));
+        }
+        int plies = Math.min(game.plies(), maxPlies);
+        for (int ply = 0; ply < plies; ply++) {
+            int move = game.movePlayed(ply);
+            add(board.hash(), move, 1, outcome == Outcome.WHITE_WINS ? 1 : 0, outcome == Outcome.DRAW ? 1 : 0,
+                    outcome == Outcome.BLACK_WINS ? 1 : 0);
+            board.makeMove(move);
+        }
+    }
+
+    /**
+     * Replays games {@code from} to the end of {@code games} through {@link DefaultGame#move}
+     * on {@code pool}, in chunks counted apart and then merged into these statistics.
+     *
+     * @return the number of games added
+     */
+    public long addAll(GameRecordReader games, long from, ForkJoinPool pool) {
+        long chunks = (games.games() - from + CHUNK_GAMES - 1) / CHUNK_GAMES;
+        int round = pool.getParallelism() * 4;
+        for (long start = 0; start < chunks; start += round) {
+            long first = start, end = Math.min(chunks, start + round);
+            for (ExplorerStats chunk : submit(pool, () -> LongStream.range(first, end).parallel()
+                    .mapToObj(c -> replay(games, from + c * CHUNK_GAMES, Math.min(games.games(), from + (c + 1) * CHUNK_GAMES)))
+                    .collect(Collectors.toList()))) {
+                merge(chunk);
+            }
+        }
+        return Math.max(0, games.games() - from);
+    }
+
+    private ExplorerStats replay(GameRecordReader games, long from, long end) {
+        ExplorerStats chunk = new ExplorerStats(maxPlies);
+        Player white = Player.newWhiteSide(), black = Player.newBlackSide();
+        for (long n = from; n < end; n++) {
+            StoredGame game = games.game(n);
+            chunk.add(game.replay(white, black), game.outcome());
+        }
+        return chunk;
+    }
+
+    private static <T> T submit(ForkJoinPool pool, Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating games", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Aggregating games failed", e.getCause());
+        }
+    }
+
+    /**
+     * Adds the counters of {@code other} to these.
+     */
+    public void merge(ExplorerStats other) {
+        for (int slot = 0; slot <= other.mask; slot++) {
+            if (other.moveAt(slot) != 0) {
+                add(other.hashAt(slot), other.moveAt(slot) - 1, other.counter(slot, OpeningExplorer.GAMES),
+                        other.counter(slot, OpeningExplorer.WHITE_WINS), other.counter(slot, OpeningExplorer.DRAWS),
+                        other.counter(slot, OpeningExplorer.BLACK_WINS));
+            }
+        }
+    }
+
+    /**
+     * Distinct (position, move) entries counted so far.
+     */
+    public int entries() {
+        return size;
+    }
+
+    /**
+     * The counter of {@code move} from the position {@code hash}, by its {@link OpeningExplorer} offset.
+     */
+    public int count(long hash, int move, int counter) {
+        int slot = find(hash, move);
+        return moveAt(slot) == 0 ? 0 : counter(slot, counter);
+    }
+
+    public void write(Path path) throws IOException {
+        write(null, path);
+    }
+
+    /**
+     * Writes {@code base} with these statistics added, merging the two sorted sequences
+     * of entries as they stream out, so earlier games are neither replayed nor loaded.
+     * {@code path} is replaced atomically and may be the file {@code base} was opened from,
+     * which keeps serving the old statistics until it is closed.
+     */
+    public void writeMerged(OpeningExplorer base, Path path) throws IOException {
+        write(base, path);
+    }
+
+    private void write(OpeningExplorer base, Path path) throws IOException {
+        int[] order = sortedSlots();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            buffer.position(OpeningExplorer.HEADER_BYTES);
+            long written = 0;
+            long baseEntries = base == null ? 0 : base.entries();
+            long b = 0;
+            int o = 0;
+            int[] counters = new int[OpeningExplorer.COUNTERS];
+            while (b < baseEntries || o < order.length) {
+                long hash;
+                int move;
+                int compared = b == baseEntries ? 1 : o == order.length ? -1
+                        : compare(base.hash(b), base.move(b), hashAt(order[o]), moveAt(order[o]) - 1);
+                if (compared <= 0) {
+                    hash = base.hash(b);
+                    move = base.move(b);
+                    for (int counter = 0; counter < counters.length; counter++) {
+                        counters[counter] = base.counter(b, counter);
+                    }
+                    b++;
+                } else {
+                    hash = hashAt(order[o]);
+                    move = moveAt(order[o]) - 1;
+                    counters[0] = counters[1] = counters[2] = counters[3] = 0;
+                }
+                if (compared >= 0) {
+                    for (int counter = 0; counter < counters.length; counter++) {
+                        counters[counter] = saturatedAdd(counters[counter], counter(order[o], counter));
+                    }
+                    o++;
+                }
+
+                if (buffer.remaining() < OpeningExplorer.ENTRY_BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(hash).putShort((short) move).putShort((short) 0);
+                for (int counter : counters) {
+                    buffer.putInt(counter);
+                }
+                written++;
+            }
+            flush(channel, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(OpeningExplorer.HEADER_BYTES);
+            header.putInt(OpeningExplorer.MAGIC).putShort(OpeningExplorer.VERSION).putShort((short) 0)
+                    .putLong(written).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int compare(long hash, int move, long otherHash, int otherMove) {
+        int byHash = Long.compare(hash, otherHash);
+        return byHash != 0 ? byHash : Integer.compare(move, otherMove);
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) a + b);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Occupied slots by hash, then move.
+    private int[] sortedSlots() {
+        int[] slots = new int[size];
+        long[] hashes = new long[size];
+        int count = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (moveAt(slot) != 0) {
+                hashes[count] = hashAt(slot);
+                slots[count++] = slot;
+            }
+        }
+        sort(hashes, slots, 0, count - 1);
+        return slots;
+    }
+
+    private void sort(long[] hashes, int[] slots, int low, int high) {
+        while (low < high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    for (int j = i; j > low && compare(hashes[j - 1], moveAt(slots[j - 1]), hashes[j], moveAt(slots[j])) > 0; j--) {
+                        swap(hashes, slots, j - 1, j);
+                    }
+                }
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            long pivotHash = hashes[middle];
+            int pivotMove = moveAt(slots[middle]);
+            int i = low, j = high;
+            while (i <= j) {
+                while (compare(hashes[i], moveAt(slots[i]), pivotHash, pivotMove) < 0) {
+                    i++;
+                }
+                while (compare(hashes[j], moveAt(slots[j]), pivotHash, pivotMove) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(hashes, slots, i++, j--);
+                }
+            }
+            // Recurse into the smaller side so the stack stays logarithmic.
+            if (j - low < high - i) {
+                sort(hashes, slots, low, j);
+                low = i;
+            } else {
+                sort(hashes, slots, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static void swap(long[] hashes, int[] slots, int a, int b) {
+        long hash = hashes[a];
+        hashes[a] = hashes[b];
+        hashes[b] = hash;
+        int slot = slots[a];
+        slots[a] = slots[b];
+        slots[b] = slot;
+    }
+
+    private void add(long hash, int move, int games, int whiteWins, int draws, int blackWins) {
+        int slot = find(hash, move);
+        if (moveAt(slot) == 0) {
+            ByteBuffer page = pages[slot >>> PAGE_SHIFT];
+            int at = offset(slot);
+            page.putLong(at, hash);
+            page.putInt(at + 8, move + 1);
+            if (++size * 2 > mask + 1) {
+                grow();
+                slot = find(hash, move);
+            }
+        }
+        increment(slot, OpeningExplorer.GAMES, games);
+        increment(slot, OpeningExplorer.WHITE_WINS, whiteWins);
+        increment(slot, OpeningExplorer.DRAWS, draws);
+        increment(slot, OpeningExplorer.BLACK_WINS, blackWins);
+    }
+
+    // The slot holding (hash, move), or the free slot where it belongs.
+    private int find(long hash, int move) {
+        int slot = (int) mix(hash, move) & mask;
+        while (true) {
+            int stored = moveAt(slot);
+            if (stored == 0 || (stored == move + 1 && hashAt(slot) == hash)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        if (mask + 1 == MAX_SLOTS) {
+            throw new IllegalStateException("Explorer statistics exceed " + MAX_SLOTS / 2 + " entries");
+        }
+        ByteBuffer[] old = pages;
+        int oldSlots = mask + 1;
+        allocate(oldSlots * 2);
+        for (int slot = 0; slot < oldSlots; slot++) {
+            ByteBuffer page = old[slot >>> PAGE_SHIFT];
+            int at = offset(slot);
+            int stored = page.getInt(at + 8);
+            if (stored != 0) {
+                long hash = page.getLong(at);
+                int target = find(hash, stored - 1);
+                ByteBuffer targetPage = pages[target >>> PAGE_SHIFT];
+                int targetAt = offset(target);
+                for (int b = 0; b < SLOT_BYTES; b += 8) {
+                    targetPage.putLong(targetAt + b, page.getLong(at + b));
+                }
+            }
+        }
+    }
+
+    private void allocate(int slots) {
+        pages = new ByteBuffer[slots / PAGE_SLOTS];
+        for (int p = 0; p < pages.length; p++) {
+            // Direct buffers start zeroed, which marks every slot free.
+            pages[p] = ByteBuffer.allocateDirect(PAGE_SLOTS * SLOT_BYTES);
+        }
+        mask = slots - 1;
+    }
+
+    private long hashAt(int slot) {
+        return pages[slot >>> PAGE_SHIFT].getLong(offset(slot));
+    }
+
+    private int moveAt(int slot) {
+        return pages[slot >>> PAGE_SHIFT].getInt(offset(slot) + 8);
+    }
+
+    private int counter(int slot, int counter) {
+        return pages[slot >>> PAGE_SHIFT].getInt(offset(slot) + 12 + 4 * counter);
+    }
+
+    private void increment(int slot, int counter, int by) {
+        if (by != 0) {
+            ByteBuffer page = pages[slot >>> PAGE_SHIFT];
+            int at = offset(slot) + 12 + 4 * counter;
+            page.putInt(at, saturatedAdd(page.getInt(at), by));
+        }
+    }
+
+    private static int offset(int slot) {
+        return (slot & (PAGE_SLOTS - 1)) * SLOT_BYTES;
+    }
+
+    private static long mix(long hash, int move) {
+        long mixed = hash ^ move * 0x9E3779B97F4A7C15L;
+        return mixed ^ mixed >>> 32;
+    }
+
+}
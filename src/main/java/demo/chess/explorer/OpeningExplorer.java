@@ -0,0 +1,144 @@
+package demo.chess.explorer;
+
+import demo.chess.game.Board;
+import demo.chess.game.Moves;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opening statistics written by {@link ExplorerStats}: for each position and move
+ * played from it, how many games did so and how those games ended. Memory-mapped
+ * and searched in place, so lookups allocate nothing.
+ * <p>
+ * After a 16-byte header (magic {@code CHEX}, format version, entry count) come
+ * 28-byte entries sorted by position hash, then move: the {@link Board#hash()}
+ * (64 bits), the move packed as in {@link Moves} (16), padding (16), then the
+ * games, white wins, draws and black wins (32 each). Games include those with an
+ * unknown result. The file is mapped in regions of whole entries, so it may exceed
+ * 2 GB. Reads only use absolute offsets and are safe from several threads.
+ */
+public class OpeningExplorer implements Closeable {
+
+    /**
+     * Offsets of the counters of a move within its group in {@link #moves}.
+     */
+    public static final int GAMES = 0, WHITE_WINS = 1, DRAWS = 2, BLACK_WINS = 3, COUNTERS = 4;
+
+    static final int MAGIC = 0x43484558; // "CHEX"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 28;
+
+    private static final int REGION_ENTRIES = (1 << 30) / ENTRY_BYTES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] regions;
+    private final long size;
+
+    private OpeningExplorer(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long fileSize = channel.size();
+        if (fileSize < HEADER_BYTES) {
+            throw new IOException("Not an explorer snapshot: too short");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not an explorer snapshot: bad magic");
+        }
+        if (header.getShort(4) != VERSION) {
+            throw new IOException("Unsupported explorer snapshot version " + header.getShort(4));
+        }
+        this.size = header.getLong(8);
+        if (HEADER_BYTES + size * ENTRY_BYTES != fileSize) {
+            throw new IOException("Explorer snapshot holds " + fileSize + " bytes for " + size + " entries");
+        }
+        this.regions = new MappedByteBuffer[(int) ((size + REGION_ENTRIES - 1) / REGION_ENTRIES)];
+        for (int r = 0; r < regions.length; r++) {
+            long first = (long) r * REGION_ENTRIES;
+            regions[r] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * ENTRY_BYTES,
+                    Math.min(REGION_ENTRIES, size - first) * ENTRY_BYTES);
+        }
+    }
+
+    public static OpeningExplorer open(Path path) throws IOException {
+        return new OpeningExplorer(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public long entries() {
+        return size;
+    }
+
+    /**
+     * Copies the moves played from the position {@code hash}, and {@link #COUNTERS} counters
+     * for each into {@code counts} (the games of move {@code i} at {@code counts[i * COUNTERS + GAMES]}),
+     * as many as fit, and returns how many moves there are, ordered by move.
+     */
+    public int moves(long hash, int[] moves, int[] counts) {
+        int count = 0;
+        for (long entry = firstEntry(hash); entry < size && hash(entry) == hash; entry++, count++) {
+            if (count < moves.length && (count + 1) * COUNTERS <= counts.length) {
+                moves[count] = move(entry);
+                for (int counter = 0; counter < COUNTERS; counter++) {
+                    counts[count * COUNTERS + counter] = counter(entry, counter);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Games that continued from the position {@code hash}, over all moves.
+     */
+    public long games(long hash) {
+        long games = 0;
+        for (long entry = firstEntry(hash); entry < size && hash(entry) == hash; entry++) {
+            games += counter(entry, GAMES);
+        }
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // The first entry whose hash is not less than hash.
+    long firstEntry(long hash) {
+        long low = 0, high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (hash(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long hash(long entry) {
+        return region(entry).getLong(offset(entry));
+    }
+
+    int move(long entry) {
+        return region(entry).getShort(offset(entry) + 8) & 0xFFFF;
+    }
+
+    int counter(long entry, int counter) {
+        return region(entry).getInt(offset(entry) + 12 + 4 * counter);
+    }
+
+    private MappedByteBuffer region(long entry) {
+        return regions[(int) (entry / REGION_ENTRIES)];
+    }
+
+    private static int offset(long entry) {
+        return (int) (entry % REGION_ENTRIES) * ENTRY_BYTES;
+    }
+
+}
@@ -0,0 +1,181 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece.PieceColor;
+
+/**
+ * Precomputed attack sets. Knight, king and pawn attacks are plain per-square
+ * tables; sliding pieces use magic bitboards, where the relevant blockers are
+ * hashed by a per-square multiplier into a dense table of attack sets. The
+ * multipliers are searched once at class initialisation with a fixed seed.
+ */
+public final class Attacks {
+
+    private static final int[][] KNIGHT_STEPS = {{1, 2}, {-1, 2}, {1, -2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}};
+    private static final int[][] KING_STEPS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] KNIGHT = new long[Bitboards.SQUARES];
+    private static final long[] KING = new long[Bitboards.SQUARES];
+    private static final long[][] PAWN = new long[PieceColor.values().length][Bitboards.SQUARES];
+
+    private static final Magic[] ROOK = new Magic[Bitboards.SQUARES];
+    private static final Magic[] BISHOP = new Magic[Bitboards.SQUARES];
+
+    static {
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            KNIGHT[square] = steps(square, KNIGHT_STEPS);
+            KING[square] = steps(square, KING_STEPS);
+            int x = Bitboards.row(square), y = Bitboards.column(square);
+            PAWN[PieceColor.WHITE.ordinal()][square] = step(x - 1, y - 1) | step(x - 1, y + 1);
+            PAWN[PieceColor.BLACK.ordinal()][square] = step(x + 1, y - 1) | step(x + 1, y + 1);
+        }
+
+        long[] seed = {0x9E3779B97F4A7C15L};
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            ROOK[square] = Magic.find(square, ROOK_DIRECTIONS, seed);
+            BISHOP[square] = Magic.find(square, BISHOP_DIRECTIONS, seed);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Squares a pawn of {@code color} standing on {@code square} attacks.
+     */
+    public static long pawn(PieceColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP[square].attacks(occupied);
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK[square].attacks(occupied);
+    }
+
+    public static long queen(int square, long occupied) {
+        return BISHOP[square].attacks(occupied) | ROOK[square].attacks(occupied);
+    }
+
+    private static long steps(int square, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            attacks |= step(Bitboards.row(square) + step[0], Bitboards.column(square) + step[1]);
+        }
+        return attacks;
+    }
+
+    private static long step(int x, int y) {
+        return x < 0 || x > 7 || y < 0 || y > 7 ? 0L : Bitboards.bit(Bitboards.index(x, y));
+    }
+
+    private static long slide(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int x = Bitboards.row(square) + direction[0];
+            int y = Bitboards.column(square) + direction[1];
+            for (; x >= 0 && x < 8 && y >= 0 && y < 8; x += direction[0], y += direction[1]) {
+                long bit = Bitboards.bit(Bitboards.index(x, y));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    // Squares whose occupancy can change a slider's attacks: its rays without the final edge square.
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int x = Bitboards.row(square) + direction[0];
+            int y = Bitboards.column(square) + direction[1];
+            for (; x + direction[0] >= 0 && x + direction[0] < 8 && y + direction[1] >= 0 && y + direction[1] < 8;
+                 x += direction[0], y += direction[1]) {
+                mask |= Bitboards.bit(Bitboards.index(x, y));
+            }
+        }
+        return mask;
+    }
+
+    private static final class Magic {
+        private final long mask;
+        private final long multiplier;
+        private final int shift;
+        private final long[] attacks;
+
+        private Magic(long mask, long multiplier, int shift, long[] attacks) {
+            this.mask = mask;
+            this.multiplier = multiplier;
+            this.shift = shift;
+            this.attacks = attacks;
+        }
+
+        long attacks(long occupied) {
+            return attacks[(int) (((occupied & mask) * multiplier) >>> shift)];
+        }
+
+        static Magic find(int square, int[][] directions, long[] seed) {
+            long mask = relevantBlockers(square, directions);
+            int bits = Long.bitCount(mask);
+            int size = 1 << bits;
+
+            long[] blockers = new long[size];
+            long[] reference = new long[size];
+            long subset = 0L;
+            for (int i = 0; i < size; i++) {
+                blockers[i] = subset;
+                reference[i] = slide(square, subset, directions);
+                subset = (subset - mask) & mask;
+            }
+
+            long[] table = new long[size];
+            int[] epoch = new int[size];
+            for (int attempt = 1; ; attempt++) {
+                long multiplier = sparseRandom(seed);
+                if (Long.bitCount((mask * multiplier) & 0xFF00000000000000L) < 6) {
+                    continue;
+                }
+                boolean collision = false;
+                for (int i = 0; i < size && !collision; i++) {
+                    int index = (int) ((blockers[i] * multiplier) >>> (64 - bits));
+                    if (epoch[index] != attempt) {
+                        epoch[index] = attempt;
+                        table[index] = reference[i];
+                    } else if (table[index] != reference[i]) {
+                        collision = true;
+                    }
+                }
+                if (!collision) {
+                    return new Magic(mask, multiplier, 64 - bits, table);
+                }
+            }
+        }
+
+        private static long sparseRandom(long[] seed) {
+            return next(seed) & next(seed) & next(seed);
+        }
+
+        private static long next(long[] seed) {
+            long x = seed[0];
+            x ^= x >>> 12;
+            x ^= x << 25;
+            x ^= x >>> 27;
+            seed[0] = x;
+            return x * 0x2545F4914F6CDD1DL;
+        }
+    }
+
+}
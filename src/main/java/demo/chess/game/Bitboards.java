@@ -0,0 +1,75 @@
+package demo.chess.game;
+
+/**
+ * Helpers for the 64-bit board layout used by {@link Board}.
+ * Bit {@code x * 8 + y} of a bitboard stands for the square at row {@code x}, column {@code y}.
+ */
+public final class Bitboards {
+
+    public static final int SQUARES = 64;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long LIGHT_SQUARES = 0xAA55AA55AA55AA55L;
+
+    private static final long[][] BETWEEN = new long[SQUARES][SQUARES];
+
+    static {
+        for (int from = 0; from < SQUARES; from++) {
+            for (int to = 0; to < SQUARES; to++) {
+                BETWEEN[from][to] = computeBetween(from, to);
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int index(int x, int y) {
+        return (x << 3) | y;
+    }
+
+    public static int row(int square) {
+        return square >>> 3;
+    }
+
+    public static int column(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & bit(square)) != 0;
+    }
+
+    /**
+     * Squares strictly between {@code from} and {@code to} when both lie on the same
+     * row, column or diagonal; empty otherwise.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    private static long computeBetween(int from, int to) {
+        int diffX = row(to) - row(from);
+        int diffY = column(to) - column(from);
+
+        if ((diffX == 0 && diffY == 0) ||
+                (diffX != 0 && diffY != 0 && Math.abs(diffX) != Math.abs(diffY))) {
+            return 0L;
+        }
+
+        int dirX = Integer.signum(diffX);
+        int dirY = Integer.signum(diffY);
+
+        long mask = 0L;
+        for (int x = row(from) + dirX, y = column(from) + dirY; x != row(to) || y != column(to); x += dirX, y += dirY) {
+            mask |= bit(index(x, y));
+        }
+        return mask;
+    }
+
+}
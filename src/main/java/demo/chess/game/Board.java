@@ -1,43 +1,357 @@
 package demo.chess.game;
 
 import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
 
-import java.util.Objects;
+import java.util.Arrays;
 
-import static demo.chess.game.Square.newEmptySquare;
-import static demo.chess.game.Square.newSquareWith;
+import static demo.chess.game.Square.newSquareOn;
 
-public class Board {
+public class Board implements BoardView {
+
+    public static final int WHITE_KING_SIDE = 1, WHITE_QUEEN_SIDE = 2, BLACK_KING_SIDE = 4, BLACK_QUEEN_SIDE = 8;
+    public static final int NO_SQUARE = -1;
 
     private final static int ROWS=8, COLUMNS=8;
-    private Square[][] squares;
+    private final static int INITIAL_UNDO_PLIES = 128;
+    private static final long[] NO_UNDO = new long[0];
+
+    // Castling rights that survive a move touching each square.
+    private static final int[] CASTLING_MASK = new int[ROWS * COLUMNS];
+
+    static {
+        Arrays.fill(CASTLING_MASK, WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[Bitboards.index(7, 4)] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[Bitboards.index(7, 7)] &= ~WHITE_KING_SIDE;
+        CASTLING_MASK[Bitboards.index(7, 0)] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[Bitboards.index(0, 4)] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASK[Bitboards.index(0, 7)] &= ~BLACK_KING_SIDE;
+        CASTLING_MASK[Bitboards.index(0, 0)] &= ~BLACK_QUEEN_SIDE;
+    }
+
+    // One bitboard per PieceType x PieceColor, indexed by Piece.index(), then one occupancy mask per color,
+    // kept in a single array so that a position copies in one go.
+    private static final int OCCUPANCY = Piece.INDEXES;
+    private static final int WHITE_PAWN = Piece.index(PieceType.PAWN, PieceColor.WHITE);
+    private static final int BLACK_PAWN = Piece.index(PieceType.PAWN, PieceColor.BLACK);
+    private final long[] bitboards;
+    private Square[] squares;
+
+    private PieceColor sideToMove = PieceColor.WHITE;
+    private int castlingRights;
+    private int enPassantSquare = NO_SQUARE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hash;
+    // Zobrist key of the pawns alone, for caches of pawn-structure terms.
+    private long pawnHash;
+    // Sums of PieceSquareTables over the pieces on the board.
+    private int middlegame, endgame, phase;
+
+    // Squares attacked by each color, indexed by PieceColor.ordinal(). Every piece change clears
+    // attacksValid, so a move pays one store and the maps are rebuilt on the next query.
+    private final long[] attacks = new long[2];
+    private int attacksValid;
+
+    // Two entries per played move: the hash before it and the packed irreversible state
+    // (captured piece, castling rights, en passant square, halfmove clock).
+    private long[] undoStack;
+    private int undoSize;
 
     private Board(){
-        squares = new Square[ROWS][COLUMNS];
+        this(new long[OCCUPANCY + 2], new long[2 * INITIAL_UNDO_PLIES]);
+    }
+
+    private Board(long[] bitboards, long[] undoStack) {
+        this.bitboards = bitboards;
+        this.undoStack = undoStack;
     }
 
     static Board newBoard() {
         Board board = new Board();
-        board.createAndPlacePieces(Piece.PieceColor.BLACK);
-        board.createAndPlacePieces(Piece.PieceColor.WHITE);
-        board.initEmptySquares();
+        board.createAndPlacePieces(PieceColor.BLACK);
+        board.createAndPlacePieces(PieceColor.WHITE);
+        board.setCastlingRights(WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        return board;
+
+    }
+
+    static Board emptyBoard() {
+        return new Board();
+    }
+
+    /**
+     * A board set up from a position in Forsyth-Edwards Notation.
+     *
+     * @throws IllegalArgumentException if {@code fen} is malformed
+     */
+    public static Board fromFen(CharSequence fen) {
+        Board board = new Board();
+        Fen.parse(fen, board);
         return board;
+    }
+
+    /**
+     * Replaces this position and its history with {@code fen}, allocating nothing, for loaders that
+     * go through many positions. The board is left empty if {@code fen} is malformed.
+     *
+     * @throws IllegalArgumentException if {@code fen} is malformed
+     */
+    public Board loadFen(CharSequence fen) {
+        clear();
+        try {
+            Fen.parse(fen, this);
+        } catch (IllegalArgumentException e) {
+            clear();
+            throw e;
+        }
+        return this;
+    }
+
+    /**
+     * Replaces this position and its history with {@code pieces[i]} on {@code squares[i]} and
+     * {@code sideToMove} to move, without castling rights or en passant square, allocating
+     * nothing, for generators that go through many positions. The squares must be distinct.
+     */
+    public Board load(Piece[] pieces, int[] squares, PieceColor sideToMove) {
+        clear();
+        for (int i = 0; i < pieces.length; i++) {
+            placePiece(pieces[i], squares[i]);
+        }
+        setSideToMove(sideToMove);
+        return this;
+    }
+
+    /**
+     * Appends this position in Forsyth-Edwards Notation to {@code out}; I/O errors are
+     * rethrown as {@link java.io.UncheckedIOException}.
+     */
+    public <A extends Appendable> A toFen(A out) {
+        Fen.write(this, out);
+        return out;
+    }
+
+    public String toFen() {
+        return toFen(new StringBuilder(90)).toString();
+    }
+
+    private void clear() {
+        Arrays.fill(bitboards, 0L);
+        sideToMove = PieceColor.WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        hash = 0L;
+        pawnHash = 0L;
+        middlegame = endgame = phase = 0;
+        attacksValid = 0;
+        undoSize = 0;
+    }
+
+    /**
+     * An independent board with this position but no move history, made with a single
+     * array copy. Its undo stack is only allocated once a move is played on it.
+     */
+    public Board snapshot() {
+        Board snapshot = new Board(bitboards.clone(), NO_UNDO);
+        snapshot.sideToMove = sideToMove;
+        snapshot.castlingRights = castlingRights;
+        snapshot.enPassantSquare = enPassantSquare;
+        snapshot.halfmoveClock = halfmoveClock;
+        snapshot.fullmoveNumber = fullmoveNumber;
+        snapshot.hash = hash;
+        snapshot.pawnHash = pawnHash;
+        snapshot.middlegame = middlegame;
+        snapshot.endgame = endgame;
+        snapshot.phase = phase;
+        return snapshot;
+    }
+
+    /**
+     * A read-only snapshot of this position that can be shared with other threads.
+     */
+    public ImmutableBoard toImmutable() {
+        return new ImmutableBoard(snapshot());
+    }
 
+    /**
+     * An independent board with this position and move history, so repetitions
+     * of earlier positions are still detected on it.
+     */
+    public Board copy() {
+        Board copy = new Board();
+        copyInto(copy);
+        if (copy.undoStack.length < undoSize) {
+            copy.undoStack = new long[undoStack.length];
+        }
+        System.arraycopy(undoStack, 0, copy.undoStack, 0, undoSize);
+        copy.undoSize = undoSize;
+        return copy;
+    }
+
+    /**
+     * Overwrites {@code target} with this position without allocating.
+     */
+    void copyInto(Board target) {
+        System.arraycopy(bitboards, 0, target.bitboards, 0, bitboards.length);
+        target.sideToMove = sideToMove;
+        target.castlingRights = castlingRights;
+        target.enPassantSquare = enPassantSquare;
+        target.halfmoveClock = halfmoveClock;
+        target.fullmoveNumber = fullmoveNumber;
+        target.hash = hash;
+        target.pawnHash = pawnHash;
+        target.middlegame = middlegame;
+        target.endgame = endgame;
+        target.phase = phase;
+        target.attacksValid = 0;
+        target.undoSize = 0;
+    }
+
+    /**
+     * Plays a packed move (see {@link Moves}) and returns the piece it captured, if any.
+     */
+    public Piece makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flags = Moves.flags(move);
+        Piece pieceMoved = pieceAt(from);
+
+        Piece pieceCaptured = capturedBy(move);
+        pushUndo(pieceCaptured);
+        if (pieceCaptured != null) {
+            removePiece(pieceCaptured, captureSquare(move));
+        }
+
+        removePiece(pieceMoved, from);
+        placePiece(Moves.isPromotion(move) ? Piece.of(Moves.promotion(move), sideToMove) : pieceMoved, to);
+
+        if (flags == Moves.KING_CASTLE) {
+            movePiece(Piece.of(PieceType.ROOK, sideToMove), to + 1, to - 1);
+        } else if (flags == Moves.QUEEN_CASTLE) {
+            movePiece(Piece.of(PieceType.ROOK, sideToMove), to - 2, to + 1);
+        }
+
+        setCastlingRights(castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to]);
+        setEnPassantSquare(flags == Moves.DOUBLE_PAWN_PUSH ? capturableEnPassant((from + to) >>> 1) : NO_SQUARE);
+        halfmoveClock = pieceMoved.type() == PieceType.PAWN || pieceCaptured != null ? 0 : halfmoveClock + 1;
+        if (sideToMove == PieceColor.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = sideToMove.opposite();
+        hash ^= Zobrist.blackToMove();
+        return pieceCaptured;
+    }
+
+    /**
+     * Takes back {@code move}, which must be the last move played on this board,
+     * and returns the piece it had captured, if any.
+     */
+    public Piece unmakeMove(int move) {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        long state = undoStack[--undoSize];
+        long previousHash = undoStack[--undoSize];
+
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flags = Moves.flags(move);
+
+        sideToMove = sideToMove.opposite();
+        if (sideToMove == PieceColor.BLACK) {
+            fullmoveNumber--;
+        }
+
+        Piece pieceOnTarget = pieceAt(to);
+        removePiece(pieceOnTarget, to);
+        placePiece(Moves.isPromotion(move) ? Piece.of(PieceType.PAWN, sideToMove) : pieceOnTarget, from);
+
+        if (flags == Moves.KING_CASTLE) {
+            movePiece(Piece.of(PieceType.ROOK, sideToMove), to - 1, to + 1);
+        } else if (flags == Moves.QUEEN_CASTLE) {
+            movePiece(Piece.of(PieceType.ROOK, sideToMove), to + 1, to - 2);
+        }
+
+        int captured = (int) (state & 0xF);
+        Piece pieceCaptured = captured == 0 ? null : Piece.of(captured - 1);
+        if (pieceCaptured != null) {
+            placePiece(pieceCaptured, captureSquare(move));
+        }
+
+        castlingRights = (int) ((state >>> 4) & 0xF);
+        enPassantSquare = (int) ((state >>> 8) & 0x7F) - 1;
+        halfmoveClock = (int) (state >>> 16);
+        hash = previousHash;
+        return pieceCaptured;
     }
 
-    Move makeMove(Square srcSquare, Square dstSquare){
+    private void pushUndo(Piece pieceCaptured) {
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, Math.max(2 * INITIAL_UNDO_PLIES, undoStack.length * 2));
+        }
+        undoStack[undoSize++] = hash;
+        undoStack[undoSize++] = (pieceCaptured == null ? 0 : pieceCaptured.index() + 1) |
+                castlingRights << 4 |
+                (enPassantSquare + 1) << 8 |
+                (long) halfmoveClock << 16;
+    }
 
-        Piece pieceCaptued = dstSquare.getPiece();
+    /**
+     * Packs a plain (start, end) pair the way the move generator would, inferring
+     * castling, en passant and double pushes from the position. Pawns reaching
+     * the last row are promoted to queens.
+     */
+    int encodeMove(int from, int to) {
+        return encodeMove(from, to, PieceType.QUEEN);
+    }
 
-        dstSquare.setPiece(srcSquare.getPiece());
-        srcSquare.setPiece(null);
+    int encodeMove(int from, int to, PieceType promotion) {
+        Piece piece = pieceAt(from);
+        boolean capture = !isEmpty(to);
+        int rowDistance = Math.abs(Bitboards.row(to) - Bitboards.row(from));
+        int columnDistance = Math.abs(Bitboards.column(to) - Bitboards.column(from));
 
+        if (piece.type() == PieceType.PAWN) {
+            if (Bitboards.row(to) == 0 || Bitboards.row(to) == ROWS - 1) {
+                return Moves.of(from, to, Moves.promotionFlags(promotion) | (capture ? Moves.CAPTURE : 0));
+            }
+            if (rowDistance == 2) {
+                return Moves.of(from, to, Moves.DOUBLE_PAWN_PUSH);
+            }
+            if (to == enPassantSquare && columnDistance == 1) {
+                return Moves.of(from, to, Moves.EN_PASSANT);
+            }
+        } else if (piece.type() == PieceType.KING && columnDistance == 2) {
+            return Moves.of(from, to, to > from ? Moves.KING_CASTLE : Moves.QUEEN_CASTLE);
+        }
+        return Moves.of(from, to, capture ? Moves.CAPTURE : Moves.QUIET);
+    }
 
-        return new Move(srcSquare, dstSquare, dstSquare.getPiece(), pieceCaptued);
+    // The square a double push passed over, or none if no enemy pawn can take on it: as in
+    // Polyglot, an en passant square that changes no move must not change the hash either,
+    // or transpositions through a double push would not meet.
+    private int capturableEnPassant(int square) {
+        return (Attacks.pawn(sideToMove, square) & pieces(PieceType.PAWN, sideToMove.opposite())) != 0
+                ? square : NO_SQUARE;
     }
 
+    private Piece capturedBy(int move) {
+        return Moves.isCapture(move) ? pieceAt(captureSquare(move)) : null;
+    }
 
-    private void createAndPlacePieces(Piece.PieceColor color) {
+    private int captureSquare(int move) {
+        int to = Moves.to(move);
+        if (Moves.flags(move) == Moves.EN_PASSANT) {
+            return sideToMove == PieceColor.WHITE ? to + COLUMNS : to - COLUMNS;
+        }
+        return to;
+    }
+
+
+    private void createAndPlacePieces(PieceColor color) {
         int firstRow, secondRow;
         switch (color) {
             case BLACK:
@@ -53,61 +367,261 @@ public class Board {
         }
 
         int column = 0;
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.ROOK, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.KNIGHT, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.BISHOP, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.QUEEN, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.KING, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.BISHOP, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.KNIGHT, color));
-        squares[firstRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.ROOK, color));
+        placePiece(Piece.of(PieceType.ROOK, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.KNIGHT, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.BISHOP, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.QUEEN, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.KING, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.BISHOP, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.KNIGHT, color), firstRow, column++);
+        placePiece(Piece.of(PieceType.ROOK, color), firstRow, column++);
 
         column=0;
         for(int i=0 ;i<COLUMNS;i++){
-            squares[secondRow][column++] = newSquareWith(Piece.newPiece(Piece.PieceType.PAWN, color));
+            placePiece(Piece.of(PieceType.PAWN, color), secondRow, column++);
         }
 
     }
 
+    private void placePiece(Piece piece, int x, int y) {
+        placePiece(piece, Bitboards.index(x, y));
+    }
+
+    void placePiece(Piece piece, int square) {
+        int index = piece.index();
+        long bit = Bitboards.bit(square);
+        bitboards[index] |= bit;
+        bitboards[OCCUPANCY + piece.color().ordinal()] |= bit;
+        attacksValid = 0;
+        long key = Zobrist.piece(index, square);
+        hash ^= key;
+        if (index == WHITE_PAWN || index == BLACK_PAWN) {
+            pawnHash ^= key;
+        }
+        middlegame += PieceSquareTables.middlegame(index, square);
+        endgame += PieceSquareTables.endgame(index, square);
+        phase += PieceSquareTables.phase(index);
+    }
+
+    private void removePiece(Piece piece, int square) {
+        int index = piece.index();
+        long bit = ~Bitboards.bit(square);
+        bitboards[index] &= bit;
+        bitboards[OCCUPANCY + piece.color().ordinal()] &= bit;
+        attacksValid = 0;
+        long key = Zobrist.piece(index, square);
+        hash ^= key;
+        if (index == WHITE_PAWN || index == BLACK_PAWN) {
+            pawnHash ^= key;
+        }
+        middlegame -= PieceSquareTables.middlegame(index, square);
+        endgame -= PieceSquareTables.endgame(index, square);
+        phase -= PieceSquareTables.phase(index);
+    }
+
+    // Only ever moves castling rooks, so the pawn key and the phase are unchanged.
+    private void movePiece(Piece piece, int from, int to) {
+        int index = piece.index();
+        long bits = Bitboards.bit(from) | Bitboards.bit(to);
+        bitboards[index] ^= bits;
+        bitboards[OCCUPANCY + piece.color().ordinal()] ^= bits;
+        attacksValid = 0;
+        hash ^= Zobrist.piece(index, from) ^ Zobrist.piece(index, to);
+        middlegame += PieceSquareTables.middlegame(index, to) - PieceSquareTables.middlegame(index, from);
+        endgame += PieceSquareTables.endgame(index, to) - PieceSquareTables.endgame(index, from);
+    }
+
 
     public Square getSquare(Coords coords) {
         return getSquare(coords.X, coords.Y);
     }
 
+    static int squareOf(Coords coords) {
+        if (!coords.isOnBoard()) {
+            throw new RuntimeException("Index out of bound");
+        }
+        return coords.index();
+    }
+
     public Square getSquare(int x, int y) {
         if (x < 0 || x > 7 || y < 0 || y > 7) {
             throw new RuntimeException("Index out of bound");
         }
-        return squares[x][y];
+        if (squares == null) {
+            squares = new Square[ROWS * COLUMNS];
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] = newSquareOn(this, i);
+            }
+        }
+        return squares[Bitboards.index(x, y)];
     }
 
-    private void initEmptySquares() {
-
-        for (int i = 2; i < 6; i++) {
-            for (int j = 0; j < 8; j++) {
-                squares[i][j] = newEmptySquare();
+    public Piece pieceAt(int square) {
+        long bit = Bitboards.bit(square);
+        int first;
+        if ((bitboards[OCCUPANCY + PieceColor.WHITE.ordinal()] & bit) != 0) {
+            first = Piece.index(PieceType.PAWN, PieceColor.WHITE);
+        } else if ((bitboards[OCCUPANCY + PieceColor.BLACK.ordinal()] & bit) != 0) {
+            first = Piece.index(PieceType.PAWN, PieceColor.BLACK);
+        } else {
+            return null;
+        }
+        for (int i = first; i < first + Piece.TYPES; i++) {
+            if ((bitboards[i] & bit) != 0) {
+                return Piece.of(i);
             }
         }
+        throw new IllegalStateException("Occupancy out of sync at square " + square);
     }
 
-    static class Move {
-        private final Square startSquare;
-        private final Square endSquare;
-        private final Piece pieceMoved;
-        private final Piece pieceCaptured;
+    public boolean isEmpty(int square) {
+        return (occupancy() & Bitboards.bit(square)) == 0;
+    }
 
-        private Move(Square startSquare, Square endSquare,
-                     Piece pieceMoved, Piece pieceCaptured) {
+    public long pieces(PieceType type, PieceColor color) {
+        return bitboards[Piece.index(type, color)];
+    }
+
+    public long occupancy(PieceColor color) {
+        return bitboards[OCCUPANCY + color.ordinal()];
+    }
 
-            this.startSquare = Objects.requireNonNull(startSquare);
-            this.endSquare = Objects.requireNonNull(endSquare);
-            this.pieceMoved = Objects.requireNonNull(pieceMoved);
-            this.pieceCaptured = pieceCaptured;
+    public long occupancy() {
+        return bitboards[OCCUPANCY] | bitboards[OCCUPANCY + 1];
+    }
 
+    /**
+     * Every square attacked by a piece of {@code color}, computed from the attack tables
+     * at most once per position however often it is asked for.
+     */
+    public long attacks(PieceColor color) {
+        int bit = 1 << color.ordinal();
+        if ((attacksValid & bit) == 0) {
+            attacks[color.ordinal()] = computeAttacks(color);
+            attacksValid |= bit;
         }
+        return attacks[color.ordinal()];
+    }
+
+    public boolean isAttacked(int square, PieceColor by) {
+        return Bitboards.contains(attacks(by), square);
+    }
+
+    /**
+     * Whether the side to move has its king attacked.
+     */
+    public boolean isInCheck() {
+        return (pieces(PieceType.KING, sideToMove) & attacks(sideToMove.opposite())) != 0;
+    }
 
-        public Piece getPieceCaptured() { return pieceCaptured;}
+    private long computeAttacks(PieceColor color) {
+        long occupied = occupancy();
+        long attacked = 0;
+        for (long pawns = pieces(PieceType.PAWN, color); pawns != 0; pawns &= pawns - 1) {
+            attacked |= Attacks.pawn(color, Long.numberOfTrailingZeros(pawns));
+        }
+        for (long knights = pieces(PieceType.KNIGHT, color); knights != 0; knights &= knights - 1) {
+            attacked |= Attacks.knight(Long.numberOfTrailingZeros(knights));
+        }
+        long queens = pieces(PieceType.QUEEN, color);
+        for (long sliders = pieces(PieceType.BISHOP, color) | queens; sliders != 0; sliders &= sliders - 1) {
+            attacked |= Attacks.bishop(Long.numberOfTrailingZeros(sliders), occupied);
+        }
+        for (long sliders = pieces(PieceType.ROOK, color) | queens; sliders != 0; sliders &= sliders - 1) {
+            attacked |= Attacks.rook(Long.numberOfTrailingZeros(sliders), occupied);
+        }
+        long king = pieces(PieceType.KING, color);
+        if (king != 0) {
+            attacked |= Attacks.king(Long.numberOfTrailingZeros(king));
+        }
+        return attacked;
+    }
+
+    public PieceColor sideToMove() {
+        return sideToMove;
+    }
+
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    public int enPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Zobrist key of the position, maintained incrementally on every change.
+     */
+    public long hash() {
+        return hash;
+    }
+
+    public long pawnHash() {
+        return pawnHash;
+    }
+
+    /**
+     * Material and piece-square score of the position for the middlegame, from white's
+     * point of view, maintained incrementally; see {@link PieceSquareTables}.
+     */
+    public int middlegameScore() {
+        return middlegame;
+    }
+
+    public int endgameScore() {
+        return endgame;
+    }
+
+    /**
+     * Sum of {@link PieceSquareTables#phase(int)} over the pieces on the board.
+     */
+    public int phase() {
+        return phase;
+    }
+
+    /**
+     * How many times the current position has occurred among the moves played on
+     * this board, itself included. Only positions since the last capture or pawn
+     * move can repeat, and only every other ply has the same side to move.
+     */
+    public int repetitionCount() {
+        int plies = undoSize / 2;
+        int oldest = Math.max(0, plies - halfmoveClock);
+        int count = 1;
+        for (int ply = plies - 2; ply >= oldest; ply -= 2) {
+            if (undoStack[2 * ply] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void setSideToMove(PieceColor sideToMove) {
+        hash ^= Zobrist.sideToMove(this.sideToMove) ^ Zobrist.sideToMove(sideToMove);
+        this.sideToMove = sideToMove;
+    }
+
+    void setCastlingRights(int castlingRights) {
+        hash ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    void setEnPassantSquare(int enPassantSquare) {
+        hash ^= Zobrist.enPassant(this.enPassantSquare) ^ Zobrist.enPassant(enPassantSquare);
+        this.enPassantSquare = enPassantSquare;
+    }
 
+    void setMoveCounters(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
     }
 
 }
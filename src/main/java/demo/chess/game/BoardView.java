@@ -0,0 +1,38 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * Read access to a position. Squares are indexed {@code row * 8 + column}, row 0 being rank 8.
+ */
+public interface BoardView {
+
+    Piece pieceAt(int square);
+
+    boolean isEmpty(int square);
+
+    long pieces(PieceType type, PieceColor color);
+
+    long occupancy(PieceColor color);
+
+    long occupancy();
+
+    PieceColor sideToMove();
+
+    int castlingRights();
+
+    int enPassantSquare();
+
+    int halfmoveClock();
+
+    int fullmoveNumber();
+
+    long hash();
+
+    <A extends Appendable> A toFen(A out);
+
+    String toFen();
+
+}
@@ -5,6 +5,14 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode
 public class Coords {
 
+    private static final Coords[] ON_BOARD = new Coords[Bitboards.SQUARES];
+
+    static {
+        for (int square = 0; square < ON_BOARD.length; square++) {
+            ON_BOARD[square] = new Coords(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
     public final int X;
     public final int Y;
 
@@ -14,8 +22,29 @@ public class Coords {
     }
 
     public static Coords of(int x, int y){
-        Coords coords = new Coords(x, y);
-        return coords;
+        if (isOnBoard(x, y)) {
+            return ON_BOARD[Bitboards.index(x, y)];
+        }
+        return new Coords(x, y);
+    }
+
+    public static Coords of(int square) {
+        return ON_BOARD[square];
+    }
+
+    public boolean isOnBoard() {
+        return isOnBoard(X, Y);
+    }
+
+    /**
+     * Square index 0..63 used by {@link Board}; only meaningful when {@link #isOnBoard()}.
+     */
+    public int index() {
+        return Bitboards.index(X, Y);
+    }
+
+    private static boolean isOnBoard(int x, int y) {
+        return x >= 0 && x < 8 && y >= 0 && y < 8;
     }
 
 
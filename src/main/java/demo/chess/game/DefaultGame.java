@@ -1,12 +1,14 @@
 package demo.chess.game;
 
 import demo.chess.Game;
-import demo.chess.game.Board.Move;
+import demo.chess.metrics.MoveMetrics;
 import demo.chess.player.Player;
 import demo.chess.game.piece.Piece;
 import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class DefaultGame implements Game {
@@ -15,15 +17,32 @@ public class DefaultGame implements Game {
     private Board board;
     private Player white, black, currentTurn;
 
-    //History, Logging
-    private List<Move> movesPlayed;
+    private static final int INITIAL_HISTORY_CAPACITY = 128;
+
+    //History, Logging: moves packed as in Moves, which fit in 16 bits
+    private short[] movesPlayed;
+    private int plies;
+    // Moves between plies and redoLimit were taken back and can be replayed by redo().
+    private int redoLimit;
     private List<Piece> capturedPieces;
 
+    private GameEvents events;
+    private ValidationCache validationCache;
+    private MoveGenerator generator;
+    private MoveMetrics metrics;
+
     private DefaultGame(){}
 
     public static DefaultGame newGame(Player p1, Player p2){
+        return fromPosition(p1, p2, Board.newBoard());
+    }
+
+    /**
+     * A game continuing from {@code board}, for example one read with {@link Board#fromFen}.
+     */
+    public static DefaultGame fromPosition(Player p1, Player p2, Board board){
         DefaultGame game = new DefaultGame();
-        game.initialize(p1, p2);
+        game.initialize(p1, p2, board);
         return game;
     }
 
@@ -36,31 +55,207 @@ public class DefaultGame implements Game {
     @Override
     public boolean move(Player player,
                         Coords start, Coords end) {
+        return move(player, start, end, PieceType.QUEEN);
+    }
+
+    /**
+     * Like {@link #move(Player, Coords, Coords)}, promoting a pawn that reaches the last row to {@code promotion}.
+     */
+    public boolean move(Player player,
+                        Coords start, Coords end, PieceType promotion) {
 
-        Square startSquare = board.getSquare(start);
-        Square endSquare = board.getSquare(end);
-        Piece sourcePiece = startSquare.getPiece();
+        int startSquare = Board.squareOf(start);
+        int endSquare = Board.squareOf(end);
+        Piece sourcePiece = board.pieceAt(startSquare);
 
+        if (sourcePiece == null) {
+            return false;
+        }
         boolean validMove = turnIsValid(player) &&
                 player.owns(sourcePiece) &&
-                sourcePiece.isMoveValid(board, start, end);
+                isPromotionPiece(promotion);
+        if (!validMove) {
+            return rejected(sourcePiece);
+        }
 
-        if (validMove) {
+        MoveMetrics metrics = this.metrics;
+        long lap = metrics == null ? 0 : System.nanoTime();
+        long hash = board.hash();
+        int verdict = validationCache == null ? ValidationCache.MISS : validationCache.get(hash, startSquare, endSquare);
+        if (metrics != null) {
+            lap = metrics.lap(MoveMetrics.Phase.LOOKUP, lap);
+        }
+        if (verdict == ValidationCache.INVALID) {
+            return rejected(sourcePiece);
+        }
+        if (verdict == ValidationCache.MISS) {
+            boolean valid = sourcePiece.isMoveValid(board, startSquare, endSquare);
+            if (metrics != null) {
+                lap = metrics.validated(sourcePiece.type(), valid, lap);
+            }
+            if (!valid) {
+                cacheVerdict(hash, startSquare, endSquare, false);
+                return rejected(sourcePiece);
+            }
+        }
 
-            Move move = board.makeMove(startSquare, endSquare);
-            saveHistory(move);
-            switchTurn();
+        int move = board.encodeMove(startSquare, endSquare, promotion);
+        Piece pieceCaptured = board.makeMove(move);
+        if (verdict == ValidationCache.MISS) {
+            boolean kingSafe = (board.pieces(PieceType.KING, sourcePiece.color()) & board.attacks(board.sideToMove())) == 0;
+            cacheVerdict(hash, startSquare, endSquare, kingSafe);
+            if (!kingSafe) {
+                board.unmakeMove(move);
+                return rejected(sourcePiece);
+            }
         }
+        if (metrics != null) {
+            lap = metrics.lap(MoveMetrics.Phase.MAKE_MOVE, lap);
+        }
+        played(move, pieceCaptured);
+        redoLimit = plies;
+        if (metrics != null) {
+            metrics.lap(MoveMetrics.Phase.HISTORY, lap);
+            metrics.moved(sourcePiece.type(), true);
+        }
+        return true;
+    }
 
-        return validMove;
+    private boolean rejected(Piece piece) {
+        if (metrics != null) {
+            metrics.moved(piece.type(), false);
+        }
+        return false;
     }
 
-    private void saveHistory(Move move) {
-        if(move.getPieceCaptured()!=null){
-            capturedPieces.add(move.getPieceCaptured());
+    private void cacheVerdict(long hash, int startSquare, int endSquare, boolean valid) {
+        if (validationCache != null) {
+            validationCache.put(hash, startSquare, endSquare, valid);
+        }
+    }
+
+    @Override
+    public boolean undo() {
+        if (plies == 0) {
+            return false;
         }
 
-        movesPlayed.add(move);
+        int move = movesPlayed[--plies] & 0xFFFF;
+        Piece pieceCaptured = board.unmakeMove(move);
+        if (pieceCaptured != null) {
+            capturedPieces.remove(capturedPieces.size() - 1);
+        }
+        switchTurn();
+        publish(GameEvent.Type.UNDO, move, pieceCaptured);
+        return true;
+    }
+
+    @Override
+    public boolean redo() {
+        if (plies == redoLimit) {
+            return false;
+        }
+
+        play(movesPlayed[plies] & 0xFFFF);
+        return true;
+    }
+
+    private void play(int move) {
+        played(move, board.makeMove(move));
+    }
+
+    private void played(int move, Piece pieceCaptured) {
+        saveHistory(move, pieceCaptured);
+        switchTurn();
+        publish(GameEvent.Type.MOVE, move, pieceCaptured);
+    }
+
+    /**
+     * The publisher of this game's events, created with {@link GameEvents#withDefaults()} on first use.
+     */
+    @Override
+    public GameEvents events() {
+        if (events == null) {
+            events = GameEvents.withDefaults();
+        }
+        return events;
+    }
+
+    /**
+     * Publishes this game's events through {@code events} from now on, e.g. one with a larger
+     * buffer or a dedicated executor for games with many spectators.
+     */
+    public void useEvents(GameEvents events) {
+        this.events = events;
+    }
+
+    /**
+     * Looks moves up in {@code cache} before validating them, and records the verdicts
+     * of those it had to validate. The cache can be shared with other games and threads;
+     * null turns caching off, which is the default.
+     */
+    public void useValidationCache(ValidationCache cache) {
+        this.validationCache = cache;
+    }
+
+    /**
+     * Records counts and timings of this game's moves in {@code metrics}, which can be
+     * shared with other games and threads; null turns metrics off, which is the default.
+     */
+    public void useMetrics(MoveMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private void publish(GameEvent.Type type, int move, Piece pieceCaptured) {
+        // Check and mate detection cost a move generation, so only pay for it when someone listens.
+        if (events == null || !events.hasSubscribers()) {
+            return;
+        }
+        events.publish(new GameEvent(type, plies, move, pieceCaptured, board.isInCheck(), status()));
+    }
+
+    /**
+     * Whether the game has ended and why. Draws by repetition, the fifty-move rule or
+     * insufficient material are reported but do not stop further moves.
+     */
+    @Override
+    public GameStatus status() {
+        if (generator == null) {
+            generator = new MoveGenerator();
+        }
+        return generator.status(board);
+    }
+
+    private void saveHistory(int move, Piece pieceCaptured) {
+        if(pieceCaptured!=null){
+            capturedPieces.add(pieceCaptured);
+        }
+
+        if (plies == movesPlayed.length) {
+            movesPlayed = Arrays.copyOf(movesPlayed, movesPlayed.length * 2);
+        }
+        movesPlayed[plies++] = (short) move;
+    }
+
+    /**
+     * How many times the current position has occurred so far, itself included.
+     */
+    public int repetitionCount() {
+        return board.repetitionCount();
+    }
+
+    public int plies() {
+        return plies;
+    }
+
+    /**
+     * Packed move (see {@link Moves}) played at the given ply, counting from 0.
+     */
+    public int movePlayed(int ply) {
+        if (ply < 0 || ply >= plies) {
+            throw new IndexOutOfBoundsException("No move at ply " + ply);
+        }
+        return movesPlayed[ply] & 0xFFFF;
     }
 
     public Player whiteSidePlayer() {
@@ -71,7 +266,7 @@ public class DefaultGame implements Game {
         return black;
     }
 
-    private void initialize(Player p1, Player p2) {
+    private void initialize(Player p1, Player p2, Board board) {
 
         if (p1.isWhiteSide() && !p2.isWhiteSide()) {
             this.white = p1;
@@ -83,10 +278,10 @@ public class DefaultGame implements Game {
             throw new IllegalArgumentException();
         }
 
-        this.board = Board.newBoard();
-        this.movesPlayed = new ArrayList<>();
+        this.board = board;
+        this.movesPlayed = new short[INITIAL_HISTORY_CAPACITY];
         this.capturedPieces = new ArrayList<>();
-        this.setTurn(PieceColor.WHITE);
+        this.setTurn(board.sideToMove());
 
     }
 
@@ -103,4 +298,8 @@ public class DefaultGame implements Game {
     private boolean turnIsValid(Player player) {
         return player == currentTurn;
     }
+
+    private static boolean isPromotionPiece(PieceType type) {
+        return type != null && type != PieceType.PAWN && type != PieceType.KING;
+    }
 }
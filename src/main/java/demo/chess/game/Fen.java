@@ -0,0 +1,249 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation. Rank 8 maps to row 0 and file a to column 0.
+ * <p>
+ * Parsing walks the characters once by offset and writes straight into the board, so
+ * loading into a reused board allocates nothing unless the input is malformed. The
+ * halfmove clock and fullmove number may be omitted and default to 0 and 1. Castling
+ * rights whose king or rook is off its home square, and an en passant square that no
+ * double push of the side not to move can have left or no pawn of the side to move can
+ * take on, are dropped rather than stored, so that they neither allow impossible moves
+ * nor change the position's hash.
+ */
+final class Fen {
+
+    private static final Piece[] PIECES_BY_CHAR = new Piece[128];
+    private static final char[] CHARS_BY_PIECE = new char[Piece.INDEXES];
+
+    static {
+        String letters = "prnbqk";
+        for (PieceType type : PieceType.values()) {
+            char black = letters.charAt(type.ordinal());
+            char white = Character.toUpperCase(black);
+            PIECES_BY_CHAR[black] = Piece.of(type, PieceColor.BLACK);
+            PIECES_BY_CHAR[white] = Piece.of(type, PieceColor.WHITE);
+            CHARS_BY_PIECE[Piece.index(type, PieceColor.BLACK)] = black;
+            CHARS_BY_PIECE[Piece.index(type, PieceColor.WHITE)] = white;
+        }
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Sets up {@code board}, which must be empty, from {@code fen}.
+     */
+    static void parse(CharSequence fen, Board board) {
+        int length = fen.length();
+        int i = 0;
+        int row = 0;
+        int column = 0;
+
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (column != 8 || ++row > 7) {
+                    throw invalid(fen, i, "misplaced rank separator");
+                }
+                column = 0;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+                if (column > 8) {
+                    throw invalid(fen, i, "rank has more than 8 squares");
+                }
+            } else {
+                Piece piece = c < PIECES_BY_CHAR.length ? PIECES_BY_CHAR[c] : null;
+                if (piece == null || column > 7) {
+                    throw invalid(fen, i, piece == null ? "unknown piece" : "rank has more than 8 squares");
+                }
+                board.placePiece(piece, Bitboards.index(row, column++));
+            }
+        }
+        if (row != 7 || column != 8) {
+            throw invalid(fen, i, "placement does not cover 8 ranks");
+        }
+
+        i = expect(fen, i, ' ');
+        char side = charAt(fen, i++);
+        if (side != 'w' && side != 'b') {
+            throw invalid(fen, i - 1, "side to move must be 'w' or 'b'");
+        }
+        board.setSideToMove(side == 'w' ? PieceColor.WHITE : PieceColor.BLACK);
+
+        i = expect(fen, i, ' ');
+        int rights = 0;
+        if (charAt(fen, i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                switch (fen.charAt(i)) {
+                    case 'K': rights |= Board.WHITE_KING_SIDE; break;
+                    case 'Q': rights |= Board.WHITE_QUEEN_SIDE; break;
+                    case 'k': rights |= Board.BLACK_KING_SIDE; break;
+                    case 'q': rights |= Board.BLACK_QUEEN_SIDE; break;
+                    default: throw invalid(fen, i, "unknown castling right");
+                }
+            }
+        }
+        board.setCastlingRights(rights & possibleCastlingRights(board));
+
+        i = expect(fen, i, ' ');
+        if (charAt(fen, i) == '-') {
+            i++;
+        } else {
+            char file = charAt(fen, i);
+            char rank = charAt(fen, i + 1);
+            if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) {
+                throw invalid(fen, i, "en passant square must be on rank 3 or 6");
+            }
+            int square = Bitboards.index('8' - rank, file - 'a');
+            if (isPossibleEnPassant(board, square)) {
+                board.setEnPassantSquare(square);
+            }
+            i += 2;
+        }
+
+        if (i == length) {
+            board.setMoveCounters(0, 1);
+            return;
+        }
+        i = expect(fen, i, ' ');
+        int halfmoveClock = 0;
+        int start = i;
+        for (; i < length && fen.charAt(i) >= '0' && fen.charAt(i) <= '9'; i++) {
+            halfmoveClock = halfmoveClock * 10 + fen.charAt(i) - '0';
+        }
+        if (i == start) {
+            throw invalid(fen, i, "halfmove clock must be a number");
+        }
+        i = expect(fen, i, ' ');
+        int fullmoveNumber = 0;
+        start = i;
+        for (; i < length && fen.charAt(i) >= '0' && fen.charAt(i) <= '9'; i++) {
+            fullmoveNumber = fullmoveNumber * 10 + fen.charAt(i) - '0';
+        }
+        if (i == start || i != length || fullmoveNumber == 0) {
+            throw invalid(fen, i, "fullmove number must be a positive number ending the record");
+        }
+        board.setMoveCounters(halfmoveClock, fullmoveNumber);
+    }
+
+    // The rights whose king and rook still stand on their home squares.
+    private static int possibleCastlingRights(Board board) {
+        int rights = 0;
+        if (isAt(board, PieceType.KING, PieceColor.WHITE, 7, 4)) {
+            if (isAt(board, PieceType.ROOK, PieceColor.WHITE, 7, 7)) rights |= Board.WHITE_KING_SIDE;
+            if (isAt(board, PieceType.ROOK, PieceColor.WHITE, 7, 0)) rights |= Board.WHITE_QUEEN_SIDE;
+        }
+        if (isAt(board, PieceType.KING, PieceColor.BLACK, 0, 4)) {
+            if (isAt(board, PieceType.ROOK, PieceColor.BLACK, 0, 7)) rights |= Board.BLACK_KING_SIDE;
+            if (isAt(board, PieceType.ROOK, PieceColor.BLACK, 0, 0)) rights |= Board.BLACK_QUEEN_SIDE;
+        }
+        return rights;
+    }
+
+    // Whether the side not to move just pushed a pawn two squares over square, which a pawn
+    // of the side to move attacks: the square is on the pusher's third rank, empty, as is
+    // the one the pawn came from, and the pawn stands in front.
+    private static boolean isPossibleEnPassant(Board board, int square) {
+        PieceColor pusher = board.sideToMove().opposite();
+        int row = Bitboards.row(square);
+        int forward = pusher == PieceColor.WHITE ? -1 : 1;
+        if (row != (pusher == PieceColor.WHITE ? 5 : 2)) {
+            return false;
+        }
+        int column = Bitboards.column(square);
+        return board.isEmpty(square) && board.isEmpty(Bitboards.index(row - forward, column)) &&
+                isAt(board, PieceType.PAWN, pusher, row + forward, column) &&
+                (Attacks.pawn(pusher, square) & board.pieces(PieceType.PAWN, board.sideToMove())) != 0;
+    }
+
+    private static boolean isAt(Board board, PieceType type, PieceColor color, int row, int column) {
+        return Bitboards.contains(board.pieces(type, color), Bitboards.index(row, column));
+    }
+
+    static void write(Board board, Appendable out) {
+        try {
+            for (int row = 0; row < 8; row++) {
+                if (row > 0) {
+                    out.append('/');
+                }
+                int empty = 0;
+                for (int column = 0; column < 8; column++) {
+                    Piece piece = board.pieceAt(Bitboards.index(row, column));
+                    if (piece == null) {
+                        empty++;
+                        continue;
+                    }
+                    if (empty > 0) {
+                        out.append((char) ('0' + empty));
+                        empty = 0;
+                    }
+                    out.append(CHARS_BY_PIECE[piece.index()]);
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                }
+            }
+
+            out.append(' ').append(board.sideToMove() == PieceColor.WHITE ? 'w' : 'b').append(' ');
+            int rights = board.castlingRights();
+            if (rights == 0) {
+                out.append('-');
+            }
+            if ((rights & Board.WHITE_KING_SIDE) != 0) out.append('K');
+            if ((rights & Board.WHITE_QUEEN_SIDE) != 0) out.append('Q');
+            if ((rights & Board.BLACK_KING_SIDE) != 0) out.append('k');
+            if ((rights & Board.BLACK_QUEEN_SIDE) != 0) out.append('q');
+
+            out.append(' ');
+            int enPassant = board.enPassantSquare();
+            if (enPassant == Board.NO_SQUARE) {
+                out.append('-');
+            } else {
+                out.append((char) ('a' + Bitboards.column(enPassant))).append((char) ('8' - Bitboards.row(enPassant)));
+            }
+
+            out.append(' ');
+            appendNumber(out, board.halfmoveClock());
+            out.append(' ');
+            appendNumber(out, board.fullmoveNumber());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendNumber(Appendable out, int value) throws IOException {
+        if (value >= 10) {
+            appendNumber(out, value / 10);
+        }
+        out.append((char) ('0' + value % 10));
+    }
+
+    private static int expect(CharSequence fen, int i, char expected) {
+        if (charAt(fen, i) != expected) {
+            throw invalid(fen, i, "expected '" + expected + "'");
+        }
+        return i + 1;
+    }
+
+    private static char charAt(CharSequence fen, int i) {
+        if (i >= fen.length()) {
+            throw invalid(fen, i, "unexpected end");
+        }
+        return fen.charAt(i);
+    }
+
+    private static IllegalArgumentException invalid(CharSequence fen, int offset, String reason) {
+        return new IllegalArgumentException("Invalid FEN at offset " + offset + " (" + reason + "): " + fen);
+    }
+
+}
@@ -0,0 +1,80 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+
+/**
+ * One change to a game: a move played (including a redo) or taken back.
+ * Events carry the ply they leave the game at, so a subscriber that sees a gap
+ * has missed events and should resynchronize from a board snapshot.
+ */
+public final class GameEvent {
+
+    public enum Type { MOVE, UNDO }
+
+    private final Type type;
+    private final int ply;
+    private final int move;
+    private final Piece captured;
+    private final boolean check;
+    private final GameStatus status;
+
+    GameEvent(Type type, int ply, int move, Piece captured, boolean check, GameStatus status) {
+        this.type = type;
+        this.ply = ply;
+        this.move = move;
+        this.captured = captured;
+        this.check = check;
+        this.status = status;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Plies played in the game after this event.
+     */
+    public int ply() {
+        return ply;
+    }
+
+    /**
+     * The packed move (see {@link Moves}) played or taken back.
+     */
+    public int move() {
+        return move;
+    }
+
+    /**
+     * The piece the move captured, or the piece an undo put back; null if none.
+     */
+    public Piece captured() {
+        return captured;
+    }
+
+    public boolean isCapture() {
+        return captured != null;
+    }
+
+    /**
+     * Whether the side to move after this event is in check.
+     */
+    public boolean isCheck() {
+        return check;
+    }
+
+    public GameStatus status() {
+        return status;
+    }
+
+    public boolean isGameEnd() {
+        return status.isOver();
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + Moves.toString(move) + " ply " + ply + (captured != null ? " captures " + captured.type() : "") +
+                (check ? " check" : "") + (status.isOver() ? " " + status : "");
+    }
+
+}
@@ -0,0 +1,69 @@
+package demo.chess.game;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes a game's {@link GameEvent}s to any number of subscribers.
+ * <p>
+ * Each subscriber gets its own bounded buffer, drained on the publisher's
+ * executor at the pace the subscriber requests. The game thread only ever offers
+ * events: when a subscriber's buffer is full the event is dropped for that
+ * subscriber alone and counted, so a slow spectator never holds up a move and
+ * detects the loss from the gap in {@link GameEvent#ply()}.
+ */
+public class GameEvents implements Flow.Publisher<GameEvent>, AutoCloseable {
+
+    private final SubmissionPublisher<GameEvent> publisher;
+    private final LongAdder dropped = new LongAdder();
+
+    public GameEvents(Executor executor, int bufferCapacity) {
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    public static GameEvents withDefaults() {
+        return new GameEvents(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    public int subscribers() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    /**
+     * Events not delivered because a subscriber's buffer was full, summed over subscribers.
+     */
+    public long droppedEvents() {
+        return dropped.sum();
+    }
+
+    void publish(GameEvent event) {
+        if (publisher.isClosed()) {
+            return;
+        }
+        publisher.offer(event, (subscriber, item) -> {
+            dropped.increment();
+            return false;
+        });
+    }
+
+    /**
+     * Completes every subscription; later events are not delivered.
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+
+}
@@ -0,0 +1,17 @@
+package demo.chess.game;
+
+/**
+ * Whether a game is still being played and, if not, why it ended. Every ending
+ * but checkmate is a draw.
+ */
+public enum GameStatus {
+    ONGOING, CHECKMATE, STALEMATE, THREEFOLD_REPETITION, FIFTY_MOVE_RULE, INSUFFICIENT_MATERIAL;
+
+    public boolean isOver() {
+        return this != ONGOING;
+    }
+
+    public boolean isDraw() {
+        return isOver() && this != CHECKMATE;
+    }
+}
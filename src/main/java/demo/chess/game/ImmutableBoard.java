@@ -0,0 +1,97 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * A position that never changes, made by {@link Board#toImmutable()}. The snapshot
+ * it reads from is private and reached through a final field, so instances can be
+ * handed to other threads without synchronization.
+ */
+public final class ImmutableBoard implements BoardView {
+
+    private final Board board;
+
+    ImmutableBoard(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * A mutable board with this position, to play moves on.
+     */
+    public Board toBoard() {
+        return board.snapshot();
+    }
+
+    @Override
+    public Piece pieceAt(int square) {
+        return board.pieceAt(square);
+    }
+
+    @Override
+    public boolean isEmpty(int square) {
+        return board.isEmpty(square);
+    }
+
+    @Override
+    public long pieces(PieceType type, PieceColor color) {
+        return board.pieces(type, color);
+    }
+
+    @Override
+    public long occupancy(PieceColor color) {
+        return board.occupancy(color);
+    }
+
+    @Override
+    public long occupancy() {
+        return board.occupancy();
+    }
+
+    @Override
+    public PieceColor sideToMove() {
+        return board.sideToMove();
+    }
+
+    @Override
+    public int castlingRights() {
+        return board.castlingRights();
+    }
+
+    @Override
+    public int enPassantSquare() {
+        return board.enPassantSquare();
+    }
+
+    @Override
+    public int halfmoveClock() {
+        return board.halfmoveClock();
+    }
+
+    @Override
+    public int fullmoveNumber() {
+        return board.fullmoveNumber();
+    }
+
+    @Override
+    public long hash() {
+        return board.hash();
+    }
+
+    @Override
+    public <A extends Appendable> A toFen(A out) {
+        return board.toFen(out);
+    }
+
+    @Override
+    public String toFen() {
+        return board.toFen();
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+
+}
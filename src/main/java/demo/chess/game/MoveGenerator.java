@@ -0,0 +1,231 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * Generates every legal move for the side to move. Pseudo-legal moves are
+ * produced with bitboard operations and then filtered by making and unmaking
+ * them on the board and rejecting those that leave the own king attacked.
+ * Instances keep a move buffer, so use one generator per thread.
+ */
+public class MoveGenerator {
+
+    private static final int WHITE_KING = Bitboards.index(7, 4), BLACK_KING = Bitboards.index(0, 4);
+
+    private static final PieceColor[] COLORS = PieceColor.values();
+
+    private final MoveList pseudoLegal = new MoveList();
+
+    public void generateLegalMoves(Board board, MoveList moves) {
+        moves.clear();
+        generatePseudoLegalMoves(board, pseudoLegal);
+
+        PieceColor us = board.sideToMove();
+        for (int i = 0; i < pseudoLegal.size(); i++) {
+            int move = pseudoLegal.get(i);
+            if (leavesKingSafe(board, move, us)) {
+                moves.add(move);
+            }
+        }
+    }
+
+    public boolean isLegal(Board board, int move) {
+        generatePseudoLegalMoves(board, pseudoLegal);
+        if (!pseudoLegal.contains(move)) {
+            return false;
+        }
+        return leavesKingSafe(board, move, board.sideToMove());
+    }
+
+    /**
+     * Whether the game has ended in {@code board}'s position and why. Mate and stalemate take
+     * precedence over the draw rules; a threefold repetition counts only the moves played on
+     * {@code board}.
+     */
+    public GameStatus status(Board board) {
+        if (!hasLegalMove(board)) {
+            return board.isInCheck() ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (isInsufficientMaterial(board)) {
+            return GameStatus.INSUFFICIENT_MATERIAL;
+        }
+        if (board.halfmoveClock() >= 100) {
+            return GameStatus.FIFTY_MOVE_RULE;
+        }
+        if (board.repetitionCount() >= 3) {
+            return GameStatus.THREEFOLD_REPETITION;
+        }
+        return GameStatus.ONGOING;
+    }
+
+    private boolean hasLegalMove(Board board) {
+        generatePseudoLegalMoves(board, pseudoLegal);
+        PieceColor us = board.sideToMove();
+        for (int i = 0; i < pseudoLegal.size(); i++) {
+            if (leavesKingSafe(board, pseudoLegal.get(i), us)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether neither side can possibly mate: no pawns, rooks or queens are left and
+     * the minor pieces are a single knight or bishop, or bishops all on one square color.
+     */
+    public static boolean isInsufficientMaterial(Board board) {
+        long heavy = 0, knights = 0, bishops = 0;
+        for (PieceColor color : COLORS) {
+            heavy |= board.pieces(PieceType.PAWN, color) | board.pieces(PieceType.ROOK, color) |
+                    board.pieces(PieceType.QUEEN, color);
+            knights |= board.pieces(PieceType.KNIGHT, color);
+            bishops |= board.pieces(PieceType.BISHOP, color);
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & Bitboards.LIGHT_SQUARES) == 0 || (bishops & ~Bitboards.LIGHT_SQUARES) == 0);
+    }
+
+    private static boolean leavesKingSafe(Board board, int move, PieceColor us) {
+        board.makeMove(move);
+        boolean safe = !isInCheck(board, us);
+        board.unmakeMove(move);
+        return safe;
+    }
+
+    public static void generatePseudoLegalMoves(Board board, MoveList moves) {
+        moves.clear();
+
+        PieceColor us = board.sideToMove();
+        PieceColor them = us.opposite();
+        long own = board.occupancy(us);
+        long enemies = board.occupancy(them);
+        long occupied = own | enemies;
+
+        generatePawnMoves(board, moves, us, enemies, occupied);
+
+        for (long knights = board.pieces(PieceType.KNIGHT, us); knights != 0; knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            addMoves(moves, from, Attacks.knight(from) & ~own, enemies);
+        }
+        for (long bishops = board.pieces(PieceType.BISHOP, us) | board.pieces(PieceType.QUEEN, us); bishops != 0; bishops &= bishops - 1) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            addMoves(moves, from, Attacks.bishop(from, occupied) & ~own, enemies);
+        }
+        for (long rooks = board.pieces(PieceType.ROOK, us) | board.pieces(PieceType.QUEEN, us); rooks != 0; rooks &= rooks - 1) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            addMoves(moves, from, Attacks.rook(from, occupied) & ~own, enemies);
+        }
+
+        long king = board.pieces(PieceType.KING, us);
+        if (king != 0) {
+            int from = Long.numberOfTrailingZeros(king);
+            addMoves(moves, from, Attacks.king(from) & ~own, enemies);
+            generateCastlingMoves(board, moves, us, from);
+        }
+    }
+
+    private static void generatePawnMoves(Board board, MoveList moves, PieceColor us, long enemies, long occupied) {
+        int forward = us == PieceColor.WHITE ? -8 : 8;
+        int startRow = us == PieceColor.WHITE ? 6 : 1;
+        int lastRow = us == PieceColor.WHITE ? 0 : 7;
+        int enPassant = board.enPassantSquare();
+
+        for (long pawns = board.pieces(PieceType.PAWN, us); pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int to = from + forward;
+
+            if (!Bitboards.contains(occupied, to)) {
+                addPawnMove(moves, from, to, Moves.QUIET, lastRow);
+                int twoAhead = to + forward;
+                if (Bitboards.row(from) == startRow && !Bitboards.contains(occupied, twoAhead)) {
+                    moves.add(Moves.of(from, twoAhead, Moves.DOUBLE_PAWN_PUSH));
+                }
+            }
+
+            long attacks = Attacks.pawn(us, from);
+            for (long captures = attacks & enemies; captures != 0; captures &= captures - 1) {
+                addPawnMove(moves, from, Long.numberOfTrailingZeros(captures), Moves.CAPTURE, lastRow);
+            }
+            if (enPassant != Board.NO_SQUARE && Bitboards.contains(attacks, enPassant)) {
+                moves.add(Moves.of(from, enPassant, Moves.EN_PASSANT));
+            }
+        }
+    }
+
+    private static void addPawnMove(MoveList moves, int from, int to, int flags, int lastRow) {
+        if (Bitboards.row(to) == lastRow) {
+            moves.add(Moves.of(from, to, flags | Moves.QUEEN_PROMOTION));
+            moves.add(Moves.of(from, to, flags | Moves.ROOK_PROMOTION));
+            moves.add(Moves.of(from, to, flags | Moves.BISHOP_PROMOTION));
+            moves.add(Moves.of(from, to, flags | Moves.KNIGHT_PROMOTION));
+        } else {
+            moves.add(Moves.of(from, to, flags));
+        }
+    }
+
+    private static void generateCastlingMoves(Board board, MoveList moves, PieceColor us, int kingSquare) {
+        int home = us == PieceColor.WHITE ? WHITE_KING : BLACK_KING;
+        if (kingSquare != home) {
+            return;
+        }
+        if (canCastle(board, us, true)) {
+            moves.add(Moves.of(home, home + 2, Moves.KING_CASTLE));
+        }
+        if (canCastle(board, us, false)) {
+            moves.add(Moves.of(home, home - 2, Moves.QUEEN_CASTLE));
+        }
+    }
+
+    /**
+     * Whether {@code color} still has the castling right, king and rook stand on their home
+     * squares, the squares between them are empty and the king neither starts in, passes
+     * through nor lands in check.
+     */
+    public static boolean canCastle(Board board, PieceColor color, boolean kingSide) {
+        int right = color == PieceColor.WHITE
+                ? (kingSide ? Board.WHITE_KING_SIDE : Board.WHITE_QUEEN_SIDE)
+                : (kingSide ? Board.BLACK_KING_SIDE : Board.BLACK_QUEEN_SIDE);
+        int home = color == PieceColor.WHITE ? WHITE_KING : BLACK_KING;
+        int step = kingSide ? 1 : -1;
+        int rook = kingSide ? home + 3 : home - 4;
+        PieceColor them = color.opposite();
+
+        return (board.castlingRights() & right) != 0 &&
+                Bitboards.contains(board.pieces(PieceType.KING, color), home) &&
+                Bitboards.contains(board.pieces(PieceType.ROOK, color), rook) &&
+                (Bitboards.between(home, rook) & board.occupancy()) == 0 &&
+                !isSquareAttacked(board, home, them) &&
+                !isSquareAttacked(board, home + step, them) &&
+                !isSquareAttacked(board, home + 2 * step, them);
+    }
+
+    private static void addMoves(MoveList moves, int from, long targets, long enemies) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves.add(Moves.of(from, to, Bitboards.contains(enemies, to) ? Moves.CAPTURE : Moves.QUIET));
+        }
+    }
+
+    public static boolean isInCheck(Board board, PieceColor color) {
+        long king = board.pieces(PieceType.KING, color);
+        return king != 0 && isSquareAttacked(board, Long.numberOfTrailingZeros(king), color.opposite());
+    }
+
+    public static boolean isSquareAttacked(Board board, int square, PieceColor by) {
+        long occupied = board.occupancy();
+        long queens = board.pieces(PieceType.QUEEN, by);
+
+        return (Attacks.pawn(by.opposite(), square) & board.pieces(PieceType.PAWN, by)) != 0 ||
+                (Attacks.knight(square) & board.pieces(PieceType.KNIGHT, by)) != 0 ||
+                (Attacks.king(square) & board.pieces(PieceType.KING, by)) != 0 ||
+                (Attacks.bishop(square, occupied) & (board.pieces(PieceType.BISHOP, by) | queens)) != 0 ||
+                (Attacks.rook(square, occupied) & (board.pieces(PieceType.ROOK, by) | queens)) != 0;
+    }
+
+}
@@ -0,0 +1,94 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * Moves packed into the low 16 bits of an {@code int}: origin square (6 bits),
+ * destination square (6 bits) and a 4-bit flag for captures, castling,
+ * en passant and promotions.
+ */
+public final class Moves {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+
+    private static final PieceType[] PROMOTIONS = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private Moves() {
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    public static PieceType promotion(int move) {
+        return isPromotion(move) ? PROMOTIONS[flags(move) & 3] : null;
+    }
+
+    /**
+     * Flags for a promotion to {@code type}, which must be a knight, bishop, rook or queen.
+     */
+    public static int promotionFlags(PieceType type) {
+        switch (type) {
+            case KNIGHT: return KNIGHT_PROMOTION;
+            case BISHOP: return BISHOP_PROMOTION;
+            case ROOK: return ROOK_PROMOTION;
+            case QUEEN: return QUEEN_PROMOTION;
+            default: throw new IllegalArgumentException("Cannot promote to " + type);
+        }
+    }
+
+    /**
+     * Long algebraic notation as used by UCI, e.g. {@code e2e4} or {@code a7a8q}.
+     */
+    public static String toString(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        appendSquare(sb, from(move));
+        appendSquare(sb, to(move));
+        if (isPromotion(move)) {
+            sb.append("nbrq".charAt(flags(move) & 3));
+        }
+        return sb.toString();
+    }
+
+    private static void appendSquare(StringBuilder sb, int square) {
+        sb.append((char) ('a' + Bitboards.column(square))).append((char) ('8' - Bitboards.row(square)));
+    }
+
+}
@@ -0,0 +1,100 @@
+package demo.chess.game;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, the standard
+ * correctness and throughput check for a move generator. Running {@link #main}
+ * walks the reference positions and prints nodes per second for each.
+ */
+public class Perft {
+
+    public enum Position {
+        INITIAL("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 20, 400, 8_902, 197_281, 4_865_609),
+        KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2_039, 97_862, 4_085_603),
+        POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2_812, 43_238, 674_624),
+        POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9_467, 422_333),
+        POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1_486, 62_379, 2_103_487),
+        POSITION_6("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 46, 2_079, 89_890, 3_894_594);
+
+        private final String fen;
+        private final long[] expected;
+
+        Position(String fen, long... expected) {
+            this.fen = fen;
+            this.expected = expected;
+        }
+
+        public String fen() {
+            return fen;
+        }
+
+        public Board board() {
+            return Board.fromFen(fen);
+        }
+
+        public int maxDepth() {
+            return expected.length;
+        }
+
+        public long expected(int depth) {
+            return expected[depth - 1];
+        }
+    }
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final MoveList[] moves;
+
+    public Perft(int maxDepth) {
+        moves = new MoveList[maxDepth + 1];
+        for (int i = 0; i <= maxDepth; i++) {
+            moves[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts leaves below {@code board}, making and unmaking moves on it in place.
+     */
+    public long count(Board board, int depth) {
+        MoveList list = moves[depth];
+        generator.generateLegalMoves(board, list);
+        if (depth <= 1) {
+            return depth == 1 ? list.size() : 1;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            board.makeMove(move);
+            nodes += count(board, depth - 1);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        int depthLimit = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        long totalNodes = 0, totalNanos = 0;
+        for (Position position : Position.values()) {
+            int depth = Math.min(depthLimit, position.maxDepth());
+            Perft perft = new Perft(depth);
+
+            long start = System.nanoTime();
+            long nodes = perft.count(position.board(), depth);
+            long nanos = System.nanoTime() - start;
+
+            totalNodes += nodes;
+            totalNanos += nanos;
+            System.out.printf("%-10s depth %d nodes %,12d expected %,12d %s %,8d ms %,12d nodes/s%n",
+                    position, depth, nodes, position.expected(depth),
+                    nodes == position.expected(depth) ? "OK  " : "FAIL",
+                    nanos / 1_000_000, nodesPerSecond(nodes, nanos));
+        }
+        System.out.printf("total nodes %,d in %,d ms: %,d nodes/s%n",
+                totalNodes, totalNanos / 1_000_000, nodesPerSecond(totalNodes, totalNanos));
+    }
+
+    private static long nodesPerSecond(long nodes, long nanos) {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+}
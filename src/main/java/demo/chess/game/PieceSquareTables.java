@@ -0,0 +1,144 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * Material plus piece-square bonus of every piece on every square, for the middlegame
+ * and the endgame, in centipawns from white's point of view: black pieces count
+ * negatively. {@link Board} sums them incrementally as pieces are placed and removed.
+ * Also gives each piece's weight in the game phase, from {@link #MAX_PHASE} with all
+ * pieces on the board down to 0 with only kings and pawns.
+ */
+public final class PieceSquareTables {
+
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING.
+    private static final int[] MIDDLEGAME_VALUES = {100, 500, 320, 330, 900, 0};
+    private static final int[] ENDGAME_VALUES = {120, 520, 300, 320, 950, 0};
+    private static final int[] PHASE_WEIGHTS = {0, 2, 1, 1, 4, 0};
+
+    // From white's side, rank 8 first, so a white piece on square s reads entry s.
+    private static final int[] PAWN_MIDDLEGAME = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            10,  10,  20,  30,  30,  20,  10,  10,
+             5,   5,  10,  25,  25,  10,   5,   5,
+             0,   0,   0,  20,  20,   0,   0,   0,
+             5,  -5, -10,   0,   0, -10,  -5,   5,
+             5,  10,  10, -20, -20,  10,  10,   5,
+             0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] PAWN_ENDGAME = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            80,  80,  80,  80,  80,  80,  80,  80,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            30,  30,  30,  30,  30,  30,  30,  30,
+            20,  20,  20,  20,  20,  20,  20,  20,
+            10,  10,  10,  10,  10,  10,  10,  10,
+            10,  10,  10,  10,  10,  10,  10,  10,
+             0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] KNIGHT = {
+           -50, -40, -30, -30, -30, -30, -40, -50,
+           -40, -20,   0,   0,   0,   0, -20, -40,
+           -30,   0,  10,  15,  15,  10,   0, -30,
+           -30,   5,  15,  20,  20,  15,   5, -30,
+           -30,   0,  15,  20,  20,  15,   0, -30,
+           -30,   5,  10,  15,  15,  10,   5, -30,
+           -40, -20,   0,   5,   5,   0, -20, -40,
+           -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP = {
+           -20, -10, -10, -10, -10, -10, -10, -20,
+           -10,   0,   0,   0,   0,   0,   0, -10,
+           -10,   0,   5,  10,  10,   5,   0, -10,
+           -10,   5,   5,  10,  10,   5,   5, -10,
+           -10,   0,  10,  10,  10,  10,   0, -10,
+           -10,  10,  10,  10,  10,  10,  10, -10,
+           -10,   5,   0,   0,   0,   0,   5, -10,
+           -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] ROOK = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+             5,  10,  10,  10,  10,  10,  10,   5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+             0,   0,   0,   5,   5,   0,   0,   0};
+    private static final int[] QUEEN = {
+           -20, -10, -10,  -5,  -5, -10, -10, -20,
+           -10,   0,   0,   0,   0,   0,   0, -10,
+           -10,   0,   5,   5,   5,   5,   0, -10,
+            -5,   0,   5,   5,   5,   5,   0,  -5,
+             0,   0,   5,   5,   5,   5,   0,  -5,
+           -10,   5,   5,   5,   5,   5,   0, -10,
+           -10,   0,   5,   0,   0,   0,   0, -10,
+           -20, -10, -10,  -5,  -5, -10, -10, -20};
+    private static final int[] KING_MIDDLEGAME = {
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -20, -30, -30, -40, -40, -30, -30, -20,
+           -10, -20, -20, -20, -20, -20, -20, -10,
+            20,  20,   0,   0,   0,   0,  20,  20,
+            20,  30,  10,   0,   0,  10,  30,  20};
+    private static final int[] KING_ENDGAME = {
+           -50, -40, -30, -20, -20, -30, -40, -50,
+           -30, -20, -10,   0,   0, -10, -20, -30,
+           -30, -10,  20,  30,  30,  20, -10, -30,
+           -30, -10,  30,  40,  40,  30, -10, -30,
+           -30, -10,  30,  40,  40,  30, -10, -30,
+           -30, -10,  20,  30,  30,  20, -10, -30,
+           -30, -30,   0,   0,   0,   0, -30, -30,
+           -50, -30, -30, -30, -30, -30, -30, -50};
+
+    private static final int[][] MIDDLEGAME_BONUS = {PAWN_MIDDLEGAME, ROOK, KNIGHT, BISHOP, QUEEN, KING_MIDDLEGAME};
+    private static final int[][] ENDGAME_BONUS = {PAWN_ENDGAME, ROOK, KNIGHT, BISHOP, QUEEN, KING_ENDGAME};
+
+    private static final int[] MIDDLEGAME = new int[Piece.INDEXES * Bitboards.SQUARES];
+    private static final int[] ENDGAME = new int[Piece.INDEXES * Bitboards.SQUARES];
+    private static final int[] PHASE = new int[Piece.INDEXES];
+
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                int index = Piece.index(type, color);
+                int sign = color == PieceColor.WHITE ? 1 : -1;
+                for (int square = 0; square < Bitboards.SQUARES; square++) {
+                    // Black reads the table mirrored top to bottom.
+                    int relative = color == PieceColor.WHITE ? square : square ^ 56;
+                    MIDDLEGAME[index * Bitboards.SQUARES + square] =
+                            sign * (MIDDLEGAME_VALUES[type.ordinal()] + MIDDLEGAME_BONUS[type.ordinal()][relative]);
+                    ENDGAME[index * Bitboards.SQUARES + square] =
+                            sign * (ENDGAME_VALUES[type.ordinal()] + ENDGAME_BONUS[type.ordinal()][relative]);
+                }
+                PHASE[index] = PHASE_WEIGHTS[type.ordinal()];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    public static int middlegame(int pieceIndex, int square) {
+        return MIDDLEGAME[pieceIndex * Bitboards.SQUARES + square];
+    }
+
+    public static int endgame(int pieceIndex, int square) {
+        return ENDGAME[pieceIndex * Bitboards.SQUARES + square];
+    }
+
+    /**
+     * Middlegame material value of a piece of {@code type}, without any square bonus.
+     */
+    public static int value(PieceType type) {
+        return MIDDLEGAME_VALUES[type.ordinal()];
+    }
+
+    public static int phase(int pieceIndex) {
+        return PHASE[pieceIndex];
+    }
+
+}
@@ -0,0 +1,63 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Corpora of random legal games from the initial position, played through
+ * {@link DefaultGame#move}, for benchmarks and tests. Each move is picked uniformly
+ * among the legal ones, so a seed always yields the same games.
+ */
+public final class RandomGames {
+
+    private RandomGames() {
+    }
+
+    /**
+     * {@code count} games of up to {@code maxPlies} plies, shorter when one ends in mate or stalemate.
+     */
+    public static List<DefaultGame> play(int count, int maxPlies, SplittableRandom random) {
+        return play(count, maxPlies, 0, random);
+    }
+
+    /**
+     * Like {@link #play(int, int, SplittableRandom)}, choosing among the first two legal moves only
+     * for the first {@code sharedPlies} plies, so that games share their first positions.
+     */
+    public static List<DefaultGame> play(int count, int maxPlies, int sharedPlies, SplittableRandom random) {
+        List<DefaultGame> games = new ArrayList<>(count);
+        for (int g = 0; g < count; g++) {
+            games.add(game(maxPlies, sharedPlies, random));
+        }
+        return games;
+    }
+
+    /**
+     * A single game, for callers that keep only its moves rather than a corpus of games.
+     */
+    public static DefaultGame game(int maxPlies, int sharedPlies, SplittableRandom random) {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList legal = new MoveList();
+        DefaultGame game = DefaultGame.newGame(Player.newWhiteSide(), Player.newBlackSide());
+        for (int ply = 0; ply < maxPlies; ply++) {
+            Board board = game.board();
+            generator.generateLegalMoves(board, legal);
+            if (legal.isEmpty()) {
+                break;
+            }
+            int move = legal.get(random.nextInt(ply < sharedPlies ? Math.min(2, legal.size()) : legal.size()));
+            Player player = board.sideToMove() == PieceColor.WHITE ? game.whiteSidePlayer() : game.blackSidePlayer();
+            PieceType promotion = Moves.isPromotion(move) ? Moves.promotion(move) : PieceType.QUEEN;
+            if (!game.move(player, Coords.of(Moves.from(move)), Coords.of(Moves.to(move)), promotion)) {
+                throw new IllegalStateException("Legal move " + Moves.toString(move) + " rejected in " + board.toFen());
+            }
+        }
+        return game;
+    }
+
+}
@@ -2,35 +2,33 @@ package demo.chess.game;
 
 import demo.chess.game.piece.Piece;
 
-import java.util.Objects;
-
+/**
+ * View of one square of a {@link Board}; the piece is read from the board's bitboards.
+ */
 public class Square {
 
+    private final Board board;
+    private final int index;
 
-    private Square(Piece piece) {
-        this.piece = piece;
-    }
-
-    private Piece piece;
-
-    void setPiece(Piece piece) {
-        this.piece = piece;
+    private Square(Board board, int index) {
+        this.board = board;
+        this.index = index;
     }
 
     public Piece getPiece() {
-        return piece;
+        return board.pieceAt(index);
     }
 
     public boolean isEmpty(){
-        return Objects.isNull(piece);
+        return board.isEmpty(index);
     }
 
-    public static Square newEmptySquare(){
-        return new Square(null);
+    public int index() {
+        return index;
     }
 
-    public static Square newSquareWith(Piece piece){
-        return new Square(piece);
+    static Square newSquareOn(Board board, int index){
+        return new Square(board, index);
     }
 
 }
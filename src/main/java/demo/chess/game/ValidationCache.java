@@ -0,0 +1,99 @@
+package demo.chess.game;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of move verdicts, shared by many games and threads. The key is
+ * {@link Board#hash()} and a start and end square. The verdict says whether the
+ * piece on the start square may move to the end square without leaving its own
+ * king in check; the caller still checks whose turn it is and who owns the piece.
+ * <p>
+ * Entries live in a preallocated {@code long[]} and are read and written without
+ * locks, like the engine's transposition table: two slots each, the key XOR the
+ * data word, then the data word, so a torn write reads as a miss. Buckets
+ * hold two entries, newest first. A new key pushes the older entry out of its
+ * bucket, and hits never write, so concurrent readers of a popular position
+ * don't contend on it. Hit and miss counts are {@link LongAdder}s for the same reason.
+ */
+public class ValidationCache {
+
+    public static final int MISS = 0, VALID = 1, INVALID = 2;
+
+    private static final int BUCKET_SLOTS = 4;
+    // Set in every data word so that an empty slot never reads as an entry.
+    private static final long PRESENT = 4;
+
+    private final long[] slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * A cache of at least {@code entries} entries, rounded up to a power of two.
+     */
+    public ValidationCache(int entries) {
+        if (entries < 2 || entries > 1 << 28) {
+            throw new IllegalArgumentException("Entries must be between 2 and 2^28: " + entries);
+        }
+        int buckets = Integer.highestOneBit(entries - 1);
+        this.slots = new long[buckets * BUCKET_SLOTS];
+        this.mask = buckets - 1;
+    }
+
+    public int capacity() {
+        return slots.length / 2;
+    }
+
+    /**
+     * {@link #VALID} or {@link #INVALID} if the verdict for moving from {@code start} to
+     * {@code end} in the position {@code hash} is known, {@link #MISS} otherwise.
+     */
+    public int get(long hash, int start, int end) {
+        long key = key(hash, start, end);
+        int bucket = bucket(key);
+        for (int entry = bucket; entry < bucket + BUCKET_SLOTS; entry += 2) {
+            long data = slots[entry + 1];
+            if (data != 0 && (slots[entry] ^ data) == key) {
+                hits.increment();
+                return (int) (data & 3);
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    public void put(long hash, int start, int end, boolean valid) {
+        long key = key(hash, start, end);
+        int bucket = bucket(key);
+        long data = PRESENT | (valid ? VALID : INVALID);
+        if ((slots[bucket] ^ slots[bucket + 1]) != key) {
+            slots[bucket + 2] = slots[bucket];
+            slots[bucket + 3] = slots[bucket + 1];
+        }
+        slots[bucket] = key ^ data;
+        slots[bucket + 1] = data;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long lookups = hits + misses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private static long key(long hash, int start, int end) {
+        return hash ^ (start | end << 6 | 1 << 12) * 0x9E3779B97F4A7C15L;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key >>> 32) & mask) * BUCKET_SLOTS;
+    }
+
+}
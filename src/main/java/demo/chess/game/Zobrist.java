@@ -0,0 +1,78 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+
+/**
+ * Random keys whose XOR identifies a position: one per piece and square, one for
+ * black to move, one per castling-rights combination and one per en passant file.
+ * {@link Board} keeps its key up to date incrementally; {@link #hash(Board)}
+ * recomputes it from scratch.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[Piece.INDEXES][Bitboards.SQUARES];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        long[] seed = {0x5DEECE66DL};
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = next(seed);
+            }
+        }
+        // No rights and no en passant square contribute nothing, so an empty board hashes to 0.
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = next(seed);
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = next(seed);
+        }
+        BLACK_TO_MOVE = next(seed);
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECES[pieceIndex][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return square == Board.NO_SQUARE ? 0L : EN_PASSANT_FILE[Bitboards.column(square)];
+    }
+
+    public static long sideToMove(PieceColor color) {
+        return color == PieceColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    public static long hash(Board board) {
+        long hash = 0L;
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            Piece piece = board.pieceAt(square);
+            if (piece != null) {
+                hash ^= piece(piece.index(), square);
+            }
+        }
+        return hash ^ castling(board.castlingRights()) ^ enPassant(board.enPassantSquare())
+                ^ sideToMove(board.sideToMove());
+    }
+
+    private static long next(long[] seed) {
+        long z = (seed[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -1,6 +1,7 @@
 package demo.chess.game.piece;
 
-import demo.chess.game.Coords;
+import demo.chess.game.Attacks;
+import demo.chess.game.Bitboards;
 import demo.chess.game.Board;
 
 
@@ -16,28 +17,9 @@ public class Bishop extends Piece {
     }
 
     @Override
-    public boolean doValidate(Board board, Coords start, Coords end) {
+    public boolean doValidate(Board board, int start, int end) {
 
-        int diffX = Math.abs(end.X - start.X);
-        int diffY = Math.abs(end.Y - start.Y);
-
-        return diffX == diffY && Math.abs(diffX) > 0 &&
-                !pathBlocked(board, start,end);
-
-    }
-
-    private boolean pathBlocked(Board board, Coords start, Coords end) {
-
-        int dirX = end.X- start.X>0?1:-1;
-        int dirY = end.Y - start.Y>0?1:-1;
-
-        for(int xPos=start.X+dirX,yPos=start.Y+dirY; xPos!=end.X || yPos!=end.Y; xPos += dirX, yPos += dirY){
-            if(!board.getSquare(xPos, yPos).isEmpty()){
-                    return true;
-            }
-        }
-
-        return false;
+        return Bitboards.contains(Attacks.bishop(start, board.occupancy()), end);
 
     }
 
@@ -1,7 +1,9 @@
 package demo.chess.game.piece;
 
-import demo.chess.game.Coords;
+import demo.chess.game.Attacks;
+import demo.chess.game.Bitboards;
 import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
 
 public class King extends Piece {
 
@@ -10,8 +12,14 @@ public class King extends Piece {
     }
 
     @Override
-    public boolean doValidate(Board board, Coords start, Coords end) {
-        return true;
+    public boolean doValidate(Board board, int start, int end) {
+        return Bitboards.contains(Attacks.king(start), end) ||
+                isValidCastling(board, start, end);
+    }
+
+    private boolean isValidCastling(Board board, int start, int end) {
+        return Bitboards.row(start) == Bitboards.row(end) && Math.abs(end - start) == 2 &&
+                MoveGenerator.canCastle(board, color(), end > start);
     }
 
     @Override
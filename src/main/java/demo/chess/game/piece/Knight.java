@@ -1,10 +1,9 @@
 package demo.chess.game.piece;
 
-import demo.chess.game.Coords;
+import demo.chess.game.Attacks;
+import demo.chess.game.Bitboards;
 import demo.chess.game.Board;
 
-import java.util.List;
-
 public class Knight extends Piece {
 
     Knight(PieceColor color) {
@@ -13,29 +12,12 @@ public class Knight extends Piece {
 
 
     @Override
-    public boolean doValidate(Board board, Coords start, Coords end) {
+    public boolean doValidate(Board board, int start, int end) {
 
-        return allowedMoves(Coords.of(start.X, start.Y)) .contains(Coords.of(end.X, end.Y));
+        return Bitboards.contains(Attacks.knight(start), end);
     }
 
 
-    private List<Coords> allowedMoves(Coords coords){
-        int startX = coords.X;
-        int startY = coords.Y;
-
-        return  List.of(
-                Coords.of(startX + 1, startY + 2),
-                Coords.of(startX - 1, startY + 2),
-                Coords.of(startX + 1, startY - 2),
-                Coords.of(startX - 1, startY - 2),
-
-                Coords.of(startX + 2, startY - 1),
-                Coords.of(startX + 2, startY + 1),
-                Coords.of(startX - 2, startY - 1),
-                Coords.of(startX - 2, startY + 1)
-        );
-
-    }
     @Override
     public PieceType type() {
         return PieceType.KNIGHT;
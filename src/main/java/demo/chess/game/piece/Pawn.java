@@ -1,6 +1,7 @@
 package demo.chess.game.piece;
 
-import demo.chess.game.Coords;
+import demo.chess.game.Attacks;
+import demo.chess.game.Bitboards;
 import demo.chess.game.Board;
 
 public class Pawn extends Piece {
@@ -10,47 +11,45 @@ public class Pawn extends Piece {
     }
 
     @Override
-    public boolean doValidate(Board board, Coords start, Coords end) {
+    public boolean doValidate(Board board, int start, int end) {
 
         return isValidForwardMove(board, start, end) ||
         isValidCaptureMove(board, start, end);
 
     }
 
-    private boolean isValidCaptureMove(Board board, Coords start, Coords end) {
-        Piece capturablePiece = board.getSquare(end).getPiece();
-
+    private boolean isValidCaptureMove(Board board, int start, int end) {
+        long capturablePieces = board.occupancy(color().opposite());
+        if (board.enPassantSquare() != Board.NO_SQUARE) {
+            capturablePieces |= Bitboards.bit(board.enPassantSquare());
+        }
 
-        return capturablePiece != null &&
-                end.X - start.X == direction() &&
-                Math.abs(end.Y -start.Y) == 1;
+        return Bitboards.contains(Attacks.pawn(color(), start) & capturablePieces, end);
 
     }
 
-    private boolean isValidForwardMove(Board board, Coords start, Coords end) {
+    private boolean isValidForwardMove(Board board, int start, int end) {
 
-        return (end.X - start.X == direction() || (end.X - start.X == 2 * direction() && isInitPosition(start.X, start.Y))) &&
-                         start.Y == end.Y &&
+        int rowDistance = Bitboards.row(end) - Bitboards.row(start);
+
+        return (rowDistance == direction() || (rowDistance == 2 * direction() && isInitPosition(Bitboards.row(start)))) &&
+                         Bitboards.column(start) == Bitboards.column(end) &&
                          !forwardPathBlocked(board, start, end);
 
     }
 
-    private boolean forwardPathBlocked(Board board, Coords start, Coords end) {
+    private boolean forwardPathBlocked(Board board, int start, int end) {
 
-        for(int xPos=start.X; xPos!=end.X; xPos += direction()){
-            if(!board.getSquare(xPos+direction(), start.Y).isEmpty()){
-                return true;
-            }
-        }
+        long path = Bitboards.between(start, end) | Bitboards.bit(end);
 
-        return false;
+        return (path & board.occupancy()) != 0;
     }
 
 
     private  int direction(){
         return isWhite() ? -1 : 1;
     }
-    private boolean isInitPosition(int x, int y) {
+    private boolean isInitPosition(int x) {
         return (isWhite() && x == 6) || (!isWhite() && x == 1);
 
     }
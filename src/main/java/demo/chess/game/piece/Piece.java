@@ -1,10 +1,24 @@
 package demo.chess.game.piece;
 
+import demo.chess.game.Bitboards;
 import demo.chess.game.Coords;
 import demo.chess.game.Board;
 
 
 public abstract class Piece {
+    public static final int TYPES = PieceType.values().length;
+    public static final int INDEXES = PieceColor.values().length * TYPES;
+
+    private static final Piece[] SHARED = new Piece[INDEXES];
+
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                SHARED[index(type, color)] = newPiece(type, color);
+            }
+        }
+    }
+
     private PieceColor color;
     private PieceType type;
 
@@ -13,18 +27,43 @@ public abstract class Piece {
     }
 
 
-    boolean notCapturingOwnPiece(Board board, Coords coords) {
-        Piece capturablePiece = board.getSquare(coords).getPiece();
-        return capturablePiece==null || this.isWhite() != capturablePiece.isWhite();
+    boolean notCapturingOwnPiece(Board board, int square) {
+        return !Bitboards.contains(board.occupancy(color), square);
     }
 
 
     public abstract PieceType type();
 
+    public PieceColor color() {
+        return color;
+    }
+
     public boolean isWhite() {
         return color == PieceColor.WHITE;
     }
 
+    /**
+     * Position of this piece's bitboard in {@link Board}, one per {@code PieceType} x {@code PieceColor}.
+     */
+    public int index() {
+        return index(type(), color);
+    }
+
+    public static int index(PieceType type, PieceColor color) {
+        return color.ordinal() * TYPES + type.ordinal();
+    }
+
+    /**
+     * Pieces carry no state besides type and color, so boards share one instance per combination.
+     */
+    public static Piece of(PieceType type, PieceColor color) {
+        return SHARED[index(type, color)];
+    }
+
+    public static Piece of(int index) {
+        return SHARED[index];
+    }
+
     public static Piece newPiece(PieceType type, PieceColor color) {
 
         switch (type) {
@@ -49,6 +88,10 @@ public abstract class Piece {
 
     public enum PieceColor {
         BLACK, WHITE;
+
+        public PieceColor opposite() {
+            return this == BLACK ? WHITE : BLACK;
+        }
     }
 
     public static enum PieceType {
@@ -57,11 +100,15 @@ public abstract class Piece {
 
 
     public boolean isMoveValid(Board board, Coords start, Coords end){
+        return isMoveValid(board, start.index(), end.index());
+    }
+
+    public boolean isMoveValid(Board board, int start, int end){
         return  notCapturingOwnPiece(board,end) &&
                 doValidate(board, start, end);
     }
 
-    public abstract boolean doValidate(Board board, Coords start, Coords end);
+    public abstract boolean doValidate(Board board, int start, int end);
 
 
 }
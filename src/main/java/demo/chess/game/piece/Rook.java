@@ -1,6 +1,7 @@
 package demo.chess.game.piece;
 
-import demo.chess.game.Coords;
+import demo.chess.game.Attacks;
+import demo.chess.game.Bitboards;
 import demo.chess.game.Board;
 
 public class Rook extends Piece {
@@ -10,8 +11,8 @@ public class Rook extends Piece {
     }
 
     @Override
-    public boolean doValidate(Board board, Coords start, Coords end) {
-        return true;
+    public boolean doValidate(Board board, int start, int end) {
+        return Bitboards.contains(Attacks.rook(start, board.occupancy()), end);
     }
 
     @Override
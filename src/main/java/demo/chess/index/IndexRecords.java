@@ -0,0 +1,71 @@
+package demo.chess.index;
+
+import demo.chess.record.GameRecordReader;
+import demo.chess.record.StoredGame;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Indexes the positions of a record file into a directory on all cores, printing
+ * positions per second and the bytes stored per position, then looks up positions
+ * taken from random games, printing the p50/p99 query time.
+ */
+public class IndexRecords {
+
+    private static final int QUERIES = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: IndexRecords <in.chgr> <index directory>");
+            System.exit(2);
+        }
+        Path records = Paths.get(args[0]);
+        Path directory = Paths.get(args[1]);
+        Files.createDirectories(directory);
+
+        try (GameRecordReader games = GameRecordReader.open(records)) {
+            long start = System.nanoTime();
+            long positions;
+            try (PositionIndexBuilder builder = new PositionIndexBuilder(directory, ForkJoinPool.commonPool())) {
+                positions = builder.addAll(games, 0, 0);
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = 0;
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*" + PositionIndex.EXTENSION)) {
+                for (Path segment : segments) {
+                    bytes += Files.size(segment);
+                }
+            }
+            System.out.printf("indexed %,d games, %,d positions in %,d ms: %,d positions/s, %.2f bytes/position%n",
+                    games.games(), positions, nanos / 1_000_000, positions * 1_000_000_000L / Math.max(1, nanos),
+                    (double) bytes / Math.max(1, positions));
+
+            try (PositionIndex index = PositionIndex.open(directory)) {
+                SplittableRandom random = new SplittableRandom(1);
+                long[] found = new long[1024];
+                int[] plies = new int[1024];
+                long[] latencies = new long[QUERIES];
+                long occurrences = 0;
+                for (int i = 0; i < QUERIES && games.games() > 0; i++) {
+                    StoredGame game = games.game(random.nextLong(games.games()));
+                    long hash = game.board(random.nextInt(game.plies() + 1)).hash();
+                    long queried = System.nanoTime();
+                    occurrences += index.find(hash, found, plies);
+                    latencies[i] = System.nanoTime() - queried;
+                }
+                Arrays.sort(latencies);
+                System.out.printf("%,d queries over %d segments (%,d occurrences): p50 %.1f us, p99 %.1f us%n",
+                        QUERIES, index.segments(), occurrences, latencies[QUERIES / 2] / 1_000.0,
+                        latencies[QUERIES * 99 / 100] / 1_000.0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+package demo.chess.index;
+
+import demo.chess.game.Board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the games that reached a position, by {@link Board#hash()}, in the index
+ * segments that {@link PositionIndexBuilder} wrote to a directory, memory-mapped and
+ * searched in place.
+ * <p>
+ * A segment file starts with a 24-byte header (magic {@code CHPI}, format version,
+ * key count, key table offset). Posting lists follow, one per position: the number of
+ * postings, then for each the game id as a delta from the previous one and the ply,
+ * all as unsigned LEB128 varints, sorted by game then ply. The key table at the end
+ * holds 12 bytes per position, the hash and the 32-bit offset of its posting list,
+ * sorted by hash for binary search. Segments are never modified once written, so reads
+ * are safe from several threads; {@link #refresh()} picks up segments written since.
+ */
+public class PositionIndex implements Closeable {
+
+    static final int MAGIC = 0x43485049; // "CHPI"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 24;
+    static final int KEY_BYTES = 12;
+    static final String EXTENSION = ".pix";
+
+    private final Path directory;
+    private volatile Segment[] segments = new Segment[0];
+
+    private PositionIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    public static PositionIndex open(Path directory) throws IOException {
+        PositionIndex index = new PositionIndex(directory);
+        index.refresh();
+        return index;
+    }
+
+    /**
+     * Maps the segments written to the directory since this index was opened or last refreshed.
+     */
+    public synchronized void refresh() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> found = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            found.forEach(files::add);
+        }
+        files.sort(null);
+
+        Segment[] current = segments;
+        List<Segment> refreshed = new ArrayList<>(Arrays.asList(current));
+        for (Path file : files) {
+            if (refreshed.stream().noneMatch(segment -> segment.file.equals(file))) {
+                refreshed.add(new Segment(file));
+            }
+        }
+        segments = refreshed.toArray(new Segment[0]);
+    }
+
+    public int segments() {
+        return segments.length;
+    }
+
+    /**
+     * Copies the games that reached the position {@code hash}, and the ply at which they did,
+     * into the arrays, as many as fit, and returns how many the index holds. Occurrences come
+     * by segment in the order they were written, by game then ply within a segment.
+     */
+    public long find(long hash, long[] games, int[] plies) {
+        long count = 0;
+        for (Segment segment : segments) {
+            int key = segment.find(hash);
+            if (key < 0) {
+                continue;
+            }
+            int at = segment.postings(key);
+            MappedByteBuffer data = segment.data;
+            long postings = readVarint(data, at);
+            at += varintBytes(postings);
+            long game = 0;
+            for (long i = 0; i < postings; i++, count++) {
+                if (count >= games.length || count >= plies.length) {
+                    count += postings - i;
+                    break;
+                }
+                long delta = readVarint(data, at);
+                at += varintBytes(delta);
+                long ply = readVarint(data, at);
+                at += varintBytes(ply);
+                game += delta;
+                games[(int) count] = game;
+                plies[(int) count] = (int) ply;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * How many times the position {@code hash} occurs in the indexed games.
+     */
+    public long count(long hash) {
+        long count = 0;
+        for (Segment segment : segments) {
+            int key = segment.find(hash);
+            if (key >= 0) {
+                count += readVarint(segment.data, segment.postings(key));
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments = new Segment[0];
+    }
+
+    static long readVarint(MappedByteBuffer data, int at) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data.get(at++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static int varintBytes(long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    private static final class Segment {
+
+        final Path file;
+        final FileChannel channel;
+        final MappedByteBuffer data;
+        final int keys;
+        final int keyTable;
+
+        Segment(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                    throw new IOException("Not an index segment: " + file + " has " + size + " bytes");
+                }
+                this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (data.getInt(0) != MAGIC) {
+                    throw new IOException("Not an index segment: " + file + ": bad magic");
+                }
+                if (data.getShort(4) != VERSION) {
+                    throw new IOException("Unsupported index segment version " + data.getShort(4));
+                }
+                long keys = data.getLong(8);
+                long keyTable = data.getLong(16);
+                if (keyTable + keys * KEY_BYTES != size) {
+                    throw new IOException("Index segment " + file + " holds " + size + " bytes for " + keys + " keys");
+                }
+                this.keys = (int) keys;
+                this.keyTable = (int) keyTable;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        // The key holding hash, or -1.
+        int find(long hash) {
+            int low = 0, high = keys - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                long key = data.getLong(keyTable + middle * KEY_BYTES);
+                if (key < hash) {
+                    low = middle + 1;
+                } else if (key > hash) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -1;
+        }
+
+        int postings(int key) {
+            return data.getInt(keyTable + key * KEY_BYTES + 8);
+        }
+    }
+
+}
@@ -0,0 +1,423 @@
+package demo.chess.index;
+
+import demo.chess.game.Board;
+import demo.chess.game.DefaultGame;
+import demo.chess.record.GameRecordReader;
+import demo.chess.record.StoredGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Writes {@link PositionIndex} segments into a directory: every position of every game,
+ * from the start position to the one after the last move, with the game's id and the ply.
+ * <p>
+ * {@link #addAll} indexes a record file by replaying chunks of games on a fork/join pool,
+ * each into its own run sorted by position; runs are merged into a segment once they hold
+ * {@code segmentPostings} occurrences, so memory stays bounded however many games there
+ * are. {@link #add} buffers finished games one at a time and {@link #flush} writes them as
+ * a further segment. Segments appear atomically under their final name, so an open index
+ * may {@link PositionIndex#refresh() refresh} at any time. Instances are not thread-safe.
+ */
+public class PositionIndexBuilder implements AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_POSTINGS = 1 << 24;
+
+    private static final int CHUNK_GAMES = 1024;
+    // Game ids and plies share one long in runs: plies fit in 16 bits, as in record files.
+    private static final int PLY_BITS = 16;
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final int segmentPostings;
+    private int nextSegment;
+
+    private final List<Run> pending = new ArrayList<>();
+    private long pendingPostings;
+    private Run live = new Run(1024);
+
+    public PositionIndexBuilder(Path directory, ForkJoinPool pool, int segmentPostings) throws IOException {
+        this.directory = directory;
+        this.pool = pool;
+        this.segmentPostings = segmentPostings;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*" + PositionIndex.EXTENSION)) {
+            for (Path segment : segments) {
+                String name = segment.getFileName().toString();
+                nextSegment = Math.max(nextSegment, Integer.parseInt(name.substring(0, name.indexOf('.'))) + 1);
+            }
+        }
+    }
+
+    public PositionIndexBuilder(Path directory, ForkJoinPool pool) throws IOException {
+        this(directory, pool, DEFAULT_SEGMENT_POSTINGS);
+    }
+
+    /**
+     * Indexes games {@code from} to the end of {@code games}, each under its number in the
+     * file plus {@code firstId}, and writes the segments.
+     *
+     * @return the number of positions indexed
+     */
+    public long addAll(GameRecordReader games, long from, long firstId) throws IOException {
+        long chunks = (games.games() - from + CHUNK_GAMES - 1) / CHUNK_GAMES;
+        // Enough chunks per round to keep every worker busy while runs wait to be merged.
+        int round = pool.getParallelism() * 4;
+        long positions = 0;
+        for (long start = 0; start < chunks; start += round) {
+            long first = start, end = Math.min(chunks, start + round);
+            List<Run> runs = submit(() -> LongStream.range(first, end).parallel()
+                    .mapToObj(chunk -> replay(games, from + chunk * CHUNK_GAMES,
+                            Math.min(games.games(), from + (chunk + 1) * CHUNK_GAMES), firstId))
+                    .collect(Collectors.toList()));
+            for (Run run : runs) {
+                positions += run.size;
+                pending.add(run);
+                pendingPostings += run.size;
+            }
+            if (pendingPostings >= segmentPostings) {
+                writePending();
+            }
+        }
+        writePending();
+        return positions;
+    }
+
+    /**
+     * Buffers the positions of a finished game under {@code id}; they are written by
+     * the next {@link #flush()}, or by this call once enough are buffered.
+     */
+    public void add(long id, DefaultGame game) throws IOException {
+        Board board = game.board().copy();
+        for (int ply = game.plies() - 1; ply >= 0; ply--) {
+            board.unmakeMove(game.movePlayed(ply));
+        }
+        for (int ply = 0; ; ply++) {
+            live.add(board.hash(), id, ply);
+            if (ply == game.plies()) {
+                break;
+            }
+            board.makeMove(game.movePlayed(ply));
+        }
+        if (live.size >= segmentPostings) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the games added since the last flush as a segment.
+     */
+    public void flush() throws IOException {
+        if (live.size == 0) {
+            return;
+        }
+        Run run = live;
+        live = new Run(1024);
+        run.sort();
+        pending.add(run);
+        pendingPostings += run.size;
+        writePending();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private static Run replay(GameRecordReader games, long from, long end, long firstId) {
+        Run run = new Run(CHUNK_GAMES * 96);
+        for (long n = from; n < end; n++) {
+            StoredGame game = games.game(n);
+            Board board = game.board(0);
+            for (int ply = 0; ; ply++) {
+                run.add(board.hash(), firstId + n, ply);
+                if (ply == game.plies()) {
+                    break;
+                }
+                board.makeMove(game.move(ply));
+            }
+        }
+        run.sort();
+        return run;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Indexing failed", e.getCause());
+        }
+    }
+
+    // Merges the pending runs into one segment.
+    private void writePending() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Run[] runs = pending.toArray(new Run[0]);
+        pending.clear();
+        pendingPostings = 0;
+
+        Path file = directory.resolve(String.format("%08d%s", nextSegment++, PositionIndex.EXTENSION));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            new SegmentWriter(channel).write(runs);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Occurrences of positions as parallel arrays of hashes and packed game ids and plies,
+     * sorted by hash, then game, then ply once {@link #sort()} is called.
+     */
+    private static final class Run {
+
+        long[] hashes;
+        long[] postings;
+        int size;
+
+        Run(int capacity) {
+            hashes = new long[capacity];
+            postings = new long[capacity];
+        }
+
+        void add(long hash, long game, int ply) {
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            hashes[size] = hash;
+            postings[size++] = game << PLY_BITS | ply;
+        }
+
+        void sort() {
+            sort(0, size - 1);
+        }
+
+        private void sort(int low, int high) {
+            while (low < high) {
+                if (high - low < 16) {
+                    for (int i = low + 1; i <= high; i++) {
+                        for (int j = i; j > low && compare(j - 1, j) > 0; j--) {
+                            swap(j - 1, j);
+                        }
+                    }
+                    return;
+                }
+                int middle = (low + high) >>> 1;
+                long pivotHash = hashes[middle], pivotPosting = postings[middle];
+                int i = low, j = high;
+                while (i <= j) {
+                    while (compare(i, pivotHash, pivotPosting) < 0) {
+                        i++;
+                    }
+                    while (compare(j, pivotHash, pivotPosting) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // Recurse into the smaller side so the stack stays logarithmic.
+                if (j - low < high - i) {
+                    sort(low, j);
+                    low = i;
+                } else {
+                    sort(i, high);
+                    high = j;
+                }
+            }
+        }
+
+        int compare(int a, int b) {
+            return compare(a, hashes[b], postings[b]);
+        }
+
+        int compare(int a, long hash, long posting) {
+            int byHash = Long.compare(hashes[a], hash);
+            return byHash != 0 ? byHash : Long.compare(postings[a], posting);
+        }
+
+        private void swap(int a, int b) {
+            long hash = hashes[a];
+            hashes[a] = hashes[b];
+            hashes[b] = hash;
+            long posting = postings[a];
+            postings[a] = postings[b];
+            postings[b] = posting;
+        }
+    }
+
+    /**
+     * Streams the merged runs out as posting lists, collecting the key table, which goes
+     * at the end, then fills in the header.
+     */
+    private static final class SegmentWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        private long position = PositionIndex.HEADER_BYTES;
+        private long[] keys = new long[1024];
+        private long[] offsets = new long[1024];
+        private int keyCount;
+
+        SegmentWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(Run[] runs) throws IOException {
+            // Room for the header, which is filled in last.
+            buffer.position(PositionIndex.HEADER_BYTES);
+            // A binary heap of runs ordered by their next occurrence.
+            int[] heads = new int[runs.length];
+            int[] heap = new int[runs.length];
+            int heapSize = 0;
+            for (int r = 0; r < runs.length; r++) {
+                if (runs[r].size > 0) {
+                    heap[heapSize++] = r;
+                    siftUp(heap, heapSize - 1, runs, heads);
+                }
+            }
+
+            long[] postings = new long[64];
+            int count = 0;
+            long hash = 0;
+            while (heapSize > 0) {
+                int r = heap[0];
+                Run run = runs[r];
+                long nextHash = run.hashes[heads[r]];
+                if (count > 0 && nextHash != hash) {
+                    writePostings(hash, postings, count);
+                    count = 0;
+                }
+                hash = nextHash;
+                if (count == postings.length) {
+                    postings = Arrays.copyOf(postings, count * 2);
+                }
+                postings[count++] = run.postings[heads[r]];
+
+                if (++heads[r] == run.size) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, heapSize, runs, heads);
+            }
+            if (count > 0) {
+                writePostings(hash, postings, count);
+            }
+
+            long keyTable = position;
+            for (int key = 0; key < keyCount; key++) {
+                ensure(PositionIndex.KEY_BYTES);
+                buffer.putLong(keys[key]).putInt((int) offsets[key]);
+                position += PositionIndex.KEY_BYTES;
+            }
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(PositionIndex.HEADER_BYTES);
+            header.putInt(PositionIndex.MAGIC).putShort(PositionIndex.VERSION).putShort((short) 0)
+                    .putLong(keyCount).putLong(keyTable).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+
+        // Postings of one position, in game then ply order as the runs deliver them.
+        private void writePostings(long hash, long[] postings, int count) throws IOException {
+            if (keyCount == keys.length) {
+                keys = Arrays.copyOf(keys, keyCount * 2);
+                offsets = Arrays.copyOf(offsets, keyCount * 2);
+            }
+            keys[keyCount] = hash;
+            offsets[keyCount++] = position;
+            if (position > Integer.MAX_VALUE) {
+                throw new IOException("Index segment exceeds 2 GB; lower the postings per segment");
+            }
+
+            writeVarint(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                long game = postings[i] >>> PLY_BITS;
+                writeVarint(game - previous);
+                writeVarint(postings[i] & ((1 << PLY_BITS) - 1));
+                previous = game;
+            }
+        }
+
+        private void writeVarint(long value) throws IOException {
+            ensure(10);
+            int start = buffer.position();
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) (value & 0x7F | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+            position += buffer.position() - start;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            long at = position - buffer.remaining();
+            while (buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+            buffer.clear();
+        }
+
+        private static void siftUp(int[] heap, int i, Run[] runs, int[] heads) {
+            while (i > 0 && before(heap[i], heap[(i - 1) / 2], runs, heads)) {
+                int parent = (i - 1) / 2;
+                int swap = heap[i];
+                heap[i] = heap[parent];
+                heap[parent] = swap;
+                i = parent;
+            }
+        }
+
+        private static void siftDown(int[] heap, int size, Run[] runs, int[] heads) {
+            int i = 0;
+            while (true) {
+                int smallest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (before(heap[child], heap[smallest], runs, heads)) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == i) {
+                    return;
+                }
+                int swap = heap[i];
+                heap[i] = heap[smallest];
+                heap[smallest] = swap;
+                i = smallest;
+            }
+        }
+
+        private static boolean before(int a, int b, Run[] runs, int[] heads) {
+            Run first = runs[a], second = runs[b];
+            return first.compare(heads[a], second.hashes[heads[b]], second.postings[heads[b]]) < 0;
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package demo.chess.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts durations in nanoseconds into power-of-two buckets: bucket {@code b} holds
+ * durations below {@code 2^b} and at least half that. Each bucket is a
+ * {@link LongAdder}, so threads recording at once don't contend on a shared word.
+ * Percentiles are read as the upper bound of their bucket, which is within a factor
+ * of two of the true value.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int b = 0; b < BUCKETS; b++) {
+            buckets[b] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long clamped = Math.max(0, nanos);
+        buckets[64 - Long.numberOfLeadingZeros(clamped)].increment();
+        totalNanos.add(clamped);
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public double meanNanos() {
+        long count = count();
+        return count == 0 ? 0 : (double) totalNanos() / count;
+    }
+
+    /**
+     * The duration that a fraction {@code quantile} of the recorded ones do not exceed,
+     * rounded up to a power of two; 0 if nothing was recorded.
+     */
+    public long percentileNanos(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = buckets[b].sum();
+            count += counts[b];
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank && seen > 0) {
+                return b == 0 ? 0 : b == BUCKETS - 1 ? Long.MAX_VALUE : (1L << b) - 1;
+            }
+        }
+        return 0;
+    }
+
+}
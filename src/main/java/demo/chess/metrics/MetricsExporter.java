@@ -0,0 +1,30 @@
+package demo.chess.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Ships a {@link MoveMetrics#snapshot()} somewhere: a log, a push gateway, a time series
+ * database. Called from {@link MoveMetrics#exportEvery}'s scheduler thread, never from
+ * a game's.
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+    void export(long timestampMillis, Map<String, Long> metrics);
+
+    /**
+     * Prints one {@code name value timestamp} line per metric, the plain-text format
+     * of Graphite and similar collectors.
+     */
+    static MetricsExporter lines(PrintStream out) {
+        return (timestampMillis, metrics) -> {
+            StringBuilder lines = new StringBuilder();
+            metrics.forEach((name, value) ->
+                    lines.append(name).append(' ').append(value).append(' ').append(timestampMillis / 1000).append('\n'));
+            out.print(lines);
+            out.flush();
+        };
+    }
+
+}
@@ -0,0 +1,279 @@
+package demo.chess.metrics;
+
+import demo.chess.game.piece.Piece.PieceType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Where the time of {@link demo.chess.game.DefaultGame#move} goes, for games that
+ * {@linkplain demo.chess.game.DefaultGame#useMetrics use} it: moves accepted and
+ * rejected per piece type, latency histograms of {@code Piece.isMoveValid} per piece
+ * type and verdict, and of the other phases of a move, plus the number of live games.
+ * <p>
+ * One instance is meant to be shared by every game of a process; all counters are
+ * {@link LongAdder}s, so games on different threads don't contend. Games without
+ * metrics, the default, only test a null field and never read the clock.
+ */
+public class MoveMetrics {
+
+    /**
+     * The phases of a move timed apart from validation.
+     */
+    public enum Phase {
+        // Looking the verdict up in the validation cache.
+        LOOKUP,
+        // Making the move on the board and checking that the mover's king is safe.
+        MAKE_MOVE,
+        // Saving the move, switching turns and publishing the event.
+        HISTORY
+    }
+
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final Phase[] PHASES = Phase.values();
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Indexed by piece type, then 1 for accepted or valid and 0 for rejected.
+    private final LongAdder[][] moves = new LongAdder[TYPES.length][2];
+    private final LatencyHistogram[][] validation = new LatencyHistogram[TYPES.length][2];
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASES.length];
+    private final LongAdder liveGames = new LongAdder();
+
+    // Moves per second, measured over windows of at least RATE_WINDOW_NANOS that close on read.
+    private long windowStart = System.nanoTime();
+    private long windowMoves;
+    private double movesPerSecond;
+
+    public MoveMetrics() {
+        for (int type = 0; type < TYPES.length; type++) {
+            for (int outcome = 0; outcome < 2; outcome++) {
+                moves[type][outcome] = new LongAdder();
+                validation[type][outcome] = new LatencyHistogram();
+            }
+        }
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            phases[phase] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time since {@code since}, a {@link System#nanoTime()}, as spent in {@code phase}
+     * and returns the current time, where the next phase starts.
+     */
+    public long lap(Phase phase, long since) {
+        long now = System.nanoTime();
+        phases[phase.ordinal()].record(now - since);
+        return now;
+    }
+
+    /**
+     * Like {@link #lap}, for the validation of a move by a piece of {@code type}.
+     */
+    public long validated(PieceType type, boolean valid, long since) {
+        long now = System.nanoTime();
+        validation[type.ordinal()][valid ? 1 : 0].record(now - since);
+        return now;
+    }
+
+    public void moved(PieceType type, boolean accepted) {
+        moves[type.ordinal()][accepted ? 1 : 0].increment();
+    }
+
+    public void gameStarted() {
+        liveGames.increment();
+    }
+
+    public void gameEnded() {
+        liveGames.decrement();
+    }
+
+    public long liveGames() {
+        return liveGames.sum();
+    }
+
+    public long moves(PieceType type, boolean accepted) {
+        return moves[type.ordinal()][accepted ? 1 : 0].sum();
+    }
+
+    public long moves(boolean accepted) {
+        long total = 0;
+        for (PieceType type : TYPES) {
+            total += moves(type, accepted);
+        }
+        return total;
+    }
+
+    /**
+     * Validations of moves by {@code type}, excluding those answered by the validation cache.
+     */
+    public LatencyHistogram validation(PieceType type, boolean valid) {
+        return validation[type.ordinal()][valid ? 1 : 0];
+    }
+
+    public LatencyHistogram phase(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Accepted moves per second over the last window of at least a second; windows close
+     * when this is read, so the first read, or one within a second of the previous window,
+     * returns the previous figure.
+     */
+    public synchronized double movesPerSecond() {
+        long now = System.nanoTime();
+        if (now - windowStart >= RATE_WINDOW_NANOS) {
+            long accepted = moves(true);
+            movesPerSecond = (accepted - windowMoves) * 1e9 / (now - windowStart);
+            windowStart = now;
+            windowMoves = accepted;
+        }
+        return movesPerSecond;
+    }
+
+    /**
+     * Every figure, keyed by dotted lower-case names such as {@code moves.accepted.pawn} or
+     * {@code validation.rejected.knight.p99_nanos}, in name order.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> metrics = new TreeMap<>();
+        metrics.put("games.live", liveGames());
+        metrics.put("moves.accepted", moves(true));
+        metrics.put("moves.rejected", moves(false));
+        metrics.put("moves.per_second", Math.round(movesPerSecond()));
+        for (PieceType type : TYPES) {
+            String name = name(type);
+            metrics.put("moves.accepted." + name, moves(type, true));
+            metrics.put("moves.rejected." + name, moves(type, false));
+            put(metrics, "validation.valid." + name, validation(type, true));
+            put(metrics, "validation.rejected." + name, validation(type, false));
+        }
+        for (Phase phase : PHASES) {
+            put(metrics, "phase." + name(phase), phase(phase));
+        }
+        return metrics;
+    }
+
+    private static void put(Map<String, Long> metrics, String prefix, LatencyHistogram histogram) {
+        metrics.put(prefix + ".count", histogram.count());
+        metrics.put(prefix + ".mean_nanos", Math.round(histogram.meanNanos()));
+        metrics.put(prefix + ".p50_nanos", histogram.percentileNanos(0.5));
+        metrics.put(prefix + ".p99_nanos", histogram.percentileNanos(0.99));
+    }
+
+    /**
+     * Hands a {@link #snapshot()} to {@code exporter} every {@code period}, until the returned
+     * future is cancelled or {@code scheduler} shut down.
+     */
+    public ScheduledFuture<?> exportEvery(ScheduledExecutorService scheduler, long period, TimeUnit unit,
+                                          MetricsExporter exporter) {
+        return scheduler.scheduleAtFixedRate(() -> exporter.export(System.currentTimeMillis(), snapshot()),
+                period, period, unit);
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server as
+     * {@code demo.chess:type=MoveMetrics,name=<name>}.
+     */
+    public ObjectName register(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("demo.chess:type=MoveMetrics,name=" + ObjectName.quote(name));
+        server.registerMBean(new View(), objectName);
+        return objectName;
+    }
+
+    private static String name(Enum<?> constant) {
+        return constant.name().toLowerCase(Locale.ROOT);
+    }
+
+    private class View implements MoveMetricsMXBean {
+
+        @Override
+        public long getMovesAccepted() {
+            return moves(true);
+        }
+
+        @Override
+        public long getMovesRejected() {
+            return moves(false);
+        }
+
+        @Override
+        public double getMovesPerSecond() {
+            return movesPerSecond();
+        }
+
+        @Override
+        public long getLiveGames() {
+            return liveGames();
+        }
+
+        @Override
+        public Map<String, Long> getAcceptedByPieceType() {
+            return byType(type -> moves(type, true));
+        }
+
+        @Override
+        public Map<String, Long> getRejectedByPieceType() {
+            return byType(type -> moves(type, false));
+        }
+
+        @Override
+        public Map<String, Double> getValidationMeanNanosByPieceType() {
+            Map<String, Double> means = new TreeMap<>();
+            for (PieceType type : TYPES) {
+                long count = validation(type, true).count() + validation(type, false).count();
+                long nanos = validation(type, true).totalNanos() + validation(type, false).totalNanos();
+                means.put(name(type), count == 0 ? 0 : (double) nanos / count);
+            }
+            return means;
+        }
+
+        @Override
+        public Map<String, Long> getValidationP99NanosByPieceType() {
+            return byType(type -> Math.max(validation(type, true).percentileNanos(0.99),
+                    validation(type, false).percentileNanos(0.99)));
+        }
+
+        @Override
+        public Map<String, Double> getPhaseMeanNanos() {
+            return byPhase(phase -> phase(phase).meanNanos());
+        }
+
+        @Override
+        public Map<String, Long> getPhaseP99Nanos() {
+            Map<String, Long> p99 = new TreeMap<>();
+            for (Phase phase : PHASES) {
+                p99.put(name(phase), phase(phase).percentileNanos(0.99));
+            }
+            return p99;
+        }
+
+        private Map<String, Long> byType(ToLongFunction<PieceType> figure) {
+            Map<String, Long> figures = new TreeMap<>();
+            for (PieceType type : TYPES) {
+                figures.put(name(type), figure.applyAsLong(type));
+            }
+            return figures;
+        }
+
+        private Map<String, Double> byPhase(ToDoubleFunction<Phase> figure) {
+            Map<String, Double> figures = new TreeMap<>();
+            for (Phase phase : PHASES) {
+                figures.put(name(phase), figure.applyAsDouble(phase));
+            }
+            return figures;
+        }
+    }
+
+}
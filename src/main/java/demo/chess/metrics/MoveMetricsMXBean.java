@@ -0,0 +1,34 @@
+package demo.chess.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of a {@link MoveMetrics}, registered with {@link MoveMetrics#register(String)}.
+ * Per piece type and per phase figures are keyed by lower-case name.
+ */
+public interface MoveMetricsMXBean {
+
+    long getMovesAccepted();
+
+    long getMovesRejected();
+
+    /**
+     * Accepted moves per second over the last full second or more.
+     */
+    double getMovesPerSecond();
+
+    long getLiveGames();
+
+    Map<String, Long> getAcceptedByPieceType();
+
+    Map<String, Long> getRejectedByPieceType();
+
+    Map<String, Double> getValidationMeanNanosByPieceType();
+
+    Map<String, Long> getValidationP99NanosByPieceType();
+
+    Map<String, Double> getPhaseMeanNanos();
+
+    Map<String, Long> getPhaseP99Nanos();
+
+}
@@ -0,0 +1,48 @@
+package demo.chess.pgn;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays every game of a PGN file and prints games and moves per second, the
+ * number of games with an illegal move and the heap in use at the end.
+ */
+public class PgnBench {
+
+    private static final long REPORT_EVERY = 100_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: PgnBench <file.pgn>");
+            System.exit(2);
+        }
+        Path path = Paths.get(args[0]);
+
+        PgnGame game = new PgnGame();
+        long illegal = 0;
+        long plies = 0;
+        long start = System.nanoTime();
+        try (PgnReader reader = PgnReader.open(path)) {
+            while (reader.next(game)) {
+                plies += game.plies();
+                if (!game.isLegal()) {
+                    illegal++;
+                }
+                if (reader.gamesRead() % REPORT_EVERY == 0) {
+                    report(reader.gamesRead(), plies, illegal, start);
+                }
+            }
+            report(reader.gamesRead(), plies, illegal, start);
+        }
+    }
+
+    private static void report(long games, long plies, long illegal, long start) {
+        long nanos = Math.max(1, System.nanoTime() - start);
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%,d games (%,d illegal), %,d moves in %,d ms: %,d games/s, %,d moves/s, heap %,d MB%n",
+                games, illegal, plies, nanos / 1_000_000, games * 1_000_000_000L / nanos,
+                plies * 1_000_000_000L / nanos, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+
+}
@@ -0,0 +1,126 @@
+package demo.chess.pgn;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Moves;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One game read by {@link PgnReader}: its tag pairs, the moves replayed through a
+ * {@link DefaultGame}, and where replay stopped if a move was illegal.
+ * <p>
+ * The reader fills the same instance for every game, so copy out anything that
+ * has to outlive the next call to {@link PgnReader#next}.
+ */
+public class PgnGame {
+
+    public static final String UNKNOWN_RESULT = "*";
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+    private final Map<String, String> tags = new LinkedHashMap<>();
+
+    private DefaultGame game;
+    private String result;
+    private int firstIllegalPly;
+    private String firstIllegalMove;
+
+    void reset() {
+        tags.clear();
+        game = null;
+        result = UNKNOWN_RESULT;
+        firstIllegalPly = -1;
+        firstIllegalMove = null;
+    }
+
+    void putTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    /**
+     * Sets up the start position, from the FEN tag when there is one.
+     */
+    void start() {
+        String fen = tags.get("FEN");
+        Board board;
+        try {
+            board = fen == null ? null : Board.fromFen(fen);
+        } catch (IllegalArgumentException e) {
+            game = DefaultGame.newGame(white, black);
+            firstIllegalPly = 0;
+            firstIllegalMove = "[FEN \"" + fen + "\"]";
+            return;
+        }
+        game = board == null ? DefaultGame.newGame(white, black) : DefaultGame.fromPosition(white, black, board);
+    }
+
+    /**
+     * Replays {@code token[start, end)} unless an earlier move was already illegal.
+     */
+    void play(San san, CharSequence token, int start, int end) {
+        if (!isLegal()) {
+            return;
+        }
+        Board board = game.board();
+        int move = san.resolve(board, token, start, end);
+        Player player = board.sideToMove() == PieceColor.WHITE ? white : black;
+        if (move == Moves.NONE || !game.move(player, Coords.of(Moves.from(move)), Coords.of(Moves.to(move)),
+                Moves.isPromotion(move) ? Moves.promotion(move) : PieceType.QUEEN)) {
+            firstIllegalPly = game.plies();
+            firstIllegalMove = token.subSequence(start, end).toString();
+        }
+    }
+
+    void setResult(String result) {
+        this.result = result;
+    }
+
+    public Map<String, String> tags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    public String tag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * The game as replayed: its board holds the final position, or the one before the first illegal move.
+     */
+    public DefaultGame game() {
+        return game;
+    }
+
+    public int plies() {
+        return game.plies();
+    }
+
+    /**
+     * The game termination marker from the movetext: {@code 1-0}, {@code 0-1}, {@code 1/2-1/2} or {@code *}.
+     */
+    public String result() {
+        return result;
+    }
+
+    public boolean isLegal() {
+        return firstIllegalPly < 0;
+    }
+
+    /**
+     * Ply, counting from 0, of the first move that could not be played, or -1 if every move was legal.
+     */
+    public int firstIllegalPly() {
+        return firstIllegalPly;
+    }
+
+    public String firstIllegalMove() {
+        return firstIllegalMove;
+    }
+
+}
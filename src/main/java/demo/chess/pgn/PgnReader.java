@@ -0,0 +1,231 @@
+package demo.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams games out of a PGN file, replaying each one's moves through a
+ * {@link demo.chess.game.DefaultGame} as it is read.
+ * <p>
+ * Input goes through one fixed-size direct buffer and tokens through one reused
+ * builder, so memory use does not depend on the size of the file. Comments,
+ * recursive variations and numeric annotation glyphs are skipped. A game ends at
+ * its result marker, or at the next tag section or end of input if it has none.
+ */
+public class PgnReader implements Closeable {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int NONE = -2;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final StringBuilder token = new StringBuilder(64);
+    private final San san = new San();
+    private byte[] tagValue = new byte[64];
+    private int pushedBack = NONE;
+    private long gamesRead;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.limit(0);
+    }
+
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Reads and replays the next game into {@code game}.
+     *
+     * @return false when there are no more games
+     */
+    public boolean next(PgnGame game) throws IOException {
+        game.reset();
+        int c = skipWhitespace();
+        if (c == -1) {
+            return false;
+        }
+        while (c == '[') {
+            readTag(game);
+            c = skipWhitespace();
+        }
+        game.start();
+
+        for (; c != -1; c = skipWhitespace()) {
+            if (c == '[') {
+                pushedBack = c;
+                break;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';' || c == '%') {
+                skipPast('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == ')') {
+                continue;
+            } else if (c == '$') {
+                readToken(c);
+            } else {
+                readToken(c);
+                if (isResult(token)) {
+                    game.setResult(token.toString());
+                    break;
+                }
+                playMove(game);
+            }
+        }
+        gamesRead++;
+        return true;
+    }
+
+    public long gamesRead() {
+        return gamesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void playMove(PgnGame game) {
+        // Move numbers ("12." or "12...") may be glued to the move that follows them.
+        int start = 0;
+        while (start < token.length() && Character.isDigit(token.charAt(start))) {
+            start++;
+        }
+        if (start < token.length() && token.charAt(start) == '.') {
+            while (start < token.length() && token.charAt(start) == '.') {
+                start++;
+            }
+        } else {
+            start = 0;
+        }
+        if (start < token.length()) {
+            game.play(san, token, start, token.length());
+        }
+    }
+
+    private void readTag(PgnGame game) throws IOException {
+        int c = skipWhitespace();
+        token.setLength(0);
+        while (c != -1 && c != '"' && c != ']' && !isWhitespace(c)) {
+            token.append((char) c);
+            c = read();
+        }
+        String name = token.toString();
+
+        while (c != -1 && c != '"' && c != ']') {
+            c = read();
+        }
+        int length = 0;
+        if (c == '"') {
+            for (c = read(); c != -1 && c != '"'; c = read()) {
+                if (c == '\\') {
+                    c = read();
+                }
+                if (length == tagValue.length) {
+                    tagValue = Arrays.copyOf(tagValue, length * 2);
+                }
+                tagValue[length++] = (byte) c;
+            }
+            skipPast(']');
+        }
+        game.putTag(name, new String(tagValue, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private void readToken(int first) throws IOException {
+        token.setLength(0);
+        int c = first;
+        while (c != -1 && !isWhitespace(c) && !isDelimiter(c)) {
+            token.append((char) c);
+            c = read();
+        }
+        if (c != -1 && isDelimiter(c)) {
+            pushedBack = c;
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != -1) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private void skipPast(int end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != end);
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && isWhitespace(c));
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != NONE) {
+            int c = pushedBack;
+            pushedBack = NONE;
+            return c;
+        }
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            if (read < 0) {
+                return -1;
+            }
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private static boolean isResult(CharSequence token) {
+        return contentEquals(token, "1-0") || contentEquals(token, "0-1") ||
+                contentEquals(token, "1/2-1/2") || contentEquals(token, "*");
+    }
+
+    private static boolean contentEquals(CharSequence token, String text) {
+        if (token.length() != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (token.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static boolean isDelimiter(int c) {
+        return c == '{' || c == '(' || c == ')' || c == ';' || c == '[';
+    }
+
+}
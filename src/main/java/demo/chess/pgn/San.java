@@ -0,0 +1,149 @@
+package demo.chess.pgn;
+
+import demo.chess.game.Bitboards;
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Moves;
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+/**
+ * Resolves moves in Standard Algebraic Notation (e.g. {@code Nbd7}, {@code exd6}, {@code e8=Q+},
+ * {@code O-O}) against the legal moves of a position. Instances keep a move buffer, so use one per thread.
+ */
+public final class San {
+
+    private final MoveList candidates = new MoveList();
+
+    /**
+     * The packed legal move (see {@link Moves}) that {@code san[start, end)} denotes on {@code board},
+     * or {@link Moves#NONE} if it is malformed, illegal or ambiguous. Check and annotation suffixes are ignored.
+     */
+    public int resolve(Board board, CharSequence san, int start, int end) {
+        while (end > start && isSuffix(san.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start < 2) {
+            return Moves.NONE;
+        }
+
+        MoveGenerator.generatePseudoLegalMoves(board, candidates);
+        if (san.charAt(start) == 'O' || san.charAt(start) == '0') {
+            return resolveCastling(board, san, start, end);
+        }
+
+        PieceType promotion = null;
+        char last = san.charAt(end - 1);
+        if (last >= 'A' && last <= 'Z') {
+            promotion = pieceType(last);
+            if (promotion == null || promotion == PieceType.PAWN || promotion == PieceType.KING) {
+                return Moves.NONE;
+            }
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end - start < 2) {
+            return Moves.NONE;
+        }
+
+        int to = square(san.charAt(end - 2), san.charAt(end - 1));
+        if (to < 0) {
+            return Moves.NONE;
+        }
+        end -= 2;
+
+        PieceType type = PieceType.PAWN;
+        if (start < end && san.charAt(start) >= 'A' && san.charAt(start) <= 'Z') {
+            type = pieceType(san.charAt(start++));
+            if (type == null || type == PieceType.PAWN) {
+                return Moves.NONE;
+            }
+        }
+
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = start; i < end; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = '8' - c;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return Moves.NONE;
+            }
+        }
+
+        int found = Moves.NONE;
+        for (int i = 0; i < candidates.size(); i++) {
+            int move = candidates.get(i);
+            int from = Moves.from(move);
+            Piece piece = board.pieceAt(from);
+            if (Moves.to(move) != to || piece.type() != type || Moves.promotion(move) != promotion ||
+                    (fromColumn >= 0 && Bitboards.column(from) != fromColumn) ||
+                    (fromRow >= 0 && Bitboards.row(from) != fromRow) || !isLegal(board, move)) {
+                continue;
+            }
+            if (found != Moves.NONE) {
+                return Moves.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    public int resolve(Board board, CharSequence san) {
+        return resolve(board, san, 0, san.length());
+    }
+
+    private int resolveCastling(Board board, CharSequence san, int start, int end) {
+        char zero = san.charAt(start);
+        int length = end - start;
+        boolean kingSide = length == 3;
+        if ((length != 3 && length != 5) || san.charAt(start + 1) != '-' || san.charAt(start + 2) != zero ||
+                (!kingSide && (san.charAt(start + 3) != '-' || san.charAt(start + 4) != zero))) {
+            return Moves.NONE;
+        }
+        int flags = kingSide ? Moves.KING_CASTLE : Moves.QUEEN_CASTLE;
+        for (int i = 0; i < candidates.size(); i++) {
+            int move = candidates.get(i);
+            if (Moves.flags(move) == flags && isLegal(board, move)) {
+                return move;
+            }
+        }
+        return Moves.NONE;
+    }
+
+    // Only moves that already match the text are played out, rather than every pseudo-legal move.
+    private static boolean isLegal(Board board, int move) {
+        PieceColor us = board.sideToMove();
+        board.makeMove(move);
+        boolean legal = !MoveGenerator.isInCheck(board, us);
+        board.unmakeMove(move);
+        return legal;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return Bitboards.index('8' - rank, file - 'a');
+    }
+
+    private static PieceType pieceType(char c) {
+        switch (c) {
+            case 'P': return PieceType.PAWN;
+            case 'N': return PieceType.KNIGHT;
+            case 'B': return PieceType.BISHOP;
+            case 'R': return PieceType.ROOK;
+            case 'Q': return PieceType.QUEEN;
+            case 'K': return PieceType.KING;
+            default: return null;
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package demo.chess.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the games of a file written by {@link GameRecordWriter}.
+ * <p>
+ * The file is memory-mapped in segments of 1 GB, each overlapping the next by more
+ * than the largest possible game, so every game lies inside the segment its offset
+ * falls in. Reads only use absolute offsets and are safe from several threads.
+ */
+public class GameRecordReader implements Closeable {
+
+    private static final long SEGMENT_BYTES = 1L << 30;
+    private static final int MAX_GAME_BYTES = 4 + 2 + GameRecordWriter.MAX_FEN_BYTES + 2 * GameRecordWriter.MAX_PLIES;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final MappedByteBuffer index;
+    private final long games;
+
+    private GameRecordReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < GameRecordWriter.HEADER_BYTES + GameRecordWriter.FOOTER_BYTES) {
+            throw new IOException("Not a game record file: too short");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(GameRecordWriter.HEADER_BYTES);
+        readFully(header, 0);
+        ByteBuffer footer = ByteBuffer.allocate(GameRecordWriter.FOOTER_BYTES);
+        readFully(footer, size - GameRecordWriter.FOOTER_BYTES);
+        if (header.getInt(0) != GameRecordWriter.MAGIC || footer.getInt(16) != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game record file: bad magic");
+        }
+        if (header.getShort(4) != GameRecordWriter.VERSION) {
+            throw new IOException("Unsupported game record version " + header.getShort(4));
+        }
+
+        long indexOffset = footer.getLong(0);
+        this.games = footer.getLong(8);
+        if (games * 8 > Integer.MAX_VALUE) {
+            throw new IOException("Index of " + games + " games is too large to map");
+        }
+        this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, games * 8);
+
+        int segmentCount = (int) ((indexOffset + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = i * SEGMENT_BYTES;
+            long length = Math.min(SEGMENT_BYTES + MAX_GAME_BYTES, indexOffset - start);
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+    }
+
+    public static GameRecordReader open(Path path) throws IOException {
+        return new GameRecordReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public long games() {
+        return games;
+    }
+
+    /**
+     * The game at position {@code n}, counting from 0 in the order they were appended.
+     */
+    public StoredGame game(long n) {
+        if (n < 0 || n >= games) {
+            throw new IndexOutOfBoundsException("No game " + n + " in a file of " + games);
+        }
+        long offset = index.getLong((int) (n * 8));
+        MappedByteBuffer segment = segments[(int) (offset / SEGMENT_BYTES)];
+        int at = (int) (offset % SEGMENT_BYTES);
+
+        int plies = segment.getShort(at) & 0xFFFF;
+        Outcome outcome = Outcome.of(segment.get(at + 2));
+        int flags = segment.get(at + 3);
+        at += 4;
+
+        String startFen = null;
+        if ((flags & GameRecordWriter.FLAG_START_FEN) != 0) {
+            int length = segment.getShort(at) & 0xFFFF;
+            byte[] fen = new byte[length];
+            for (int i = 0; i < length; i++) {
+                fen[i] = segment.get(at + 2 + i);
+            }
+            startFen = new String(fen, StandardCharsets.US_ASCII);
+            at += 2 + length;
+        }
+
+        short[] moves = new short[plies];
+        for (int ply = 0; ply < plies; ply++) {
+            moves[ply] = segment.getShort(at + 2 * ply);
+        }
+        return new StoredGame(startFen, outcome, moves);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of game record file");
+            }
+        }
+    }
+
+}
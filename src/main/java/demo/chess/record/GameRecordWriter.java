@@ -0,0 +1,138 @@
+package demo.chess.record;
+
+import demo.chess.game.Board;
+import demo.chess.game.DefaultGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Appends games to a record file.
+ * <p>
+ * The file starts with an 8-byte header (magic {@code CHGR}, format version).
+ * Each game follows as its ply count (16 bits), outcome (8), flags (8), the start
+ * position as a length-prefixed ASCII FEN when it is not the initial one, then
+ * one 16-bit word per move packed as in {@link demo.chess.game.Moves}. Closing
+ * the writer appends an index of game offsets and a footer holding the index
+ * offset, the game count and the magic again, which {@link GameRecordReader}
+ * uses for random access.
+ */
+public class GameRecordWriter implements Closeable {
+
+    static final int MAGIC = 0x43484752; // "CHGR"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int FOOTER_BYTES = 20;
+    static final int MAX_PLIES = 0xFFFF;
+    static final int MAX_FEN_BYTES = 0xFF;
+    static final int FLAG_START_FEN = 1;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String INITIAL_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long position;
+    private long[] offsets = new long[1024];
+    private long games;
+
+    private GameRecordWriter(FileChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        position = HEADER_BYTES;
+    }
+
+    public static GameRecordWriter create(Path path) throws IOException {
+        return new GameRecordWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Appends the moves played so far in {@code game}.
+     */
+    public void append(DefaultGame game, Outcome outcome) throws IOException {
+        int plies = game.plies();
+        int[] moves = new int[plies];
+        Board start = game.board().copy();
+        for (int ply = plies - 1; ply >= 0; ply--) {
+            moves[ply] = game.movePlayed(ply);
+            start.unmakeMove(moves[ply]);
+        }
+        String fen = start.toFen();
+        append(INITIAL_FEN.equals(fen) ? null : fen, moves, plies, outcome);
+    }
+
+    /**
+     * Appends a game given as packed moves (see {@link demo.chess.game.Moves}) from {@code startFen},
+     * or from the initial position when it is null. Moves are stored as given, without validation.
+     */
+    public void append(String startFen, int[] moves, int plies, Outcome outcome) throws IOException {
+        if (plies > MAX_PLIES) {
+            throw new IllegalArgumentException("Games are limited to " + MAX_PLIES + " plies: " + plies);
+        }
+        byte[] fen = startFen == null ? null : startFen.getBytes(StandardCharsets.US_ASCII);
+        if (fen != null && fen.length > MAX_FEN_BYTES) {
+            throw new IllegalArgumentException("Start position is too long: " + startFen);
+        }
+
+        if (games == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[(int) games++] = position;
+
+        ensureRoom(4);
+        buffer.putShort((short) plies).put((byte) outcome.ordinal()).put((byte) (fen == null ? 0 : FLAG_START_FEN));
+        position += 4;
+        if (fen != null) {
+            ensureRoom(2 + fen.length);
+            buffer.putShort((short) fen.length).put(fen);
+            position += 2 + fen.length;
+        }
+        for (int ply = 0; ply < plies; ply++) {
+            ensureRoom(2);
+            buffer.putShort((short) moves[ply]);
+        }
+        position += 2L * plies;
+    }
+
+    public long games() {
+        return games;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            for (int i = 0; i < games; i++) {
+                ensureRoom(8);
+                buffer.putLong(offsets[i]);
+            }
+            ensureRoom(FOOTER_BYTES);
+            buffer.putLong(indexOffset).putLong(games).putInt(MAGIC);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
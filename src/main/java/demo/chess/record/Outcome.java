@@ -0,0 +1,33 @@
+package demo.chess.record;
+
+/**
+ * How a stored game ended, with its PGN result marker.
+ */
+public enum Outcome {
+    UNKNOWN("*"), WHITE_WINS("1-0"), BLACK_WINS("0-1"), DRAW("1/2-1/2");
+
+    private static final Outcome[] VALUES = values();
+
+    private final String pgn;
+
+    Outcome(String pgn) {
+        this.pgn = pgn;
+    }
+
+    public String pgn() {
+        return pgn;
+    }
+
+    public static Outcome fromPgn(String result) {
+        for (Outcome outcome : VALUES) {
+            if (outcome.pgn.equals(result)) {
+                return outcome;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    static Outcome of(int ordinal) {
+        return ordinal < VALUES.length ? VALUES[ordinal] : UNKNOWN;
+    }
+}
@@ -0,0 +1,60 @@
+package demo.chess.record;
+
+import demo.chess.pgn.PgnGame;
+import demo.chess.pgn.PgnReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Converts the legal games of a PGN file to a record file, then reads games back
+ * at random, printing games per second both ways and the bytes stored per game.
+ */
+public class PgnToRecords {
+
+    private static final int RANDOM_READS = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: PgnToRecords <in.pgn> <out.chgr>");
+            System.exit(2);
+        }
+        Path pgn = Paths.get(args[0]);
+        Path records = Paths.get(args[1]);
+
+        long start = System.nanoTime();
+        PgnGame game = new PgnGame();
+        long skipped = 0;
+        try (PgnReader reader = PgnReader.open(pgn); GameRecordWriter writer = GameRecordWriter.create(records)) {
+            while (reader.next(game)) {
+                if (game.isLegal()) {
+                    writer.append(game.game(), Outcome.fromPgn(game.result()));
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        try (GameRecordReader reader = GameRecordReader.open(records)) {
+            long games = reader.games();
+            System.out.printf("wrote %,d games (%,d illegal skipped) in %,d ms: %,d games/s, %.1f bytes/game%n",
+                    games, skipped, nanos / 1_000_000, games * 1_000_000_000L / Math.max(1, nanos),
+                    (double) Files.size(records) / Math.max(1, games));
+
+            SplittableRandom random = new SplittableRandom(1);
+            long plies = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < RANDOM_READS && games > 0; i++) {
+                plies += reader.game(random.nextLong(games)).plies();
+            }
+            nanos = System.nanoTime() - start;
+            System.out.printf("read %,d random games (%,d plies) in %,d ms: %,d games/s%n", RANDOM_READS, plies,
+                    nanos / 1_000_000, RANDOM_READS * 1_000_000_000L / Math.max(1, nanos));
+        }
+    }
+
+}
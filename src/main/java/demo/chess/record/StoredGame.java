@@ -0,0 +1,75 @@
+package demo.chess.record;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+
+/**
+ * One game read back from a record file: its start position, outcome and moves packed as in {@link Moves}.
+ */
+public final class StoredGame {
+
+    private final String startFen;
+    private final Outcome outcome;
+    private final short[] moves;
+
+    StoredGame(String startFen, Outcome outcome, short[] moves) {
+        this.startFen = startFen;
+        this.outcome = outcome;
+        this.moves = moves;
+    }
+
+    /**
+     * The start position, or null for the standard initial position.
+     */
+    public String startFen() {
+        return startFen;
+    }
+
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    public int plies() {
+        return moves.length;
+    }
+
+    public int move(int ply) {
+        return moves[ply] & 0xFFFF;
+    }
+
+    /**
+     * The position after the first {@code plies} moves, played straight on a {@link Board}
+     * without validation.
+     */
+    public Board board(int plies) {
+        Board board = startFen == null ? Position.INITIAL.board() : Board.fromFen(startFen);
+        for (int ply = 0; ply < plies; ply++) {
+            board.makeMove(move(ply));
+        }
+        return board;
+    }
+
+    /**
+     * Replays the moves through {@link DefaultGame#move}, stopping at the first one it rejects.
+     */
+    public DefaultGame replay(Player white, Player black) {
+        DefaultGame game = startFen == null ? DefaultGame.newGame(white, black)
+                : DefaultGame.fromPosition(white, black, Board.fromFen(startFen));
+        for (short packed : moves) {
+            int move = packed & 0xFFFF;
+            Player player = game.board().sideToMove() == PieceColor.WHITE ? white : black;
+            PieceType promotion = Moves.isPromotion(move) ? Moves.promotion(move) : PieceType.QUEEN;
+            if (!game.move(player, Coords.of(Moves.from(move)), Coords.of(Moves.to(move)), promotion)) {
+                break;
+            }
+        }
+        return game;
+    }
+
+}
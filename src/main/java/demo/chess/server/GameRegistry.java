@@ -0,0 +1,149 @@
+package demo.chess.server;
+
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.ImmutableBoard;
+import demo.chess.game.ValidationCache;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.metrics.MoveMetrics;
+import demo.chess.player.Player;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hosts many {@link DefaultGame}s. Each game is confined to its own serial executor,
+ * an actor mailbox drained on a shared pool, so the operations on one game apply
+ * one at a time in the order they were submitted while different games run in
+ * parallel. No lock is shared between games. All games look their moves up in
+ * one {@link ValidationCache}, so positions that many games reach, such as
+ * popular openings, are validated once.
+ */
+public class GameRegistry implements AutoCloseable {
+
+    private static final int DEFAULT_CACHE_ENTRIES = 1 << 18;
+
+    private final ExecutorService executor;
+    private final ValidationCache validationCache;
+    private final MoveMetrics metrics;
+    private final Map<Long, HostedGame> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public GameRegistry(ExecutorService executor) {
+        this(executor, new ValidationCache(DEFAULT_CACHE_ENTRIES));
+    }
+
+    public GameRegistry(ExecutorService executor, ValidationCache validationCache) {
+        this(executor, validationCache, null);
+    }
+
+    /**
+     * A registry whose games record their moves, and which records live games, in
+     * {@code metrics}; null leaves metrics off.
+     */
+    public GameRegistry(ExecutorService executor, ValidationCache validationCache, MoveMetrics metrics) {
+        this.executor = executor;
+        this.validationCache = validationCache;
+        this.metrics = metrics;
+    }
+
+    /**
+     * A registry running games on a work-stealing pool in FIFO mode, which suits many short tasks.
+     */
+    public static GameRegistry withThreads(int threads) {
+        return withThreads(threads, null);
+    }
+
+    public static GameRegistry withThreads(int threads, MoveMetrics metrics) {
+        return new GameRegistry(new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true),
+                new ValidationCache(DEFAULT_CACHE_ENTRIES), metrics);
+    }
+
+    public long createGame() {
+        long id = nextId.getAndIncrement();
+        games.put(id, new HostedGame(new SerialExecutor(executor), validationCache, metrics));
+        if (metrics != null) {
+            metrics.gameStarted();
+        }
+        return id;
+    }
+
+    /**
+     * Plays a move for {@code side}; completes with whether the game accepted it.
+     */
+    public CompletableFuture<Boolean> move(long gameId, PieceColor side, Coords start, Coords end) {
+        return move(gameId, side, start, end, PieceType.QUEEN);
+    }
+
+    public CompletableFuture<Boolean> move(long gameId, PieceColor side, Coords start, Coords end, PieceType promotion) {
+        return submit(gameId, game -> game.move(side == PieceColor.WHITE ? game.whiteSidePlayer() : game.blackSidePlayer(),
+                start, end, promotion));
+    }
+
+    public CompletableFuture<ImmutableBoard> position(long gameId) {
+        return submit(gameId, game -> game.board().toImmutable());
+    }
+
+    /**
+     * Runs {@code action} on the game's executor, after every operation submitted before it.
+     * The game must not escape {@code action}.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the executor rejects the game's
+     *                                                         next drain; the game takes later operations
+     */
+    public <T> CompletableFuture<T> submit(long gameId, Function<DefaultGame, T> action) {
+        HostedGame hosted = games.get(gameId);
+        if (hosted == null) {
+            CompletableFuture<T> unknown = new CompletableFuture<>();
+            unknown.completeExceptionally(new IllegalArgumentException("No game " + gameId));
+            return unknown;
+        }
+        return CompletableFuture.supplyAsync(() -> action.apply(hosted.game), hosted.executor);
+    }
+
+    /**
+     * Removes the game; operations already submitted still run.
+     */
+    public boolean endGame(long gameId) {
+        boolean removed = games.remove(gameId) != null;
+        if (removed && metrics != null) {
+            metrics.gameEnded();
+        }
+        return removed;
+    }
+
+    public int liveGames() {
+        return games.size();
+    }
+
+    /**
+     * The cache shared by this registry's games, for its hit and miss counts.
+     */
+    public ValidationCache validationCache() {
+        return validationCache;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static final class HostedGame {
+
+        final DefaultGame game = DefaultGame.newGame(Player.newWhiteSide(), Player.newBlackSide());
+        final SerialExecutor executor;
+
+        HostedGame(SerialExecutor executor, ValidationCache validationCache, MoveMetrics metrics) {
+            this.executor = executor;
+            game.useValidationCache(validationCache);
+            game.useMetrics(metrics);
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package demo.chess.server;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.metrics.MoveMetrics;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test: plays random legal games concurrently against a {@link GameRegistry}
+ * and prints moves per second, the p50/p99/max latency of a move, from
+ * submission until the registry completes it, and the validation cache hit rate.
+ * <p>
+ * Each simulated client mirrors its game on a local board to choose moves, and
+ * sends the next move as soon as the previous one is acknowledged. Clients run
+ * on their own pool so that they do not borrow the registry's workers. With
+ * {@code metrics} as the third argument the games also record {@link MoveMetrics},
+ * whose per-phase timings are printed, to compare throughput with and without them.
+ */
+public class RegistryBench {
+
+    private static final int PLIES_PER_GAME = 80;
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        MoveMetrics metrics = args.length > 2 && args[2].equals("metrics") ? new MoveMetrics() : null;
+
+        long[] latencies = new long[games * PLIES_PER_GAME];
+        AtomicInteger samples = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(games);
+
+        long start = System.nanoTime();
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        double cacheHitRate;
+        try (GameRegistry registry = GameRegistry.withThreads(threads, metrics)) {
+            for (int i = 0; i < games; i++) {
+                new Client(registry, clients, registry.createGame(), i, latencies, samples, finished).playNext();
+            }
+            finished.await();
+            cacheHitRate = registry.validationCache().hitRate();
+        } finally {
+            clients.shutdown();
+        }
+        long nanos = System.nanoTime() - start;
+
+        int count = samples.get();
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%,d games, %d threads: %,d moves in %,d ms, %,d moves/s%n", games, threads, count,
+                nanos / 1_000_000, count * 1_000_000_000L / Math.max(1, nanos));
+        System.out.printf("move latency p50 %,d us, p99 %,d us, max %,d us%n",
+                percentile(sorted, 0.50) / 1_000, percentile(sorted, 0.99) / 1_000, sorted[count - 1] / 1_000);
+        System.out.printf("validation cache hit rate %.1f%%%n", 100 * cacheHitRate);
+        if (metrics != null) {
+            for (MoveMetrics.Phase phase : MoveMetrics.Phase.values()) {
+                System.out.printf("%s mean %.0f ns, p99 %,d ns%n", phase, metrics.phase(phase).meanNanos(),
+                        metrics.phase(phase).percentileNanos(0.99));
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+
+    private static final class Client {
+
+        private final GameRegistry registry;
+        private final Executor clients;
+        private final long gameId;
+        private final SplittableRandom random;
+        private final long[] latencies;
+        private final AtomicInteger samples;
+        private final CountDownLatch finished;
+        private final Board mirror = Position.INITIAL.board();
+        private final MoveGenerator generator = new MoveGenerator();
+        private final MoveList legal = new MoveList();
+        private int plies;
+
+        Client(GameRegistry registry, Executor clients, long gameId, long seed, long[] latencies,
+               AtomicInteger samples, CountDownLatch finished) {
+            this.registry = registry;
+            this.clients = clients;
+            this.gameId = gameId;
+            this.random = new SplittableRandom(seed);
+            this.latencies = latencies;
+            this.samples = samples;
+            this.finished = finished;
+        }
+
+        void playNext() {
+            generator.generateLegalMoves(mirror, legal);
+            if (plies == PLIES_PER_GAME || legal.isEmpty()) {
+                registry.endGame(gameId);
+                finished.countDown();
+                return;
+            }
+            int move = legal.get(random.nextInt(legal.size()));
+            long submitted = System.nanoTime();
+            PieceType promotion = Moves.isPromotion(move) ? Moves.promotion(move) : PieceType.QUEEN;
+            registry.move(gameId, mirror.sideToMove(), Coords.of(Moves.from(move)), Coords.of(Moves.to(move)), promotion)
+                    .whenCompleteAsync((accepted, failure) -> {
+                        latencies[samples.getAndIncrement()] = System.nanoTime() - submitted;
+                        if (failure != null || !accepted) {
+                            System.err.println("Game " + gameId + " rejected legal move " + Moves.toString(move));
+                            finished.countDown();
+                            return;
+                        }
+                        mirror.makeMove(move);
+                        plies++;
+                        playNext();
+                    }, clients);
+        }
+    }
+
+}
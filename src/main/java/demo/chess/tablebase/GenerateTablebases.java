@@ -0,0 +1,87 @@
+package demo.chess.tablebase;
+
+import demo.chess.game.Board;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the tables for the given materials into a directory on all cores, printing
+ * positions per second, then times probes of random positions from them.
+ */
+public class GenerateTablebases {
+
+    private static final List<String> DEFAULT_MATERIALS = Arrays.asList("KQK", "KRK", "KPK", "KBNK");
+    private static final int PROBES = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: GenerateTablebases <directory> [material...]");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args[0]);
+        List<String> materials = args.length > 1 ? Arrays.asList(args).subList(1, args.length) : DEFAULT_MATERIALS;
+        Files.createDirectories(directory);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (TablebaseGenerator generator = TablebaseGenerator.withThreads(threads)) {
+            for (String material : materials) {
+                long start = System.nanoTime();
+                long decisive = generator.generate(material, directory);
+                long nanos = System.nanoTime() - start;
+                long positions = Material.of(material).size();
+                System.out.printf("%s: %,d positions (%,d decisive) in %,d ms on %d threads, %,d positions/s%n",
+                        material, positions, decisive, nanos / 1_000_000, threads,
+                        positions * 1_000_000_000L / Math.max(1, nanos));
+            }
+        }
+
+        try (Tablebase tablebase = Tablebase.open(directory)) {
+            Board[] boards = randomPositions(1024, new SplittableRandom(1));
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < PROBES; i++) {
+                checksum += tablebase.probe(boards[i & (boards.length - 1)]);
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%,d probes in %,d ms: %.1f ns/probe (checksum %d)%n", PROBES, nanos / 1_000_000,
+                    (double) nanos / PROBES, checksum);
+        }
+    }
+
+    // King and queen, rook or pawn against king, on distinct squares; not necessarily legal positions.
+    private static Board[] randomPositions(int count, SplittableRandom random) {
+        Board[] boards = new Board[count];
+        for (int i = 0; i < count; i++) {
+            char[] squares = new char[64];
+            place(squares, 'K', random);
+            place(squares, 'k', random);
+            place(squares, "QRP".charAt(random.nextInt(3)), random);
+            StringBuilder fen = new StringBuilder();
+            for (int row = 0; row < 8; row++) {
+                for (int column = 0; column < 8; column++) {
+                    char piece = squares[row * 8 + column];
+                    fen.append(piece == '\0' ? '1' : piece);
+                }
+                fen.append(row < 7 ? "/" : random.nextBoolean() ? " w - - 0 1" : " b - - 0 1");
+            }
+            boards[i] = Board.fromFen(fen.toString());
+        }
+        return boards;
+    }
+
+    private static void place(char[] squares, char piece, SplittableRandom random) {
+        int square;
+        do {
+            // Pawns stay off the first and last rows.
+            square = piece == 'P' ? 8 + random.nextInt(48) : random.nextInt(64);
+        } while (squares[square] != '\0');
+        squares[square] = piece;
+    }
+
+}
@@ -0,0 +1,287 @@
+package demo.chess.tablebase;
+
+import demo.chess.game.Board;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A material set such as {@code KBNK}: the pieces of the side listed first, which the
+ * table calls white, then those of the other side, each starting with its king. Also
+ * maps positions with that material to and from an index into the table.
+ * <p>
+ * The index is, most significant first: side to move, white king, black king, then
+ * every other piece, 64 squares each. Positions are first reduced by symmetry so
+ * that the white king stands in the a8-a5-d5 triangle (10 squares), or, when pawns
+ * fix the board's direction, on files a to d (32 squares). Identical pieces are
+ * ordered by square.
+ */
+final class Material {
+
+    // Order in which the pieces of a side are listed.
+    private static final PieceType[] ORDER = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT, PieceType.PAWN};
+    private static final String LETTERS = "QRBNP";
+
+    private static final int[] TRIANGLE = new int[64];
+    private static final int[] HALF = new int[64];
+    private static final int[] TRIANGLE_SQUARES = new int[10];
+    private static final int[] HALF_SQUARES = new int[32];
+
+    static {
+        Arrays.fill(TRIANGLE, -1);
+        Arrays.fill(HALF, -1);
+        int triangle = 0, half = 0;
+        for (int square = 0; square < 64; square++) {
+            int row = square >>> 3, column = square & 7;
+            if (column <= row && row <= 3) {
+                TRIANGLE_SQUARES[triangle] = square;
+                TRIANGLE[square] = triangle++;
+            }
+            if (column <= 3) {
+                HALF_SQUARES[half] = square;
+                HALF[square] = half++;
+            }
+        }
+    }
+
+    private final String name;
+    // Non-king pieces in index order: their type and whether they belong to the table's white side.
+    private final PieceType[] types;
+    private final boolean[] white;
+    private final boolean pawns;
+    private final int kingSquares;
+    private final int size;
+    private final long key;
+
+    private Material(String name, PieceType[] types, boolean[] white) {
+        this.name = name;
+        this.types = types;
+        this.white = white;
+        boolean pawns = false;
+        long key = 0;
+        for (int i = 0; i < types.length; i++) {
+            pawns |= types[i] == PieceType.PAWN;
+            key += 1L << shift(types[i], white[i]);
+        }
+        this.pawns = pawns;
+        this.key = key;
+        this.kingSquares = pawns ? HALF_SQUARES.length : TRIANGLE_SQUARES.length;
+        long size = 2L * kingSquares * 64 << (6 * types.length);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Material " + name + " has too many pieces");
+        }
+        this.size = (int) size;
+    }
+
+    /**
+     * Parses a name such as {@code KRK} or {@code KBNK}.
+     *
+     * @throws IllegalArgumentException if the name is not two kings with pieces from {@code QRBNP}
+     */
+    static Material of(String name) {
+        int second = name.indexOf('K', 1);
+        if (!name.startsWith("K") || second < 0) {
+            throw new IllegalArgumentException("Material must list two kings, e.g. KRK: " + name);
+        }
+        List<PieceType> types = new ArrayList<>();
+        List<Boolean> white = new ArrayList<>();
+        for (int side = 0; side < 2; side++) {
+            String pieces = side == 0 ? name.substring(1, second) : name.substring(second + 1);
+            for (int order = 0; order < ORDER.length; order++) {
+                for (int i = 0; i < pieces.length(); i++) {
+                    int letter = LETTERS.indexOf(pieces.charAt(i));
+                    if (letter < 0) {
+                        throw new IllegalArgumentException("Unknown piece '" + pieces.charAt(i) + "' in " + name);
+                    }
+                    if (letter == order) {
+                        types.add(ORDER[order]);
+                        white.add(side == 0);
+                    }
+                }
+            }
+        }
+        boolean[] sides = new boolean[white.size()];
+        for (int i = 0; i < sides.length; i++) {
+            sides[i] = white.get(i);
+        }
+        return new Material(canonicalName(types, white), types.toArray(new PieceType[0]), sides);
+    }
+
+    private static String canonicalName(List<PieceType> types, List<Boolean> white) {
+        StringBuilder name = new StringBuilder("K");
+        for (int side = 0; side < 2; side++) {
+            if (side == 1) {
+                name.append('K');
+            }
+            for (int i = 0; i < types.size(); i++) {
+                if (white.get(i) == (side == 0)) {
+                    name.append(LETTERS.charAt(Arrays.asList(ORDER).indexOf(types.get(i))));
+                }
+            }
+        }
+        return name.toString();
+    }
+
+    String name() {
+        return name;
+    }
+
+    int pieces() {
+        return 2 + types.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long key() {
+        return key;
+    }
+
+    /**
+     * The key of the same material with the sides swapped.
+     */
+    long flippedKey() {
+        return flip(key);
+    }
+
+    /**
+     * Material of the non-king pieces on {@code board}: 4 bits per piece type and color,
+     * white's in the low half. Equal to {@link #key()} for a board holding this material.
+     */
+    static long key(Board board) {
+        long key = 0;
+        for (PieceType type : ORDER) {
+            key += (long) Long.bitCount(board.pieces(type, PieceColor.WHITE)) << shift(type, true);
+            key += (long) Long.bitCount(board.pieces(type, PieceColor.BLACK)) << shift(type, false);
+        }
+        return key;
+    }
+
+    static long flip(long key) {
+        return key >>> 20 | (key & 0xFFFFF) << 20;
+    }
+
+    private static int shift(PieceType type, boolean white) {
+        return 4 * (type.ordinal() + (white ? 0 : 5));
+    }
+
+    /**
+     * Index of the position on {@code board}, read with colors swapped and the board
+     * mirrored top to bottom when {@code flip} is set, i.e. when the table's white side
+     * is black on the board. {@code squares} is scratch space of {@link #pieces()} ints.
+     */
+    int index(Board board, boolean flip, int[] squares) {
+        PieceColor tableWhite = flip ? PieceColor.BLACK : PieceColor.WHITE;
+        int mirror = flip ? 56 : 0;
+        squares[0] = Long.numberOfTrailingZeros(board.pieces(PieceType.KING, tableWhite)) ^ mirror;
+        squares[1] = Long.numberOfTrailingZeros(board.pieces(PieceType.KING, tableWhite.opposite())) ^ mirror;
+        long taken = 0;
+        for (int i = 0; i < types.length; i++) {
+            long bits = board.pieces(types[i], white[i] ? tableWhite : tableWhite.opposite()) & ~taken;
+            int square = Long.numberOfTrailingZeros(bits);
+            taken |= 1L << square;
+            squares[2 + i] = square ^ mirror;
+        }
+        int sideToMove = board.sideToMove() == tableWhite ? 0 : 1;
+        return index(sideToMove, squares);
+    }
+
+    /**
+     * Index of the position with the white king, black king and other pieces on {@code squares},
+     * in table orientation, and {@code sideToMove} to move, 0 for white. Reduces {@code squares}
+     * by symmetry in place.
+     */
+    int index(int sideToMove, int[] squares) {
+        int transform = transform(squares[0]);
+        int king = pawns ? HALF[apply(transform, squares[0])] : TRIANGLE[apply(transform, squares[0])];
+        long index = (long) sideToMove * kingSquares + king;
+        index = index * 64 + apply(transform, squares[1]);
+        int groupStart = 2;
+        for (int i = 0; i < types.length; i++) {
+            squares[2 + i] = apply(transform, squares[2 + i]);
+            // Keep identical pieces ordered by square after the transform.
+            for (int j = 2 + i; j > groupStart && squares[j - 1] > squares[j]; j--) {
+                int swap = squares[j];
+                squares[j] = squares[j - 1];
+                squares[j - 1] = swap;
+            }
+            if (i + 1 < types.length && (types[i + 1] != types[i] || white[i + 1] != white[i])) {
+                groupStart = 3 + i;
+            }
+        }
+        for (int i = 0; i < types.length; i++) {
+            index = index * 64 + squares[2 + i];
+        }
+        return (int) index;
+    }
+
+    /**
+     * Fills {@code squares} with the white king, black king and other pieces of position
+     * {@code index}, in table orientation, and returns the side to move, 0 for white.
+     */
+    int decode(int index, int[] squares) {
+        for (int i = types.length - 1; i >= 0; i--) {
+            squares[2 + i] = index & 63;
+            index >>>= 6;
+        }
+        squares[1] = index & 63;
+        index >>>= 6;
+        squares[0] = pawns ? HALF_SQUARES[index % kingSquares] : TRIANGLE_SQUARES[index % kingSquares];
+        return index / kingSquares;
+    }
+
+    PieceType type(int piece) {
+        return types[piece];
+    }
+
+    boolean isWhite(int piece) {
+        return white[piece];
+    }
+
+    boolean hasPawns() {
+        return pawns;
+    }
+
+    // Bit 0: mirror files, bit 1: mirror rows, bit 2: swap rows and files, applied in that order.
+    private int transform(int king) {
+        int transform = 0;
+        if ((king & 7) > 3) {
+            transform |= 1;
+            king ^= 7;
+        }
+        if (pawns) {
+            return transform;
+        }
+        if (king >>> 3 > 3) {
+            transform |= 2;
+            king ^= 56;
+        }
+        if ((king & 7) > king >>> 3) {
+            transform |= 4;
+        }
+        return transform;
+    }
+
+    private static int apply(int transform, int square) {
+        if ((transform & 1) != 0) {
+            square ^= 7;
+        }
+        if ((transform & 2) != 0) {
+            square ^= 56;
+        }
+        if ((transform & 4) != 0) {
+            square = (square & 7) << 3 | square >>> 3;
+        }
+        return square;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,169 @@
+package demo.chess.tablebase;
+
+import demo.chess.game.Board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Probes the endgame tables written by {@link TablebaseGenerator} in a directory,
+ * memory-mapped and read in place.
+ * <p>
+ * Each file has a 16-byte header (magic {@code CHTB}, format version, bits per
+ * position, position count) followed by one value per position index, packed from
+ * the low bits of 64-bit words: 0 for a draw, otherwise the distance to mate in
+ * plies plus one, odd when the side to move is mated and even when it mates. A
+ * probe finds the table by the board's material, computes the index and reads one
+ * or two words, whatever the table's size. Reads only use absolute offsets and are
+ * safe from several threads.
+ */
+public class Tablebase implements Closeable {
+
+    public static final int NOT_FOUND = -1, DRAW = 0;
+
+    static final int MAGIC = 0x43485442; // "CHTB"
+    static final short VERSION = 1;
+    static final String EXTENSION = ".tb";
+    private static final int HEADER_BYTES = 16;
+
+    private final List<FileChannel> channels;
+    private final long[] keys;
+    private final Table[] tables;
+    private final int maxPieces;
+    private final ThreadLocal<int[]> squares = ThreadLocal.withInitial(() -> new int[32]);
+
+    private Tablebase(List<FileChannel> channels, List<Table> tables) {
+        this.channels = channels;
+        this.tables = tables.toArray(new Table[0]);
+        this.keys = new long[this.tables.length];
+        int maxPieces = 0;
+        for (int i = 0; i < this.tables.length; i++) {
+            keys[i] = this.tables[i].material.key();
+            maxPieces = Math.max(maxPieces, this.tables[i].material.pieces());
+        }
+        this.maxPieces = maxPieces;
+    }
+
+    /**
+     * Maps every {@code *.tb} file in {@code directory}.
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        List<FileChannel> channels = new ArrayList<>();
+        List<Table> tables = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                channels.add(channel);
+                tables.add(new Table(Material.of(name.substring(0, name.length() - EXTENSION.length())), channel));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+            throw e;
+        }
+        return new Tablebase(channels, tables);
+    }
+
+    /**
+     * The most pieces, kings included, on any table.
+     */
+    public int maxPieces() {
+        return maxPieces;
+    }
+
+    public int tables() {
+        return tables.length;
+    }
+
+    /**
+     * {@link #DRAW}, the distance to mate plus one as described above, or {@link #NOT_FOUND}
+     * if there is no table for the board's material.
+     */
+    public int probe(Board board) {
+        if (Long.bitCount(board.occupancy()) > maxPieces) {
+            return NOT_FOUND;
+        }
+        long key = Material.key(board);
+        long flipped = Material.flip(key);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key || keys[i] == flipped) {
+                Table table = tables[i];
+                return table.value(table.material.index(board, keys[i] != key, squares.get()));
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    public static boolean isWin(int result) {
+        return result > 0 && result % 2 == 0;
+    }
+
+    public static boolean isLoss(int result) {
+        return result > 0 && result % 2 == 1;
+    }
+
+    /**
+     * Plies until mate for a won or lost result.
+     */
+    public static int distanceToMate(int result) {
+        return result - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+    }
+
+    private static final class Table {
+
+        final Material material;
+        final MappedByteBuffer values;
+        final int bits;
+        final long mask;
+
+        Table(Material material, FileChannel channel) throws IOException {
+            this.material = material;
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a table of " + material + ": " + size + " bytes");
+            }
+            this.values = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (values.getInt(0) != MAGIC) {
+                throw new IOException("Not a table of " + material + ": bad magic");
+            }
+            if (values.getShort(4) != VERSION) {
+                throw new IOException("Unsupported table version " + values.getShort(4));
+            }
+            this.bits = values.get(6);
+            this.mask = (1L << bits) - 1;
+            long positions = values.getLong(8);
+            if (positions != material.size() || HEADER_BYTES + 8 * ((positions * bits + 63) / 64 + 1) != size) {
+                throw new IOException("Table of " + material + " has " + positions + " positions in " + size + " bytes");
+            }
+        }
+
+        int value(int index) {
+            long bit = (long) index * bits;
+            int word = (int) (bit >>> 6);
+            int shift = (int) (bit & 63);
+            long value = values.getLong(HEADER_BYTES + 8 * word) >>> shift;
+            if (shift + bits > 64) {
+                value |= values.getLong(HEADER_BYTES + 8 * (word + 1)) << (64 - shift);
+            }
+            return (int) (value & mask);
+        }
+    }
+
+}
@@ -0,0 +1,509 @@
+package demo.chess.tablebase;
+
+import demo.chess.game.Attacks;
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Moves;
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Generates endgame tables by retrograde analysis on a fork/join pool.
+ * <p>
+ * Pass 0 sets up every position once: it finds the mates, marks illegal positions,
+ * and notes from the captures and promotions, which lead into smaller tables generated
+ * first or into positions drawn for lack of material, the pass that can decide them.
+ * Pass n then scans for the positions resolved at distance n - 1 and generates the
+ * moves that lead to them backwards. For odd n every such predecessor is won in n
+ * plies; for even n a predecessor is lost in n plies if a forward check finds that all
+ * its moves lead to positions won in fewer. Positions whose captures or promotions can
+ * decide them at pass n are resolved alongside, lost ones after the same forward check,
+ * since no unmove reaches a position whose slowest loss leaves the table. Within a pass
+ * positions are only ever set to the pass's own result, so its chunks are split across
+ * the workers without locks. Generation stops once a pass finds nothing and no capture
+ * is pending; the positions left are draws.
+ * <p>
+ * En passant and castling are ignored, and the fifty-move rule does not apply.
+ */
+public class TablebaseGenerator implements AutoCloseable {
+
+    // In-memory values: 0 until resolved, then distance to mate in plies plus one,
+    // or SKIP for positions that are illegal, stalemate or stored under another index.
+    static final int SKIP = 0xFF;
+    private static final int MAX_DISTANCE = SKIP - 2;
+    private static final int CHUNK = 4096;
+
+    private final ForkJoinPool pool;
+    // Every table generated by this instance, smaller ones first, scanned by material key
+    // without boxing on every successor lookup.
+    private Generated[] tables = new Generated[0];
+
+    public TablebaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static TablebaseGenerator withThreads(int threads) {
+        return new TablebaseGenerator(new ForkJoinPool(threads));
+    }
+
+    /**
+     * Generates the table for {@code material} (e.g. {@code KBNK}) and those it depends on,
+     * writing each as {@code <material>.tb} into {@code directory} unless already generated.
+     *
+     * @return the number of positions of {@code material} that are won or lost
+     */
+    public long generate(String material, Path directory) throws IOException {
+        Material table = Material.of(material);
+        Generated generated = generate(table, directory);
+        long decisive = 0;
+        for (int index = 0; index < generated.values.length; index++) {
+            int value = generated.values[index] & 0xFF;
+            if (value != 0 && value != SKIP) {
+                decisive++;
+            }
+        }
+        return decisive;
+    }
+
+    private Generated generate(Material material, Path directory) throws IOException {
+        Generated existing = find(material.key());
+        if (existing != null) {
+            return existing;
+        }
+        for (int piece = 0; piece < material.pieces() - 2; piece++) {
+            String smaller = without(material, piece);
+            if (!isInsufficient(smaller)) {
+                generate(Material.of(smaller), directory);
+            }
+            if (material.type(piece) == PieceType.PAWN) {
+                for (String promoted : promotions(material, piece)) {
+                    generate(Material.of(promoted), directory);
+                }
+            }
+        }
+
+        byte[] values = new byte[material.size()];
+        Generated generated = new Generated(material, values);
+        tables = Arrays.copyOf(tables, tables.length + 1);
+        tables[tables.length - 1] = generated;
+        // Per position, as a value, the result its captures and promotions alone bring, or 0.
+        byte[] exits = new byte[values.length];
+        run(values.length, chunk -> initial(generated, exits, chunk));
+        int lastExit = 0;
+        for (byte exit : exits) {
+            lastExit = Math.max(lastExit, exit & 0xFF);
+        }
+        for (int pass = 1; ; pass++) {
+            int distance = pass;
+            long resolved = run(values.length, chunk -> resolve(generated, exits, distance, chunk));
+            if (resolved == 0 && distance + 1 >= lastExit) {
+                break;
+            }
+            if (distance == MAX_DISTANCE) {
+                throw new IllegalStateException(material + " has positions still resolving after "
+                        + MAX_DISTANCE + " plies, more than its tables can hold");
+            }
+        }
+        write(generated, directory.resolve(material.name() + Tablebase.EXTENSION));
+        return generated;
+    }
+
+    private long run(int positions, IntToLongFunction chunkTask) {
+        int chunks = (positions + CHUNK - 1) / CHUNK;
+        // A parallel stream started from a pool's task runs on that pool rather than the common one.
+        try {
+            return pool.submit(() -> IntStream.range(0, chunks).parallel().mapToLong(chunkTask).sum()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating tables", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Table generation failed", e.getCause());
+        }
+    }
+
+    // Mated positions get 1; positions that can never be probed under this index, and stalemates, SKIP.
+    private long initial(Generated table, byte[] exits, int chunk) {
+        Material material = table.material;
+        byte[] values = table.values;
+        Worker worker = new Worker(material);
+        Board board = worker.board;
+        long resolved = 0;
+        int end = Math.min(values.length, (chunk + 1) * CHUNK);
+        for (int index = chunk * CHUNK; index < end; index++) {
+            if (!worker.setUp(index) || material.index(board, false, worker.squares) != index
+                    || MoveGenerator.isInCheck(board, board.sideToMove().opposite())) {
+                values[index] = (byte) SKIP;
+                continue;
+            }
+            worker.generator.generateLegalMoves(board, worker.moves);
+            if (worker.moves.isEmpty()) {
+                values[index] = (byte) (board.isInCheck() ? 1 : SKIP);
+                resolved += board.isInCheck() ? 1 : 0;
+                continue;
+            }
+            exits[index] = (byte) exit(worker);
+        }
+        return resolved;
+    }
+
+    // What the captures and promotions of the position on the worker's board bring, as a value:
+    // the quickest win if one wins, else the slowest loss if none draws, else 0. A loss is only
+    // a bound: the quiet moves may hold out longer or draw, which the forward check settles.
+    private int exit(Worker worker) {
+        Board board = worker.board;
+        MoveList moves = worker.moves;
+        int win = 0, loss = 0;
+        boolean draws = false;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!Moves.isCapture(move) && !Moves.isPromotion(move)) {
+                continue;
+            }
+            board.makeMove(move);
+            int value = value(board, worker);
+            board.unmakeMove(move);
+            if (value == SKIP) {
+                // Stalemate.
+                value = 0;
+            }
+            if (value != 0 && value % 2 != 0) {
+                win = win == 0 ? value + 1 : Math.min(win, value + 1);
+            } else if (value == 0) {
+                draws = true;
+            } else {
+                loss = Math.max(loss, value + 1);
+            }
+        }
+        int exit = win != 0 ? win : draws ? 0 : loss;
+        if (exit >= SKIP) {
+            throw new IllegalStateException(worker.material + " has mates longer than " + MAX_DISTANCE + " plies");
+        }
+        return exit;
+    }
+
+    // Pass distance: predecessors of the positions resolved at distance - 1, then positions
+    // whose captures or promotions can decide them now.
+    private long resolve(Generated table, byte[] exits, int distance, int chunk) {
+        Material material = table.material;
+        byte[] values = table.values;
+        Worker worker = new Worker(material);
+        long resolved = 0;
+        int end = Math.min(values.length, (chunk + 1) * CHUNK);
+        for (int index = chunk * CHUNK; index < end; index++) {
+            if ((values[index] & 0xFF) == distance) {
+                resolved += predecessors(table, worker, index, distance);
+            }
+            if ((exits[index] & 0xFF) == distance + 1 && values[index] == 0
+                    && (distance % 2 == 1 || loses(worker, index, distance))) {
+                values[index] = (byte) (distance + 1);
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    // Unplays each move of the side not to move at index that neither captured nor promoted,
+    // and resolves the unresolved positions reached: won if index is lost, or lost if the
+    // forward check says so.
+    private long predecessors(Generated table, Worker worker, int index, int distance) {
+        Material material = table.material;
+        int[] squares = worker.successor;
+        int sideToMove = material.decode(index, squares);
+        boolean moverWhite = sideToMove != 0;
+        long occupied = 0;
+        for (int square : squares) {
+            occupied |= 1L << square;
+        }
+        long resolved = 0;
+        for (int piece = 0; piece < squares.length; piece++) {
+            boolean white = piece < 2 ? piece == 0 : material.isWhite(piece - 2);
+            if (white != moverWhite) {
+                continue;
+            }
+            int to = squares[piece];
+            for (long origins = origins(piece < 2 ? PieceType.KING : material.type(piece - 2), white, to, occupied);
+                 origins != 0; origins &= origins - 1) {
+                int origin = Long.numberOfTrailingZeros(origins);
+                int previous = predecessor(worker, piece, origin, 1 - sideToMove, false);
+                resolved += resolvePredecessor(table, worker, previous, distance);
+                // With the white king on the a8-d5 diagonal, a position and its mirror across
+                // the diagonal are stored apart.
+                if (!material.hasPawns()) {
+                    int mirrored = predecessor(worker, piece, origin, 1 - sideToMove, true);
+                    if (mirrored != previous) {
+                        resolved += resolvePredecessor(table, worker, mirrored, distance);
+                    }
+                }
+            }
+        }
+        return resolved;
+    }
+
+    // Index of the successor with piece moved back to origin, mirrored across the a8-h1 diagonal if asked.
+    private static int predecessor(Worker worker, int piece, int origin, int sideToMove, boolean mirror) {
+        int[] squares = worker.predecessor;
+        System.arraycopy(worker.successor, 0, squares, 0, squares.length);
+        squares[piece] = origin;
+        if (mirror) {
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] = (squares[i] & 7) << 3 | squares[i] >>> 3;
+            }
+        }
+        return worker.material.index(sideToMove, squares);
+    }
+
+    // Predecessors where the side to move could take the king are SKIP, so never resolved.
+    private long resolvePredecessor(Generated table, Worker worker, int index, int distance) {
+        byte[] values = table.values;
+        if (values[index] == 0 && (distance % 2 == 1 || loses(worker, index, distance))) {
+            values[index] = (byte) (distance + 1);
+            return 1;
+        }
+        return 0;
+    }
+
+    // Empty squares a piece now on square can have come from without capturing or promoting.
+    private static long origins(PieceType type, boolean white, int square, long occupied) {
+        switch (type) {
+            case KING:
+                return Attacks.king(square) & ~occupied;
+            case KNIGHT:
+                return Attacks.knight(square) & ~occupied;
+            case BISHOP:
+                return Attacks.bishop(square, occupied) & ~occupied;
+            case ROOK:
+                return Attacks.rook(square, occupied) & ~occupied;
+            case QUEEN:
+                return Attacks.queen(square, occupied) & ~occupied;
+            default:
+                // White pawns move towards row 0. A pawn came one row back, or two from its first row.
+                int back = white ? 8 : -8;
+                int from = square + back;
+                int row = from >>> 3;
+                if (row == 0 || row == 7 || (occupied & 1L << from) != 0) {
+                    return 0;
+                }
+                long origins = 1L << from;
+                if (row == (white ? 5 : 2) && (occupied & 1L << (from + back)) == 0) {
+                    origins |= 1L << (from + back);
+                }
+                return origins;
+        }
+    }
+
+    // Every move of position index reaches a position won in fewer than distance plies.
+    private boolean loses(Worker worker, int index, int distance) {
+        worker.setUp(index);
+        Board board = worker.board;
+        worker.generator.generateLegalMoves(board, worker.moves);
+        for (int i = 0; i < worker.moves.size(); i++) {
+            int move = worker.moves.get(i);
+            board.makeMove(move);
+            int value = value(board, worker);
+            board.unmakeMove(move);
+            // A won position has an odd distance, so an even value.
+            if (value == 0 || value == SKIP || value % 2 != 0 || value > distance) {
+                return false;
+            }
+        }
+        return !worker.moves.isEmpty();
+    }
+
+    private int value(Board board, Worker worker) {
+        long key = Material.key(board);
+        Generated table = find(key);
+        boolean flip = false;
+        if (table == null) {
+            table = find(Material.flip(key));
+            flip = true;
+        }
+        if (table == null) {
+            if (MoveGenerator.isInsufficientMaterial(board)) {
+                return 0;
+            }
+            throw new IllegalStateException("No table for " + board.toFen());
+        }
+        return table.values[table.material.index(board, flip, worker.squares)] & 0xFF;
+    }
+
+    private Generated find(long key) {
+        for (Generated table : tables) {
+            if (table.material.key() == key) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    private static String without(Material material, int removed) {
+        StringBuilder white = new StringBuilder("K"), black = new StringBuilder("K");
+        for (int piece = 0; piece < material.pieces() - 2; piece++) {
+            if (piece != removed) {
+                (material.isWhite(piece) ? white : black).append(letter(material.type(piece)));
+            }
+        }
+        return white.append(black).toString();
+    }
+
+    private static String[] promotions(Material material, int pawn) {
+        String[] promoted = new String[4];
+        PieceType[] types = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+        for (int t = 0; t < types.length; t++) {
+            StringBuilder white = new StringBuilder("K"), black = new StringBuilder("K");
+            for (int piece = 0; piece < material.pieces() - 2; piece++) {
+                PieceType type = piece == pawn ? types[t] : material.type(piece);
+                (material.isWhite(piece) ? white : black).append(letter(type));
+            }
+            promoted[t] = white.append(black).toString();
+        }
+        return promoted;
+    }
+
+    // Bare kings, or a single minor piece.
+    private static boolean isInsufficient(String material) {
+        String pieces = material.replace("K", "");
+        return pieces.isEmpty() || pieces.equals("B") || pieces.equals("N");
+    }
+
+    private static char letter(PieceType type) {
+        switch (type) {
+            case QUEEN:
+                return 'Q';
+            case ROOK:
+                return 'R';
+            case BISHOP:
+                return 'B';
+            case KNIGHT:
+                return 'N';
+            default:
+                return 'P';
+        }
+    }
+
+    private static void write(Generated table, Path path) throws IOException {
+        byte[] values = table.values;
+        int max = 0;
+        for (byte value : values) {
+            int v = value & 0xFF;
+            if (v != SKIP) {
+                max = Math.max(max, v);
+            }
+        }
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(max));
+        long[] words = new long[(int) (((long) values.length * bits + 63) / 64) + 1];
+        for (int index = 0; index < values.length; index++) {
+            long v = values[index] & 0xFF;
+            if (v == SKIP) {
+                continue;
+            }
+            long bit = (long) index * bits;
+            int word = (int) (bit >>> 6);
+            int shift = (int) (bit & 63);
+            words[word] |= v << shift;
+            if (shift + bits > 64) {
+                words[word + 1] |= v >>> (64 - shift);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            buffer.putInt(Tablebase.MAGIC).putShort(Tablebase.VERSION).put((byte) bits).put((byte) 0)
+                    .putLong(values.length);
+            for (long word : words) {
+                if (buffer.remaining() < 8) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(word);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static final class Generated {
+
+        final Material material;
+        final byte[] values;
+
+        Generated(Material material, byte[] values) {
+            this.material = material;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Per-chunk scratch: a board that positions are set up on, a move generator and buffers.
+     */
+    private static final class Worker {
+
+        final Material material;
+        final Board board = Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        final MoveGenerator generator = new MoveGenerator();
+        final MoveList moves = new MoveList();
+        // The white king, black king and other pieces of the table, and scratch squares for them.
+        final Piece[] pieces;
+        final int[] squares;
+        final int[] successor;
+        final int[] predecessor;
+
+        Worker(Material material) {
+            this.material = material;
+            this.pieces = new Piece[material.pieces()];
+            pieces[0] = Piece.of(PieceType.KING, PieceColor.WHITE);
+            pieces[1] = Piece.of(PieceType.KING, PieceColor.BLACK);
+            for (int i = 2; i < pieces.length; i++) {
+                pieces[i] = Piece.of(material.type(i - 2), material.isWhite(i - 2) ? PieceColor.WHITE : PieceColor.BLACK);
+            }
+            this.squares = new int[pieces.length];
+            this.successor = new int[pieces.length];
+            this.predecessor = new int[pieces.length];
+        }
+
+        /**
+         * Sets up position {@code index} on the board, or returns false if two pieces share
+         * a square or a pawn stands on the first or last row.
+         */
+        boolean setUp(int index) {
+            int sideToMove = material.decode(index, squares);
+            long occupied = 0;
+            for (int i = 0; i < squares.length; i++) {
+                int square = squares[i];
+                int row = square >>> 3;
+                if ((occupied & 1L << square) != 0
+                        || (pieces[i].type() == PieceType.PAWN && (row == 0 || row == 7))) {
+                    return false;
+                }
+                occupied |= 1L << square;
+            }
+            board.load(pieces, squares, sideToMove == 0 ? PieceColor.WHITE : PieceColor.BLACK);
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package demo.chess.validation;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replays game records through {@link DefaultGame#move} on a fork/join pool.
+ * Games are independent, so the stream is simply split across the pool's
+ * workers; results come back in the order of the input stream.
+ */
+public class BatchValidator implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+
+    public BatchValidator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static BatchValidator withThreads(int threads) {
+        return new BatchValidator(new ForkJoinPool(threads));
+    }
+
+    public List<ValidationResult> validate(Stream<GameRecord> games) {
+        // A parallel stream started from a pool's task runs on that pool rather than the common one.
+        try {
+            return pool.submit(() -> games.parallel()
+                    .map(BatchValidator::validate)
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating games", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Validation failed", e.getCause());
+        }
+    }
+
+    public List<ValidationResult> validate(List<GameRecord> games) {
+        return validate(games.stream());
+    }
+
+    public int threads() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    public static ValidationResult validate(GameRecord record) {
+        Player white = Player.newWhiteSide();
+        Player black = Player.newBlackSide();
+        DefaultGame game;
+        try {
+            game = record.startFen() == null ? DefaultGame.newGame(white, black)
+                    : DefaultGame.fromPosition(white, black, Board.fromFen(record.startFen()));
+        } catch (IllegalArgumentException e) {
+            return new ValidationResult(record.id(), 0, 0, null);
+        }
+
+        for (int ply = 0; ply < record.plies(); ply++) {
+            Player player = game.board().sideToMove() == PieceColor.WHITE ? white : black;
+            if (!play(game, player, record.move(ply))) {
+                return new ValidationResult(record.id(), ply, ply, game.board().toFen());
+            }
+        }
+        return new ValidationResult(record.id(), record.plies(), -1, game.board().toFen());
+    }
+
+    private static boolean play(DefaultGame game, Player player, String move) {
+        if (move.length() != 4 && move.length() != 5) {
+            return false;
+        }
+        Coords start = square(move.charAt(0), move.charAt(1));
+        Coords end = square(move.charAt(2), move.charAt(3));
+        PieceType promotion = move.length() == 5 ? promotion(move.charAt(4)) : PieceType.QUEEN;
+        return start != null && end != null && promotion != null && game.move(player, start, end, promotion);
+    }
+
+    private static Coords square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return null;
+        }
+        return Coords.of('8' - rank, file - 'a');
+    }
+
+    private static PieceType promotion(char c) {
+        switch (c) {
+            case 'n': return PieceType.KNIGHT;
+            case 'b': return PieceType.BISHOP;
+            case 'r': return PieceType.ROOK;
+            case 'q': return PieceType.QUEEN;
+            default: return null;
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package demo.chess.validation;
+
+import java.util.Arrays;
+
+/**
+ * A game to validate: an id, an optional start position in FEN and the moves in
+ * long algebraic notation as used by UCI ({@code e2e4}, {@code e7e8n}).
+ */
+public final class GameRecord {
+
+    private final long id;
+    private final String startFen;
+    private final String[] moves;
+
+    private GameRecord(long id, String startFen, String[] moves) {
+        this.id = id;
+        this.startFen = startFen;
+        this.moves = moves;
+    }
+
+    public static GameRecord of(long id, String... moves) {
+        return new GameRecord(id, null, moves.clone());
+    }
+
+    public static GameRecord fromPosition(long id, String startFen, String... moves) {
+        return new GameRecord(id, startFen, moves.clone());
+    }
+
+    public long id() {
+        return id;
+    }
+
+    /**
+     * The start position, or null for the standard initial position.
+     */
+    public String startFen() {
+        return startFen;
+    }
+
+    public int plies() {
+        return moves.length;
+    }
+
+    public String move(int ply) {
+        return moves[ply];
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord{id=" + id + ", startFen=" + startFen + ", moves=" + Arrays.toString(moves) + '}';
+    }
+
+}
@@ -0,0 +1,62 @@
+package demo.chess.validation;
+
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Moves;
+import demo.chess.game.RandomGames;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Validates a corpus of random legal games with 1, 2, 4, 8 and 16 threads and
+ * prints games per second and the speedup over a single thread.
+ */
+public class ValidationBench {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int MAX_PLIES = 120;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        List<GameRecord> corpus = randomGames(games, 42);
+        System.out.printf("%,d games, %d cores available%n", games, Runtime.getRuntime().availableProcessors());
+
+        double singleThread = 0;
+        for (int threads : THREADS) {
+            long best = Long.MAX_VALUE;
+            try (BatchValidator validator = BatchValidator.withThreads(threads)) {
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    List<ValidationResult> results = validator.validate(corpus);
+                    best = Math.min(best, System.nanoTime() - start);
+                    if (results.stream().anyMatch(result -> !result.isLegal())) {
+                        throw new IllegalStateException("Random legal game failed validation");
+                    }
+                }
+            }
+            double gamesPerSecond = games * 1e9 / best;
+            if (threads == 1) {
+                singleThread = gamesPerSecond;
+            }
+            System.out.printf("%2d threads: %,.0f games/s, speedup %.2fx%n", threads, gamesPerSecond,
+                    gamesPerSecond / singleThread);
+        }
+    }
+
+    static List<GameRecord> randomGames(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<GameRecord> games = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            DefaultGame game = RandomGames.game(MAX_PLIES, 0, random);
+            String[] moves = new String[game.plies()];
+            for (int ply = 0; ply < moves.length; ply++) {
+                moves[ply] = Moves.toString(game.movePlayed(ply));
+            }
+            games.add(GameRecord.of(id, moves));
+        }
+        return games;
+    }
+
+}
@@ -0,0 +1,55 @@
+package demo.chess.validation;
+
+/**
+ * Outcome of replaying one {@link GameRecord}.
+ */
+public final class ValidationResult {
+
+    private final long id;
+    private final int plies;
+    private final int firstIllegalPly;
+    private final String finalFen;
+
+    ValidationResult(long id, int plies, int firstIllegalPly, String finalFen) {
+        this.id = id;
+        this.plies = plies;
+        this.firstIllegalPly = firstIllegalPly;
+        this.finalFen = finalFen;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public boolean isLegal() {
+        return firstIllegalPly < 0;
+    }
+
+    /**
+     * Ply, counting from 0, of the first move that could not be played, or -1 if every move was legal.
+     */
+    public int firstIllegalPly() {
+        return firstIllegalPly;
+    }
+
+    /**
+     * Moves played before replay stopped.
+     */
+    public int plies() {
+        return plies;
+    }
+
+    /**
+     * The position after the last legal move, in FEN.
+     */
+    public String finalFen() {
+        return finalFen;
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{id=" + id + ", plies=" + plies + ", firstIllegalPly=" + firstIllegalPly +
+                ", finalFen=" + finalFen + '}';
+    }
+
+}
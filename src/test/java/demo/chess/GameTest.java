@@ -440,6 +440,152 @@ public class GameTest {
 
     }
 
+    @Test
+    public void whiteRook_Can_not_Jump_pieces() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+
+        assertThat(game.move(whiteSide, Coords.of(7, 0), Coords.of(5, 0))).isFalse();
+    }
+
+    @Test
+    public void whiteRook_Can_Move_Along_Column() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+        Board board = game.board();
+
+        assertThat(game.move(whiteSide, Coords.of(6, 0), Coords.of(4, 0))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 4), Coords.of(2, 4))).isTrue();
+
+        assertThat(game.move(whiteSide, Coords.of(7, 0), Coords.of(4, 1))).isFalse();
+        assertThat(game.move(whiteSide, Coords.of(7, 0), Coords.of(5, 0))).isTrue();
+        assertThat(board.getSquare(5, 0).getPiece()).extracting("white", "type").containsExactly(true, ROOK);
+    }
+
+    @Test
+    public void whiteQueen_Can_Move_Diagonally_Not_Like_Knight() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+
+        assertThat(game.move(whiteSide, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+
+        assertThat(game.move(whiteSide, Coords.of(7, 3), Coords.of(5, 4))).isFalse();
+        assertThat(game.move(whiteSide, Coords.of(7, 3), Coords.of(3, 7))).isTrue();
+    }
+
+    @Test
+    public void whiteKing_Can_Move_OneSquare_Only() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+
+        assertThat(game.move(whiteSide, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+
+        assertThat(game.move(whiteSide, Coords.of(7, 4), Coords.of(5, 4))).isFalse();
+        assertThat(game.move(whiteSide, Coords.of(7, 4), Coords.of(6, 4))).isTrue();
+    }
+
+    @Test
+    public void whiteKing_Can_Castle_KingSide() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+        Board board = game.board();
+
+        assertThat(game.move(whiteSide, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+        assertThat(game.move(whiteSide, Coords.of(7, 6), Coords.of(5, 5))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(0, 1), Coords.of(2, 2))).isTrue();
+
+        assertThat(game.move(whiteSide, Coords.of(7, 4), Coords.of(7, 6))).isFalse();
+
+        assertThat(game.move(whiteSide, Coords.of(7, 5), Coords.of(4, 2))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(0, 6), Coords.of(2, 5))).isTrue();
+
+        assertThat(game.move(whiteSide, Coords.of(7, 4), Coords.of(7, 6))).isTrue();
+        assertThat(board.getSquare(7, 6).getPiece()).extracting("white", "type").containsExactly(true, KING);
+        assertThat(board.getSquare(7, 5).getPiece()).extracting("white", "type").containsExactly(true, ROOK);
+        assertThat(board.getSquare(7, 7).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void whitePawn_Can_Capture_EnPassant() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+        Board board = game.board();
+
+        assertThat(game.move(whiteSide, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 0), Coords.of(2, 0))).isTrue();
+        assertThat(game.move(whiteSide, Coords.of(4, 4), Coords.of(3, 4))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 3), Coords.of(3, 3))).isTrue();
+
+        assertThat(game.move(whiteSide, Coords.of(3, 4), Coords.of(2, 3))).isTrue();
+        assertThat(board.getSquare(2, 3).getPiece()).extracting("white", "type").containsExactly(true, PAWN);
+        assertThat(board.getSquare(3, 3).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void undo_Restores_Captured_Piece_And_Turn() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+        Board board = game.board();
+
+        assertThat(game.move(whiteSide, Coords.of(6, 3), Coords.of(4, 3))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+        assertThat(game.move(whiteSide, Coords.of(4, 3), Coords.of(3, 4))).isTrue();
+
+        assertThat(game.undo()).isTrue();
+        assertThat(board.getSquare(3, 4).getPiece()).extracting("white", "type").containsExactly(false, PAWN);
+        assertThat(board.getSquare(4, 3).getPiece()).extracting("white", "type").containsExactly(true, PAWN);
+        assertThat(game.move(blackSide, Coords.of(1, 0), Coords.of(2, 0))).isFalse();
+        assertThat(game.move(whiteSide, Coords.of(4, 3), Coords.of(3, 3))).isTrue();
+    }
+
+    @Test
+    public void undo_Then_Redo_Replays_Moves() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+        Board board = game.board();
+        long initial = board.hash();
+
+        assertThat(game.move(whiteSide, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(blackSide, Coords.of(0, 6), Coords.of(2, 5))).isTrue();
+        long afterTwoMoves = board.hash();
+
+        assertThat(game.undo()).isTrue();
+        assertThat(game.undo()).isTrue();
+        assertThat(game.undo()).isFalse();
+        assertThat(board.hash()).isEqualTo(initial);
+
+        assertThat(game.redo()).isTrue();
+        assertThat(game.redo()).isTrue();
+        assertThat(game.redo()).isFalse();
+        assertThat(board.hash()).isEqualTo(afterTwoMoves);
+        assertThat(board.getSquare(2, 5).getPiece()).extracting("white", "type").containsExactly(false, KNIGHT);
+    }
+
+    @Test
+    public void move_After_Undo_Discards_Redo() {
+        Player blackSide = Player.newBlackSide();
+        Player whiteSide = Player.newWhiteSide();
+        Game game = DefaultGame.newGame(blackSide, whiteSide);
+
+        assertThat(game.move(whiteSide, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.undo()).isTrue();
+        assertThat(game.move(whiteSide, Coords.of(6, 3), Coords.of(4, 3))).isTrue();
+
+        assertThat(game.redo()).isFalse();
+        assertThat(game.board().getSquare(6, 4).isEmpty()).isFalse();
+    }
+
     public void demo(){
         Queen.newPiece(null, null);
     }
@@ -0,0 +1,97 @@
+package demo.chess.book;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import demo.chess.player.Player;
+import demo.chess.record.Outcome;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpeningBookTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    @Test
+    public void movesAreWeightedByResult() throws IOException {
+        Path file = folder.newFile("openings.book").toPath();
+        OpeningBookBuilder builder = new OpeningBookBuilder(2);
+        for (int i = 0; i < 3; i++) {
+            builder.add(game(Coords.of(6, 4), Coords.of(4, 4), Coords.of(1, 4), Coords.of(3, 4)), Outcome.WHITE_WINS);
+        }
+        builder.add(game(Coords.of(6, 3), Coords.of(4, 3), Coords.of(1, 3), Coords.of(3, 3)), Outcome.DRAW);
+        builder.add(game(Coords.of(6, 2), Coords.of(4, 2), Coords.of(1, 2), Coords.of(3, 2)), Outcome.BLACK_WINS);
+        builder.write(file);
+
+        try (OpeningBook book = OpeningBook.open(file)) {
+            // Moves of the losing side are left out: e4, d4, d5 and c5.
+            assertThat(book.entries()).isEqualTo(4);
+            int[] moves = new int[8];
+            int[] weights = new int[8];
+            int count = book.moves(Position.INITIAL.board().hash(), moves, weights);
+
+            assertThat(count).isEqualTo(2);
+            assertThat(Moves.toString(moves[0]) + "=" + weights[0] + " " + Moves.toString(moves[1]) + "=" + weights[1])
+                    .isIn("e2e4=6 d2d4=1", "d2d4=1 e2e4=6");
+        }
+    }
+
+    @Test
+    public void picksFollowTheWeights() throws IOException {
+        Path file = folder.newFile("openings.book").toPath();
+        OpeningBookBuilder builder = new OpeningBookBuilder(1);
+        for (int i = 0; i < 9; i++) {
+            builder.add(game(Coords.of(6, 4), Coords.of(4, 4)), Outcome.DRAW);
+        }
+        builder.add(game(Coords.of(6, 3), Coords.of(4, 3)), Outcome.DRAW);
+        builder.write(file);
+
+        try (OpeningBook book = OpeningBook.open(file)) {
+            SplittableRandom random = new SplittableRandom(3);
+            Board board = Position.INITIAL.board();
+            int e4 = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (Moves.toString(book.pick(board, random)).equals("e2e4")) {
+                    e4++;
+                }
+            }
+            assertThat(e4).isBetween(8_700, 9_300);
+
+            board.makeMove(book.pick(board, random));
+            assertThat(book.pick(board, random)).isEqualTo(Moves.NONE);
+        }
+    }
+
+    @Test
+    public void unknownPositionsAreNotInTheBook() throws IOException {
+        Path file = folder.newFile("empty.book").toPath();
+        new OpeningBookBuilder(10).write(file);
+
+        try (OpeningBook book = OpeningBook.open(file)) {
+            assertThat(book.entries()).isZero();
+            assertThat(book.pick(Position.INITIAL.board(), new SplittableRandom())).isEqualTo(Moves.NONE);
+        }
+    }
+
+    private DefaultGame game(Coords... squares) {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        for (int i = 0; i < squares.length; i += 2) {
+            game.move(i % 4 == 0 ? white : black, squares[i], squares[i + 1]);
+        }
+        return game;
+    }
+
+}
@@ -0,0 +1,92 @@
+package demo.chess.engine;
+
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Perft.Position;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EvaluationTest {
+
+    private final Evaluation evaluation = new Evaluation();
+
+    @Test
+    public void initialPositionIsBalanced() {
+        assertThat(evaluation.evaluate(Position.INITIAL.board())).isZero();
+    }
+
+    @Test
+    public void mirroredPositionsScoreTheSameForTheSideToMove() {
+        Board white = Board.fromFen("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+        Board black = Board.fromFen("rnbqk2r/pppp1ppp/5n2/2b1p3/4P3/2N2N2/PPPP1PPP/R1BQKB1R b KQkq - 4 4");
+
+        assertThat(evaluation.evaluate(white)).isEqualTo(evaluation.evaluate(black));
+    }
+
+    @Test
+    public void materialAndPositionTermsMatchARecomputationAfterMovesAndTakeBacks() {
+        Board board = Position.KIWIPETE.board();
+        int middlegame = board.middlegameScore();
+        int endgame = board.endgameScore();
+        int phase = board.phase();
+        SplittableRandom random = new SplittableRandom(7);
+        MoveGenerator generator = new MoveGenerator();
+        MoveList legal = new MoveList();
+        int[] played = new int[60];
+        int plies = 0;
+
+        for (; plies < played.length; plies++) {
+            generator.generateLegalMoves(board, legal);
+            if (legal.isEmpty()) {
+                break;
+            }
+            played[plies] = legal.get(random.nextInt(legal.size()));
+            board.makeMove(played[plies]);
+
+            Board recomputed = Board.fromFen(board.toFen());
+            assertThat(board.middlegameScore()).isEqualTo(recomputed.middlegameScore());
+            assertThat(board.endgameScore()).isEqualTo(recomputed.endgameScore());
+            assertThat(board.phase()).isEqualTo(recomputed.phase());
+            assertThat(board.pawnHash()).isEqualTo(recomputed.pawnHash());
+        }
+        while (plies > 0) {
+            board.unmakeMove(played[--plies]);
+        }
+
+        assertThat(board.middlegameScore()).isEqualTo(middlegame);
+        assertThat(board.endgameScore()).isEqualTo(endgame);
+        assertThat(board.phase()).isEqualTo(phase);
+    }
+
+    @Test
+    public void pawnTableHitGivesTheSameScore() {
+        Board board = Position.POSITION_3.board();
+        int first = evaluation.evaluate(board);
+        long misses = evaluation.pawnTableMisses();
+
+        assertThat(evaluation.evaluate(board)).isEqualTo(first);
+        assertThat(evaluation.pawnTableMisses()).isEqualTo(misses);
+        assertThat(evaluation.pawnTableHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void passedPawnCountsMoreInTheEndgame() {
+        int endgame = evaluation.evaluate(Board.fromFen("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1"))
+                - evaluation.evaluate(Board.fromFen("4k3/8/8/8/8/8/3P4/4K3 w - - 0 1"));
+
+        assertThat(endgame).isGreaterThan(50);
+    }
+
+    @Test
+    public void pawnShieldAndAttackedKingCount() {
+        int sheltered = evaluation.evaluate(Board.fromFen("r1bq1rk1/pppp1ppp/2n2n2/2b1p3/2B1P3/2NP1N2/PPP2PPP/R1BQ1RK1 w - - 0 1"));
+        int exposed = evaluation.evaluate(Board.fromFen("r1bq1rk1/pppp1ppp/2n2n2/2b1p3/2B1P3/2NP1N2/PPP3PP/R1BQ1RK1 w - - 0 1"));
+
+        assertThat(sheltered).isGreaterThan(exposed);
+    }
+
+}
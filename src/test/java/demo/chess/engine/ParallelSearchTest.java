@@ -0,0 +1,55 @@
+package demo.chess.engine;
+
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Perft.Position;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelSearchTest {
+
+    @Test
+    public void helpersReturnALegalMoveAndLeaveBoardUnchanged() {
+        Board board = Position.KIWIPETE.board();
+        long hash = board.hash();
+
+        SearchResult result;
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(8))) {
+            result = search.search(board, SearchLimits.ofDepth(5));
+        }
+
+        MoveList legal = new MoveList();
+        new MoveGenerator().generateLegalMoves(board, legal);
+        assertThat(legal.contains(result.bestMove())).isTrue();
+        assertThat(result.depth()).isEqualTo(5);
+        assertThat(board.hash()).isEqualTo(hash);
+    }
+
+    @Test
+    public void singleThreadMatchesPlainSearch() {
+        Board board = Position.POSITION_3.board();
+
+        SearchResult parallel;
+        try (ParallelSearch search = new ParallelSearch(1, new TranspositionTable(8))) {
+            parallel = search.search(board, SearchLimits.ofDepth(5));
+        }
+        SearchResult plain = new Search(new TranspositionTable(8)).search(board, SearchLimits.ofDepth(5));
+
+        assertThat(parallel.bestMove()).isEqualTo(plain.bestMove());
+        assertThat(parallel.score()).isEqualTo(plain.score());
+        assertThat(parallel.nodes()).isEqualTo(plain.nodes());
+    }
+
+    @Test
+    public void copyKeepsPositionAndHistory() {
+        Board board = Position.KIWIPETE.board();
+
+        Board copy = board.copy();
+
+        assertThat(copy.hash()).isEqualTo(board.hash());
+        assertThat(copy.repetitionCount()).isEqualTo(board.repetitionCount());
+    }
+
+}
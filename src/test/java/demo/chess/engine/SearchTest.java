@@ -0,0 +1,91 @@
+package demo.chess.engine;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SearchTest {
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    @Test
+    public void findsScholarsMate() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.move(white, Coords.of(6, 4), Coords.of(4, 4));
+        game.move(black, Coords.of(1, 4), Coords.of(3, 4));
+        game.move(white, Coords.of(7, 5), Coords.of(4, 2));
+        game.move(black, Coords.of(0, 1), Coords.of(2, 2));
+        game.move(white, Coords.of(7, 3), Coords.of(3, 7));
+        game.move(black, Coords.of(0, 6), Coords.of(2, 5));
+
+        SearchResult result = new Search().search(game.board(), SearchLimits.ofDepth(3));
+
+        assertThat(Moves.toString(result.bestMove())).isEqualTo("h5f7");
+        assertThat(result.isMate()).isTrue();
+        assertThat(result.score()).isEqualTo(Search.MATE - 1);
+    }
+
+    @Test
+    public void capturesHangingQueen() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        assertThat(game.move(white, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(black, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+        assertThat(game.move(white, Coords.of(7, 6), Coords.of(5, 5))).isTrue();
+        assertThat(game.move(black, Coords.of(0, 3), Coords.of(3, 6))).isTrue();
+
+        SearchResult result = new Search().search(game.board(), SearchLimits.ofDepth(4));
+
+        assertThat(Moves.toString(result.bestMove())).isEqualTo("f3g5");
+        assertThat(result.score()).isGreaterThan(500);
+    }
+
+    @Test
+    public void searchLeavesBoardUnchanged() {
+        Board board = Position.KIWIPETE.board();
+        long hash = board.hash();
+
+        new Search().search(board, SearchLimits.ofDepth(4));
+
+        assertThat(board.hash()).isEqualTo(hash);
+        assertThat(board.repetitionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void timeBudgetReturnsALegalMoveInTime() {
+        Board board = Position.POSITION_6.board();
+
+        SearchResult result = new Search().search(board, SearchLimits.ofMillis(200));
+
+        MoveList legal = new MoveList();
+        new MoveGenerator().generateLegalMoves(board, legal);
+        assertThat(legal.contains(result.bestMove())).isTrue();
+        assertThat(result.depth()).isPositive();
+        assertThat(result.elapsedNanos()).isLessThan(1_000_000_000L);
+        assertThat(result.nanosToDepth(result.depth())).isLessThanOrEqualTo(result.elapsedNanos());
+    }
+
+    @Test
+    public void stopDuringTheFirstIterationStillReturnsAMove() {
+        Board board = Position.KIWIPETE.board();
+        Search search = new Search();
+        search.stop();
+
+        // Iteration 1 searches to depth 4, well past the first check for a stop.
+        SearchResult result = search.run(board, SearchLimits.ofDepth(3), 3);
+
+        MoveList legal = new MoveList();
+        new MoveGenerator().generateLegalMoves(board, legal);
+        assertThat(legal.contains(result.bestMove())).isTrue();
+        assertThat(result.depth()).isEqualTo(1);
+    }
+
+}
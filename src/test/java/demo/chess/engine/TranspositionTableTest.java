@@ -0,0 +1,77 @@
+package demo.chess.engine;
+
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TranspositionTableTest {
+
+    private static final long KEY = 0x1234_5678_9ABC_DEF0L;
+
+    @Test
+    public void storedEntryIsReadBack() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Moves.of(52, 36, Moves.DOUBLE_PAWN_PUSH);
+
+        table.store(KEY, move, -250, 7, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(KEY);
+
+        assertThat(entry).isNotEqualTo(TranspositionTable.MISS);
+        assertThat(TranspositionTable.move(entry)).isEqualTo(move);
+        assertThat(TranspositionTable.score(entry)).isEqualTo(-250);
+        assertThat(TranspositionTable.depth(entry)).isEqualTo(7);
+        assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+    }
+
+    @Test
+    public void otherPositionInSameSlotIsAMiss() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, Moves.NONE, 0, 1, TranspositionTable.EXACT);
+
+        assertThat(table.probe(KEY ^ 1)).isEqualTo(TranspositionTable.MISS);
+    }
+
+    @Test
+    public void deeperEntryOfCurrentSearchIsKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        long collidingKey = KEY ^ 1;
+        table.newSearch();
+        table.store(KEY, Moves.NONE, 10, 8, TranspositionTable.EXACT);
+
+        table.store(collidingKey, Moves.NONE, 20, 3, TranspositionTable.EXACT);
+        assertThat(table.probe(KEY)).isNotEqualTo(TranspositionTable.MISS);
+
+        table.newSearch();
+        table.store(collidingKey, Moves.NONE, 20, 3, TranspositionTable.EXACT);
+        assertThat(table.probe(KEY)).isEqualTo(TranspositionTable.MISS);
+        assertThat(TranspositionTable.score(table.probe(collidingKey))).isEqualTo(20);
+    }
+
+    @Test
+    public void sizeIsRoundedToPowerOfTwoEntries() {
+        assertThat(new TranspositionTable(1).capacity()).isEqualTo(1 << 16);
+        assertThat(new TranspositionTable(3).capacity()).isEqualTo(1 << 17);
+    }
+
+    @Test
+    public void sharedTableSpeedsUpRepeatedSearch() {
+        TranspositionTable table = new TranspositionTable(8);
+        SearchResult first = new Search(table).search(Position.KIWIPETE.board(), SearchLimits.ofDepth(5));
+        SearchResult second = new Search(table).search(Position.KIWIPETE.board(), SearchLimits.ofDepth(5));
+
+        assertThat(second.bestMove()).isEqualTo(first.bestMove());
+        assertThat(second.nodes()).isLessThan(first.nodes());
+        assertThat(second.tableHitRate()).isGreaterThan(first.tableHitRate());
+    }
+
+    @Test
+    public void disabledTableNeverHits() {
+        TranspositionTable table = TranspositionTable.disabled();
+        table.store(KEY, Moves.NONE, 0, 1, TranspositionTable.EXACT);
+
+        assertThat(table.probe(KEY)).isEqualTo(TranspositionTable.MISS);
+    }
+
+}
@@ -0,0 +1,139 @@
+package demo.chess.explorer;
+
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Moves;
+import demo.chess.game.Perft.Position;
+import demo.chess.game.RandomGames;
+import demo.chess.player.Player;
+import demo.chess.record.GameRecordReader;
+import demo.chess.record.GameRecordWriter;
+import demo.chess.record.Outcome;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpeningExplorerTest {
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @After
+    public void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void countsGamesAndResultsPerMove() throws IOException {
+        ExplorerStats stats = new ExplorerStats(2);
+        for (int i = 0; i < 3; i++) {
+            stats.add(game(Coords.of(6, 4), Coords.of(4, 4)), Outcome.WHITE_WINS);
+        }
+        stats.add(game(Coords.of(6, 4), Coords.of(4, 4)), Outcome.DRAW);
+        stats.add(game(Coords.of(6, 3), Coords.of(4, 3)), Outcome.BLACK_WINS);
+        stats.add(game(Coords.of(6, 3), Coords.of(4, 3)), Outcome.UNKNOWN);
+        Path file = folder.newFile("openings.explorer").toPath();
+        stats.write(file);
+
+        try (OpeningExplorer explorer = OpeningExplorer.open(file)) {
+            // e2e4 and d2d4 from the initial position, then e7e5 after each.
+            assertThat(explorer.entries()).isEqualTo(4);
+            long initial = Position.INITIAL.board().hash();
+            int[] moves = new int[8];
+            int[] counts = new int[8 * OpeningExplorer.COUNTERS];
+
+            assertThat(explorer.moves(initial, moves, counts)).isEqualTo(2);
+            assertThat(explorer.games(initial)).isEqualTo(6);
+            int e4 = Moves.toString(moves[0]).equals("e2e4") ? 0 : 1;
+            assertThat(Moves.toString(moves[1 - e4])).isEqualTo("d2d4");
+            assertThat(counts).startsWith(e4 == 0 ? new int[]{4, 3, 1, 0, 2, 0, 0, 1} : new int[]{2, 0, 0, 1, 4, 3, 1, 0});
+            assertThat(explorer.moves(Position.KIWIPETE.board().hash(), moves, counts)).isZero();
+        }
+    }
+
+    @Test
+    public void parallelAggregationMatchesGameByGame() throws IOException {
+        List<DefaultGame> games = RandomGames.play(2_500, 24, 4, new SplittableRandom(3));
+        ExplorerStats sequential = new ExplorerStats(24);
+        for (int g = 0; g < games.size(); g++) {
+            sequential.add(games.get(g), OUTCOMES[g % OUTCOMES.length]);
+        }
+
+        ExplorerStats parallel = new ExplorerStats(24);
+        try (GameRecordReader reader = GameRecordReader.open(records(games, "games.chgr"))) {
+            assertThat(parallel.addAll(reader, 0, pool)).isEqualTo(games.size());
+        }
+
+        // More entries than half the first page of slots, so the table has grown.
+        assertThat(parallel.entries()).isEqualTo(sequential.entries()).isGreaterThan(1 << 15);
+        Path expected = folder.newFile("sequential.explorer").toPath();
+        Path actual = folder.newFile("parallel.explorer").toPath();
+        sequential.write(expected);
+        parallel.write(actual);
+        assertThat(Files.readAllBytes(actual)).isEqualTo(Files.readAllBytes(expected));
+
+        try (OpeningExplorer explorer = OpeningExplorer.open(actual)) {
+            assertThat(explorer.games(Position.INITIAL.board().hash())).isEqualTo(games.size());
+        }
+    }
+
+    @Test
+    public void newGamesMergeIntoAnExistingSnapshot() throws IOException {
+        List<DefaultGame> games = RandomGames.play(200, 12, 4, new SplittableRandom(5));
+        ExplorerStats all = new ExplorerStats(12);
+        ExplorerStats first = new ExplorerStats(12);
+        ExplorerStats second = new ExplorerStats(12);
+        for (int g = 0; g < games.size(); g++) {
+            Outcome outcome = OUTCOMES[g % OUTCOMES.length];
+            all.add(games.get(g), outcome);
+            (g < 120 ? first : second).add(games.get(g), outcome);
+        }
+        Path expected = folder.newFile("all.explorer").toPath();
+        all.write(expected);
+
+        Path snapshot = folder.newFile("merged.explorer").toPath();
+        first.write(snapshot);
+        try (OpeningExplorer base = OpeningExplorer.open(snapshot)) {
+            long before = base.games(Position.INITIAL.board().hash());
+            second.writeMerged(base, snapshot);
+            // The open snapshot still serves the statistics it was opened with.
+            assertThat(base.games(Position.INITIAL.board().hash())).isEqualTo(before).isEqualTo(120);
+        }
+
+        assertThat(Files.readAllBytes(snapshot)).isEqualTo(Files.readAllBytes(expected));
+    }
+
+    private DefaultGame game(Coords start, Coords end) {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.move(white, start, end);
+        game.move(black, Coords.of(1, 4), Coords.of(3, 4));
+        return game;
+    }
+
+    private Path records(List<DefaultGame> games, String name) throws IOException {
+        Path file = folder.newFile(name).toPath();
+        try (GameRecordWriter writer = GameRecordWriter.create(file)) {
+            for (int g = 0; g < games.size(); g++) {
+                writer.append(games.get(g), OUTCOMES[g % OUTCOMES.length]);
+            }
+        }
+        return file;
+    }
+
+}
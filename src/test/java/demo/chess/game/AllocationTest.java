@@ -0,0 +1,107 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece;
+import demo.chess.player.Player;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AllocationTest {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+    @Test
+    public void validatingMovesAllocatesNothing() {
+        Assume.assumeNotNull(THREADS);
+        Board board = Board.newBoard();
+
+        validateAll(board);
+        long before = allocatedBytes();
+        int valid = validateAll(board);
+        long allocated = allocatedBytes() - before;
+
+        assertThat(valid).isEqualTo(20);
+        assertThat(allocated).isZero();
+    }
+
+    @Test
+    public void playingMovesAllocatesNothing() {
+        Assume.assumeNotNull(THREADS);
+        Player white = Player.newWhiteSide();
+        Player black = Player.newBlackSide();
+
+        shuffleKnights(DefaultGame.newGame(white, black), white, black, 20);
+        DefaultGame game = DefaultGame.newGame(white, black);
+        long before = allocatedBytes();
+        shuffleKnights(game, white, black, 20);
+        long allocated = allocatedBytes() - before;
+
+        assertThat(game.plies()).isEqualTo(80);
+        assertThat(allocated).isZero();
+    }
+
+    @Test
+    public void loadingFenIntoABoardAllocatesNothing() {
+        Assume.assumeNotNull(THREADS);
+        Board board = Board.newBoard();
+        StringBuilder fen = new StringBuilder(Perft.Position.KIWIPETE.fen());
+
+        for (int i = 0; i < 20_000; i++) {
+            board.loadFen(fen);
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < 100; i++) {
+            board.loadFen(fen);
+        }
+        long allocated = allocatedBytes() - before;
+
+        assertThat(board.hash()).isEqualTo(Zobrist.hash(board));
+        assertThat(allocated).isZero();
+    }
+
+    private int validateAll(Board board) {
+        int valid = 0;
+        for (int start = 0; start < Bitboards.SQUARES; start++) {
+            Piece piece = board.pieceAt(start);
+            if (piece == null || !piece.isWhite()) {
+                continue;
+            }
+            for (int end = 0; end < Bitboards.SQUARES; end++) {
+                if (piece.isMoveValid(board, start, end)) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    private void shuffleKnights(DefaultGame game, Player white, Player black, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            game.move(white, Coords.of(7, 1), Coords.of(5, 2));
+            game.move(black, Coords.of(0, 1), Coords.of(2, 2));
+            game.move(white, Coords.of(5, 2), Coords.of(7, 1));
+            game.move(black, Coords.of(2, 2), Coords.of(0, 1));
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+}
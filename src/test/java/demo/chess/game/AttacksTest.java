@@ -0,0 +1,43 @@
+package demo.chess.game;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AttacksTest {
+
+    @Test
+    public void knightInCornerAttacksTwoSquares() {
+        assertThat(Long.bitCount(Attacks.knight(Bitboards.index(0, 0)))).isEqualTo(2);
+        assertThat(Long.bitCount(Attacks.knight(Bitboards.index(4, 4)))).isEqualTo(8);
+    }
+
+    @Test
+    public void kingAttacksStayOnTheBoard() {
+        assertThat(Long.bitCount(Attacks.king(Bitboards.index(7, 7)))).isEqualTo(3);
+        assertThat(Long.bitCount(Attacks.king(Bitboards.index(3, 3)))).isEqualTo(8);
+    }
+
+    @Test
+    public void rookOnEmptyBoardAttacksFourteenSquaresEverywhere() {
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            assertThat(Long.bitCount(Attacks.rook(square, 0L))).isEqualTo(14);
+        }
+    }
+
+    @Test
+    public void slidersStopAtFirstBlocker() {
+        int from = Bitboards.index(7, 0);
+        long blocker = Bitboards.bit(Bitboards.index(4, 0)) | Bitboards.bit(Bitboards.index(4, 3));
+
+        long rook = Attacks.rook(from, blocker);
+        assertThat(Bitboards.contains(rook, Bitboards.index(4, 0))).isTrue();
+        assertThat(Bitboards.contains(rook, Bitboards.index(3, 0))).isFalse();
+
+        long bishop = Attacks.bishop(from, blocker);
+        assertThat(Bitboards.contains(bishop, Bitboards.index(4, 3))).isTrue();
+        assertThat(Bitboards.contains(bishop, Bitboards.index(3, 4))).isFalse();
+        assertThat(Attacks.queen(from, blocker)).isEqualTo(rook | bishop);
+    }
+
+}
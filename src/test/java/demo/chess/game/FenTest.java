@@ -0,0 +1,104 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FenTest {
+
+    private static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    public void initialPositionMatchesNewBoard() {
+        Board board = Board.fromFen(INITIAL);
+
+        assertThat(board.hash()).isEqualTo(Board.newBoard().hash());
+        assertThat(Board.newBoard().toFen()).isEqualTo(INITIAL);
+    }
+
+    @Test
+    public void referencePositionsRoundTrip() {
+        for (Position position : Position.values()) {
+            Board board = position.board();
+            String fen = board.toFen();
+
+            assertThat(Board.fromFen(fen).toFen()).isEqualTo(fen);
+            assertThat(Board.fromFen(fen).hash()).isEqualTo(Zobrist.hash(board));
+        }
+    }
+
+    @Test
+    public void readsAllFields() {
+        Board board = Board.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 0 3");
+
+        assertThat(board.enPassantSquare()).isEqualTo(Bitboards.index(2, 5));
+        assertThat(board.castlingRights()).isEqualTo(Board.WHITE_KING_SIDE | Board.BLACK_QUEEN_SIDE);
+        assertThat(board.fullmoveNumber()).isEqualTo(3);
+        assertThat(board.toFen()).isEqualTo("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 0 3");
+    }
+
+    @Test
+    public void moveCountersAreOptional() {
+        Board board = Board.fromFen("8/8/8/8/8/8/8/K6k b - -");
+
+        assertThat(board.halfmoveClock()).isZero();
+        assertThat(board.fullmoveNumber()).isEqualTo(1);
+        assertThat(board.toFen()).isEqualTo("8/8/8/8/8/8/8/K6k b - - 0 1");
+    }
+
+    @Test
+    public void loadingReplacesPositionAndHistory() {
+        Board board = Board.newBoard();
+        board.makeMove(board.encodeMove(52, 36));
+
+        board.loadFen(Position.KIWIPETE.fen());
+
+        assertThat(board.toFen()).isEqualTo(Position.KIWIPETE.fen());
+        assertThat(board.hash()).isEqualTo(Zobrist.hash(board));
+        assertThat(board.repetitionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void dropsCastlingRightsWithoutKingOrRookAtHome() {
+        Board board = Board.fromFen("r3k3/8/8/8/8/8/8/4K3 w KQkq - 0 1");
+
+        assertThat(board.castlingRights()).isEqualTo(Board.BLACK_QUEEN_SIDE);
+        assertThat(board.toFen()).isEqualTo("r3k3/8/8/8/8/8/8/4K3 w q - 0 1");
+        assertThat(board.hash()).isEqualTo(Board.fromFen("r3k3/8/8/8/8/8/8/4K3 w q - 0 1").hash());
+        assertThat(Board.fromFen("4k2r/8/8/8/8/8/8/R3K2R w KQk - 0 1").castlingRights())
+                .isEqualTo(Board.WHITE_KING_SIDE | Board.WHITE_QUEEN_SIDE | Board.BLACK_KING_SIDE);
+        assertThat(Board.fromFen("4k2r/8/8/8/8/8/8/R2K3R w KQk - 0 1").castlingRights())
+                .isEqualTo(Board.BLACK_KING_SIDE);
+    }
+
+    @Test
+    public void dropsEnPassantSquaresNoDoublePushCanHaveLeft() {
+        String pushed = "4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1";
+        assertThat(Board.fromFen(pushed).enPassantSquare()).isEqualTo(Bitboards.index(5, 3));
+
+        // Wrong side to move, no pawn in front, a pawn still on the square it came from, and no pawn to take.
+        assertThat(Board.fromFen("4k3/8/8/8/3Pp3/8/8/4K3 w - d3 0 1").enPassantSquare()).isEqualTo(Board.NO_SQUARE);
+        assertThat(Board.fromFen("4k3/8/8/8/4p3/8/8/4K3 b - d3 0 1").enPassantSquare()).isEqualTo(Board.NO_SQUARE);
+        assertThat(Board.fromFen("4k3/8/8/8/3Pp3/8/3P4/4K3 b - d3 0 1").enPassantSquare()).isEqualTo(Board.NO_SQUARE);
+        assertThat(Board.fromFen("4k3/8/8/8/3P3p/8/8/4K3 b - d3 0 1").enPassantSquare()).isEqualTo(Board.NO_SQUARE);
+        assertThat(Board.fromFen("4k3/8/8/8/4p3/8/8/4K3 b - d3 0 1").hash())
+                .isEqualTo(Board.fromFen("4k3/8/8/8/4p3/8/8/4K3 b - - 0 1").hash());
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        assertThatThrownBy(() -> Board.fromFen("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Board.fromFen("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Board.fromFen("rnbqkbnr/pppppppp/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Board.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Board.fromFen("rnbqkbnr/pppppppx/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Board.fromFen(INITIAL + " extra")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
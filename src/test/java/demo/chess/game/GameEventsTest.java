@@ -0,0 +1,134 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameEventsTest {
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    @Test
+    public void scholarsMateIsPublishedWithCaptureCheckAndEnd() throws InterruptedException {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        Collector collector = new Collector(Long.MAX_VALUE, 7);
+        game.events().subscribe(collector);
+
+        playScholarsMate(game);
+
+        assertThat(collector.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collector.events).extracting(GameEvent::ply).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        GameEvent mate = collector.events.get(6);
+        assertThat(Moves.toString(mate.move())).isEqualTo("h5f7");
+        assertThat(mate.captured().type()).isEqualTo(PieceType.PAWN);
+        assertThat(mate.isCheck()).isTrue();
+        assertThat(mate.status()).isEqualTo(GameStatus.CHECKMATE);
+        assertThat(collector.events.get(5).isGameEnd()).isFalse();
+    }
+
+    @Test
+    public void undoIsPublished() throws InterruptedException {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        Collector collector = new Collector(Long.MAX_VALUE, 2);
+        game.events().subscribe(collector);
+
+        game.move(white, Coords.of(6, 4), Coords.of(4, 4));
+        game.undo();
+
+        assertThat(collector.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(collector.events.get(1).type()).isEqualTo(GameEvent.Type.UNDO);
+        assertThat(collector.events.get(1).ply()).isZero();
+    }
+
+    @Test
+    public void slowSubscriberDoesNotStallTheGame() throws InterruptedException {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.useEvents(new GameEvents(Runnable::run, 2));
+        Collector stalled = new Collector(0, 0);
+        Collector spectator = new Collector(Long.MAX_VALUE, 7);
+        game.events().subscribe(stalled);
+        game.events().subscribe(spectator);
+
+        playScholarsMate(game);
+
+        assertThat(game.plies()).isEqualTo(7);
+        assertThat(spectator.done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.events).isEmpty();
+        assertThat(game.events().droppedEvents()).isEqualTo(5);
+    }
+
+    @Test
+    public void fansOutToThousandsOfSpectators() throws InterruptedException {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        CountDownLatch allDone = new CountDownLatch(2_000);
+        for (int i = 0; i < 2_000; i++) {
+            game.events().subscribe(new Collector(Long.MAX_VALUE, 7) {
+                @Override
+                public void onNext(GameEvent event) {
+                    super.onNext(event);
+                    if (events.size() == 7) {
+                        allDone.countDown();
+                    }
+                }
+            });
+        }
+
+        playScholarsMate(game);
+
+        assertThat(allDone.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(game.events().droppedEvents()).isZero();
+    }
+
+    static void playScholarsMate(DefaultGame game) {
+        game.move(game.whiteSidePlayer(), Coords.of(6, 4), Coords.of(4, 4));
+        game.move(game.blackSidePlayer(), Coords.of(1, 4), Coords.of(3, 4));
+        game.move(game.whiteSidePlayer(), Coords.of(7, 5), Coords.of(4, 2));
+        game.move(game.blackSidePlayer(), Coords.of(0, 1), Coords.of(2, 2));
+        game.move(game.whiteSidePlayer(), Coords.of(7, 3), Coords.of(3, 7));
+        game.move(game.blackSidePlayer(), Coords.of(0, 6), Coords.of(2, 5));
+        game.move(game.whiteSidePlayer(), Coords.of(3, 7), Coords.of(1, 5));
+    }
+
+    private static class Collector implements Flow.Subscriber<GameEvent> {
+
+        final List<GameEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch done;
+        private final long demand;
+
+        Collector(long demand, int expected) {
+            this.demand = demand;
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (demand > 0) {
+                subscription.request(demand);
+            }
+        }
+
+        @Override
+        public void onNext(GameEvent event) {
+            events.add(event);
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+}
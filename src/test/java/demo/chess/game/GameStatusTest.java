@@ -0,0 +1,97 @@
+package demo.chess.game;
+
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameStatusTest {
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    @Test
+    public void pinnedPieceCannotLeaveTheKingInCheck() {
+        DefaultGame game = DefaultGame.fromPosition(white, black, Board.fromFen("4r1k1/8/8/8/8/8/4B3/4K3 w - - 0 1"));
+
+        assertThat(game.move(white, Coords.of(6, 4), Coords.of(5, 3))).isFalse();
+        assertThat(game.board().toFen()).isEqualTo("4r1k1/8/8/8/8/8/4B3/4K3 w - - 0 1");
+        assertThat(game.plies()).isZero();
+        assertThat(game.move(white, Coords.of(7, 4), Coords.of(7, 3))).isTrue();
+    }
+
+    @Test
+    public void kingCannotMoveIntoCheck() {
+        DefaultGame game = DefaultGame.fromPosition(white, black, Board.fromFen("3rk3/8/8/8/8/8/8/4K3 w - - 0 1"));
+
+        assertThat(game.move(white, Coords.of(7, 4), Coords.of(7, 3))).isFalse();
+        assertThat(game.move(white, Coords.of(7, 4), Coords.of(7, 5))).isTrue();
+    }
+
+    @Test
+    public void attackMapsFollowMovesAndTakeBacks() {
+        Board board = Perft.Position.INITIAL.board();
+        assertThat(board.attacks(PieceColor.WHITE)).isEqualTo(0x7EFFFF0000000000L);
+        assertThat(board.isInCheck()).isFalse();
+
+        int move = Moves.of(Bitboards.index(6, 4), Bitboards.index(4, 4), Moves.DOUBLE_PAWN_PUSH);
+        board.makeMove(move);
+        assertThat(board.isAttacked(Bitboards.index(2, 0), PieceColor.WHITE)).isTrue();
+        board.unmakeMove(move);
+        assertThat(board.isAttacked(Bitboards.index(2, 0), PieceColor.WHITE)).isFalse();
+    }
+
+    @Test
+    public void scholarsMateIsCheckmate() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        GameEventsTest.playScholarsMate(game);
+
+        assertThat(game.status()).isEqualTo(GameStatus.CHECKMATE);
+        assertThat(game.status().isDraw()).isFalse();
+        assertThat(game.board().isInCheck()).isTrue();
+    }
+
+    @Test
+    public void stalemate() {
+        assertThat(statusOf("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1")).isEqualTo(GameStatus.STALEMATE);
+    }
+
+    @Test
+    public void insufficientMaterial() {
+        assertThat(statusOf("8/8/4k3/8/8/4K3/8/8 w - - 0 1")).isEqualTo(GameStatus.INSUFFICIENT_MATERIAL);
+        assertThat(statusOf("8/8/4k3/8/8/4KB2/8/8 w - - 0 1")).isEqualTo(GameStatus.INSUFFICIENT_MATERIAL);
+        assertThat(statusOf("8/8/4kb2/8/8/4K1B1/8/8 w - - 0 1")).isEqualTo(GameStatus.INSUFFICIENT_MATERIAL);
+        assertThat(statusOf("8/8/4k1b1/8/8/4K1B1/8/8 w - - 0 1")).isEqualTo(GameStatus.ONGOING);
+        assertThat(statusOf("8/8/4kn2/8/8/4KB2/8/8 w - - 0 1")).isEqualTo(GameStatus.ONGOING);
+        assertThat(statusOf("8/8/4k3/8/8/4K3/4P3/8 w - - 0 1")).isEqualTo(GameStatus.ONGOING);
+    }
+
+    @Test
+    public void fiftyMoveRule() {
+        assertThat(statusOf("4k3/8/8/8/8/8/8/R3K3 w - - 99 80")).isEqualTo(GameStatus.ONGOING);
+        assertThat(statusOf("4k3/8/8/8/8/8/8/R3K3 w - - 100 80")).isEqualTo(GameStatus.FIFTY_MOVE_RULE);
+    }
+
+    @Test
+    public void threefoldRepetition() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        for (int i = 0; i < 2; i++) {
+            assertThat(game.status()).isEqualTo(GameStatus.ONGOING);
+            game.move(white, Coords.of(7, 6), Coords.of(5, 5));
+            game.move(black, Coords.of(0, 6), Coords.of(2, 5));
+            game.move(white, Coords.of(5, 5), Coords.of(7, 6));
+            game.move(black, Coords.of(2, 5), Coords.of(0, 6));
+        }
+
+        assertThat(game.status()).isEqualTo(GameStatus.THREEFOLD_REPETITION);
+        assertThat(game.status().isDraw()).isTrue();
+        assertThat(game.move(white, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.status()).isEqualTo(GameStatus.ONGOING);
+    }
+
+    private static GameStatus statusOf(String fen) {
+        return new MoveGenerator().status(Board.fromFen(fen));
+    }
+
+}
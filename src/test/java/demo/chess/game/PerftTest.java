@@ -0,0 +1,104 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PerftTest {
+
+    @Test
+    public void initialPositionMatchesReferenceCounts() {
+        assertPerft(Position.INITIAL, 4);
+    }
+
+    @Test
+    public void kiwipeteMatchesReferenceCounts() {
+        assertPerft(Position.KIWIPETE, 3);
+    }
+
+    @Test
+    public void enPassantAndPinsMatchReferenceCounts() {
+        assertPerft(Position.POSITION_3, 4);
+    }
+
+    @Test
+    public void promotionsAndCastlingMatchReferenceCounts() {
+        assertPerft(Position.POSITION_4, 3);
+        assertPerft(Position.POSITION_5, 3);
+    }
+
+    @Test
+    public void middlegameMatchesReferenceCounts() {
+        assertPerft(Position.POSITION_6, 3);
+    }
+
+    @Test
+    public void initialPositionHasTwentyLegalMoves() {
+        MoveList moves = new MoveList();
+        new MoveGenerator().generateLegalMoves(Board.newBoard(), moves);
+
+        assertThat(moves.size()).isEqualTo(20);
+        assertThat(moves.contains(Moves.of(Bitboards.index(6, 4), Bitboards.index(4, 4), Moves.DOUBLE_PAWN_PUSH))).isTrue();
+        assertThat(moves.contains(Moves.of(Bitboards.index(7, 6), Bitboards.index(5, 5), Moves.QUIET))).isTrue();
+    }
+
+    @Test
+    public void unmakeRestoresEveryReferencePosition() {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+
+        for (Position position : Position.values()) {
+            Board board = position.board();
+            long[] before = stateOf(board);
+            generator.generateLegalMoves(board, moves);
+
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                board.unmakeMove(moves.get(i));
+                assertThat(stateOf(board)).as("%s %s", position, Moves.toString(moves.get(i))).isEqualTo(before);
+            }
+        }
+    }
+
+    @Test
+    public void castlingRightWithoutItsRookIsNotPlayable() {
+        Board board = Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        board.setCastlingRights(Board.WHITE_KING_SIDE);
+        MoveList moves = new MoveList();
+        new MoveGenerator().generateLegalMoves(board, moves);
+
+        assertThat(moves.contains(Moves.of(Bitboards.index(7, 4), Bitboards.index(7, 6), Moves.KING_CASTLE))).isFalse();
+        assertThat(moves.size()).isEqualTo(5);
+
+        Player white = Player.newWhiteSide();
+        DefaultGame game = DefaultGame.fromPosition(white, Player.newBlackSide(), board);
+        assertThat(game.move(white, Coords.of(7, 4), Coords.of(7, 6))).isFalse();
+        assertThat(board.toFen()).isEqualTo("4k3/8/8/8/8/8/8/4K3 w K - 0 1");
+    }
+
+    private long[] stateOf(Board board) {
+        long[] state = new long[Bitboards.SQUARES + 6];
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            state[square] = board.isEmpty(square) ? -1 : board.pieceAt(square).index();
+        }
+        state[64] = board.hash();
+        state[65] = board.castlingRights();
+        state[66] = board.enPassantSquare();
+        state[67] = board.halfmoveClock();
+        state[68] = board.fullmoveNumber();
+        state[69] = board.sideToMove().ordinal();
+        return state;
+    }
+
+    private void assertPerft(Position position, int maxDepth) {
+        Perft perft = new Perft(maxDepth);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            assertThat(perft.count(position.board(), depth))
+                    .as("%s depth %d", position, depth)
+                    .isEqualTo(position.expected(depth));
+        }
+    }
+
+}
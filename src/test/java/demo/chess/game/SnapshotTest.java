@@ -0,0 +1,55 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotTest {
+
+    @Test
+    public void snapshotIsIndependentOfOriginal() {
+        Board board = Position.KIWIPETE.board();
+        String fen = board.toFen();
+
+        Board snapshot = board.snapshot();
+        snapshot.makeMove(snapshot.encodeMove(Bitboards.index(3, 4), Bitboards.index(1, 5)));
+
+        assertThat(board.toFen()).isEqualTo(fen);
+        assertThat(snapshot.toFen()).isNotEqualTo(fen);
+        assertThat(snapshot.hash()).isEqualTo(Zobrist.hash(snapshot));
+        assertThat(Perft.Position.KIWIPETE.expected(3))
+                .isEqualTo(new Perft(3).count(board.snapshot(), 3));
+    }
+
+    @Test
+    public void forkedGameDoesNotAffectTheMainLine() {
+        Player white = Player.newWhiteSide();
+        Player black = Player.newBlackSide();
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.move(white, Coords.of(6, 4), Coords.of(4, 4));
+
+        DefaultGame fork = DefaultGame.fromPosition(white, black, game.board().snapshot());
+        assertThat(fork.move(black, Coords.of(1, 3), Coords.of(3, 3))).isTrue();
+
+        assertThat(game.board().isEmpty(Bitboards.index(3, 3))).isTrue();
+        assertThat(game.move(black, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+    }
+
+    @Test
+    public void immutableViewKeepsPositionWhileBoardMoves() throws Exception {
+        Board board = Board.newBoard();
+        ImmutableBoard view = board.toImmutable();
+
+        board.makeMove(board.encodeMove(Bitboards.index(6, 4), Bitboards.index(4, 4)));
+        String seenByOtherThread = CompletableFuture.supplyAsync(view::toFen).get();
+
+        assertThat(seenByOtherThread).isEqualTo(Board.newBoard().toFen());
+        assertThat(view.hash()).isEqualTo(Board.newBoard().hash());
+        assertThat(view.toBoard().hash()).isEqualTo(view.hash());
+    }
+
+}
@@ -0,0 +1,105 @@
+package demo.chess.game;
+
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ValidationCacheTest {
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    @Test
+    public void storesVerdictsPerPositionAndSquares() {
+        ValidationCache cache = new ValidationCache(1024);
+        long hash = Perft.Position.INITIAL.board().hash();
+
+        assertThat(cache.get(hash, 52, 36)).isEqualTo(ValidationCache.MISS);
+        cache.put(hash, 52, 36, true);
+        cache.put(hash, 52, 28, false);
+
+        assertThat(cache.get(hash, 52, 36)).isEqualTo(ValidationCache.VALID);
+        assertThat(cache.get(hash, 52, 28)).isEqualTo(ValidationCache.INVALID);
+        assertThat(cache.get(hash ^ 1, 52, 36)).isEqualTo(ValidationCache.MISS);
+        assertThat(cache.hits()).isEqualTo(2);
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void olderEntryOfABucketIsEvicted() {
+        ValidationCache cache = new ValidationCache(2);
+        cache.put(1, 0, 1, true);
+        cache.put(2, 0, 1, true);
+        cache.put(3, 0, 1, true);
+
+        assertThat(cache.capacity()).isEqualTo(2);
+        assertThat(cache.get(1, 0, 1)).isEqualTo(ValidationCache.MISS);
+        assertThat(cache.get(2, 0, 1)).isEqualTo(ValidationCache.VALID);
+        assertThat(cache.get(3, 0, 1)).isEqualTo(ValidationCache.VALID);
+    }
+
+    @Test
+    public void gamesSharingACacheReuseVerdicts() {
+        ValidationCache cache = new ValidationCache(1024);
+        for (int i = 0; i < 2; i++) {
+            DefaultGame game = DefaultGame.newGame(white, black);
+            game.useValidationCache(cache);
+            assertThat(game.move(white, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+            assertThat(game.move(black, Coords.of(1, 4), Coords.of(2, 5))).isFalse();
+            assertThat(game.move(black, Coords.of(1, 4), Coords.of(3, 4))).isTrue();
+        }
+
+        assertThat(cache.misses()).isEqualTo(3);
+        assertThat(cache.hits()).isEqualTo(3);
+    }
+
+    @Test
+    public void selfCheckVerdictIsCached() {
+        ValidationCache cache = new ValidationCache(1024);
+        for (int i = 0; i < 2; i++) {
+            DefaultGame game = DefaultGame.fromPosition(white, black, Board.fromFen("4r1k1/8/8/8/8/8/4B3/4K3 w - - 0 1"));
+            game.useValidationCache(cache);
+            assertThat(game.move(white, Coords.of(6, 4), Coords.of(5, 3))).isFalse();
+            assertThat(game.board().toFen()).isEqualTo("4r1k1/8/8/8/8/8/4B3/4K3 w - - 0 1");
+        }
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void concurrentReadersNeverSeeAnotherKeysVerdict() throws InterruptedException {
+        ValidationCache cache = new ValidationCache(256);
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long hash = random.nextInt(4096);
+                    // The verdict is a function of the key, so any other answer is a mix-up.
+                    boolean valid = Long.bitCount(hash) % 2 == 0;
+                    int verdict = cache.get(hash, 12, 28);
+                    if (verdict == ValidationCache.MISS) {
+                        cache.put(hash, 12, 28, valid);
+                    } else if (verdict != (valid ? ValidationCache.VALID : ValidationCache.INVALID)) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(wrong.get()).isZero();
+        assertThat(cache.hits()).isPositive();
+    }
+
+}
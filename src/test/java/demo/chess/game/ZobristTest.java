@@ -0,0 +1,114 @@
+package demo.chess.game;
+
+import demo.chess.game.Perft.Position;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ZobristTest {
+
+    @Test
+    public void incrementalHashMatchesRecomputedHash() {
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        Random random = new Random(42);
+
+        for (Position position : Position.values()) {
+            Board board = position.board();
+            assertThat(board.hash()).isEqualTo(Zobrist.hash(board));
+
+            for (int ply = 0; ply < 60; ply++) {
+                generator.generateLegalMoves(board, moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+                assertThat(board.hash()).as("%s ply %d", position, ply).isEqualTo(Zobrist.hash(board));
+            }
+        }
+    }
+
+    @Test
+    public void transposedMoveOrdersReachTheSameKey() {
+        Board first = Board.newBoard();
+        first.makeMove(first.encodeMove(Bitboards.index(7, 6), Bitboards.index(5, 5)));
+        first.makeMove(first.encodeMove(Bitboards.index(0, 6), Bitboards.index(2, 5)));
+        first.makeMove(first.encodeMove(Bitboards.index(7, 1), Bitboards.index(5, 2)));
+
+        Board second = Board.newBoard();
+        second.makeMove(second.encodeMove(Bitboards.index(7, 1), Bitboards.index(5, 2)));
+        second.makeMove(second.encodeMove(Bitboards.index(0, 6), Bitboards.index(2, 5)));
+        second.makeMove(second.encodeMove(Bitboards.index(7, 6), Bitboards.index(5, 5)));
+
+        assertThat(first.hash()).isEqualTo(second.hash());
+        assertThat(first.hash()).isNotEqualTo(Board.newBoard().hash());
+    }
+
+    @Test
+    public void doublePushNoPawnCanTakeTransposes() {
+        // 1.e4 Nc6 2.Nf3 e5 and 1.Nf3 e5 2.e4 Nc6: the second line ends after a quiet move,
+        // the first after e7e5, which no white pawn can take en passant.
+        Board first = Board.newBoard();
+        first.makeMove(first.encodeMove(Bitboards.index(6, 4), Bitboards.index(4, 4)));
+        first.makeMove(first.encodeMove(Bitboards.index(0, 1), Bitboards.index(2, 2)));
+        first.makeMove(first.encodeMove(Bitboards.index(7, 6), Bitboards.index(5, 5)));
+        first.makeMove(first.encodeMove(Bitboards.index(1, 4), Bitboards.index(3, 4)));
+
+        Board second = Board.newBoard();
+        second.makeMove(second.encodeMove(Bitboards.index(7, 6), Bitboards.index(5, 5)));
+        second.makeMove(second.encodeMove(Bitboards.index(1, 4), Bitboards.index(3, 4)));
+        second.makeMove(second.encodeMove(Bitboards.index(6, 4), Bitboards.index(4, 4)));
+        second.makeMove(second.encodeMove(Bitboards.index(0, 1), Bitboards.index(2, 2)));
+
+        assertThat(first.enPassantSquare()).isEqualTo(Board.NO_SQUARE);
+        assertThat(first.hash()).isEqualTo(second.hash()).isEqualTo(Zobrist.hash(first));
+
+        // With a pawn on d5 to take, the en passant square is kept and does change the key.
+        Board capturable = Board.fromFen("4k3/4p3/8/3P4/8/8/8/4K3 b - - 0 1");
+        capturable.makeMove(capturable.encodeMove(Bitboards.index(1, 4), Bitboards.index(3, 4)));
+        assertThat(capturable.enPassantSquare()).isEqualTo(Bitboards.index(2, 4));
+        assertThat(capturable.hash()).isNotEqualTo(Board.fromFen("4k3/8/8/3Pp3/8/8/8/4K3 w - - 0 2").hash());
+    }
+
+    @Test
+    public void sideToMoveAndCastlingRightsChangeTheKey() {
+        Board board = Board.newBoard();
+        long initial = board.hash();
+
+        board.makeMove(board.encodeMove(Bitboards.index(7, 6), Bitboards.index(5, 5)));
+        board.makeMove(board.encodeMove(Bitboards.index(0, 6), Bitboards.index(2, 5)));
+        board.makeMove(board.encodeMove(Bitboards.index(5, 5), Bitboards.index(7, 6)));
+        board.makeMove(board.encodeMove(Bitboards.index(2, 5), Bitboards.index(0, 6)));
+        assertThat(board.hash()).isEqualTo(initial);
+
+        board.makeMove(board.encodeMove(Bitboards.index(7, 6), Bitboards.index(5, 5)));
+        assertThat(board.hash()).isNotEqualTo(initial);
+
+        Board withRights = Board.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        Board noRights = Board.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1");
+        assertThat(withRights.hash()).isNotEqualTo(noRights.hash());
+    }
+
+    @Test
+    public void gameCountsRepetitionsOfThePosition() {
+        Player white = Player.newWhiteSide();
+        Player black = Player.newBlackSide();
+        DefaultGame game = DefaultGame.newGame(white, black);
+        assertThat(game.repetitionCount()).isEqualTo(1);
+
+        for (int round = 1; round <= 2; round++) {
+            game.move(white, Coords.of(7, 6), Coords.of(5, 5));
+            game.move(black, Coords.of(0, 6), Coords.of(2, 5));
+            game.move(white, Coords.of(5, 5), Coords.of(7, 6));
+            game.move(black, Coords.of(2, 5), Coords.of(0, 6));
+            assertThat(game.repetitionCount()).isEqualTo(round + 1);
+        }
+
+        game.move(white, Coords.of(6, 4), Coords.of(4, 4));
+        assertThat(game.repetitionCount()).isEqualTo(1);
+    }
+
+}
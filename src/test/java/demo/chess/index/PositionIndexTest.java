@@ -0,0 +1,156 @@
+package demo.chess.index;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Perft.Position;
+import demo.chess.game.RandomGames;
+import demo.chess.player.Player;
+import demo.chess.record.GameRecordReader;
+import demo.chess.record.GameRecordWriter;
+import demo.chess.record.Outcome;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PositionIndexTest {
+
+    private static final int GAMES = 300;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @After
+    public void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void findsEveryOccurrenceAcrossSegments() throws IOException {
+        List<DefaultGame> games = RandomGames.play(GAMES, 40, new SplittableRandom(7));
+        // Two record files, the second numbered on from the first.
+        Path directory = index(games.subList(0, GAMES / 2), 0, 1 << 20);
+        index(games.subList(GAMES / 2, GAMES), GAMES / 2, 1 << 20);
+
+        try (PositionIndex index = PositionIndex.open(directory)) {
+            assertThat(index.segments()).isGreaterThan(1);
+            assertThat(index.count(Position.INITIAL.board().hash())).isEqualTo(GAMES);
+
+            SplittableRandom random = new SplittableRandom(11);
+            long[] found = new long[4 * GAMES];
+            int[] plies = new int[4 * GAMES];
+            for (int query = 0; query < 50; query++) {
+                DefaultGame game = games.get(random.nextInt(GAMES));
+                long hash = positions(game)[random.nextInt(game.plies() + 1)];
+
+                List<String> expected = occurrences(games, hash);
+                long count = index.find(hash, found, plies);
+                List<String> actual = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    actual.add(found[i] + "@" + plies[i]);
+                }
+
+                assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+            }
+        }
+    }
+
+    @Test
+    public void reportsMoreOccurrencesThanFit() throws IOException {
+        Path directory = index(RandomGames.play(20, 10, new SplittableRandom(3)), 0, 1 << 20);
+
+        try (PositionIndex index = PositionIndex.open(directory)) {
+            long[] found = new long[5];
+            int[] plies = new int[5];
+
+            assertThat(index.find(Position.INITIAL.board().hash(), found, plies)).isEqualTo(20);
+            assertThat(found).containsExactly(0, 1, 2, 3, 4);
+            assertThat(plies).containsOnly(0);
+            assertThat(index.find(Position.KIWIPETE.board().hash(), found, plies)).isZero();
+        }
+    }
+
+    @Test
+    public void finishedGamesAreAppendedAsNewSegments() throws IOException {
+        Path directory = index(RandomGames.play(10, 10, new SplittableRandom(5)), 0, 1 << 20);
+        DefaultGame finished = DefaultGame.newGame(white, black);
+        finished.move(white, Coords.of(6, 0), Coords.of(4, 0));
+        finished.move(black, Coords.of(1, 7), Coords.of(3, 7));
+        long hash = finished.board().hash();
+
+        try (PositionIndex index = PositionIndex.open(directory)) {
+            int segments = index.segments();
+            try (PositionIndexBuilder builder = new PositionIndexBuilder(directory, pool)) {
+                builder.add(1_000, finished);
+                builder.flush();
+            }
+            long before = index.count(hash);
+            index.refresh();
+
+            assertThat(index.segments()).isEqualTo(segments + 1);
+            assertThat(index.count(hash)).isEqualTo(before + 1);
+            assertThat(index.count(Position.INITIAL.board().hash())).isEqualTo(11);
+            long[] found = new long[16];
+            int[] plies = new int[16];
+            long count = index.find(hash, found, plies);
+            assertThat(found[(int) count - 1]).isEqualTo(1_000);
+            assertThat(plies[(int) count - 1]).isEqualTo(2);
+        }
+    }
+
+    private Path index(List<DefaultGame> games, long firstId, int segmentPostings) throws IOException {
+        Path records = folder.newFile("games" + firstId + ".chgr").toPath();
+        try (GameRecordWriter writer = GameRecordWriter.create(records)) {
+            for (DefaultGame game : games) {
+                writer.append(game, Outcome.UNKNOWN);
+            }
+        }
+        Path directory = folder.getRoot().toPath().resolve("index");
+        Files.createDirectories(directory);
+        try (GameRecordReader reader = GameRecordReader.open(records);
+             PositionIndexBuilder builder = new PositionIndexBuilder(directory, pool, segmentPostings)) {
+            assertThat(builder.addAll(reader, 0, firstId)).isEqualTo(games.stream().mapToLong(game -> game.plies() + 1).sum());
+        }
+        return directory;
+    }
+
+    private static long[] positions(DefaultGame game) {
+        Board board = Position.INITIAL.board();
+        long[] hashes = new long[game.plies() + 1];
+        for (int ply = 0; ply < game.plies(); ply++) {
+            hashes[ply] = board.hash();
+            board.makeMove(game.movePlayed(ply));
+        }
+        hashes[game.plies()] = board.hash();
+        return hashes;
+    }
+
+    private static List<String> occurrences(List<DefaultGame> games, long hash) {
+        List<String> occurrences = new ArrayList<>();
+        for (int g = 0; g < games.size(); g++) {
+            long[] hashes = positions(games.get(g));
+            for (int ply = 0; ply < hashes.length; ply++) {
+                if (hashes[ply] == hash) {
+                    occurrences.add(g + "@" + ply);
+                }
+            }
+        }
+        return occurrences;
+    }
+
+}
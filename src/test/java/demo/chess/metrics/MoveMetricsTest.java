@@ -0,0 +1,165 @@
+package demo.chess.metrics;
+
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.ValidationCache;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoveMetricsTest {
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+    private final MoveMetrics metrics = new MoveMetrics();
+
+    @Test
+    public void countsMovesPerPieceTypeAndVerdict() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.useMetrics(metrics);
+
+        assertThat(game.move(white, Coords.of(6, 4), Coords.of(4, 4))).isTrue();
+        assertThat(game.move(black, Coords.of(0, 1), Coords.of(2, 2))).isTrue();
+        // The rook is blocked by its own pawn.
+        assertThat(game.move(white, Coords.of(7, 0), Coords.of(5, 0))).isFalse();
+        assertThat(game.move(white, Coords.of(7, 5), Coords.of(4, 2))).isTrue();
+
+        assertThat(metrics.moves(PieceType.PAWN, true)).isEqualTo(1);
+        assertThat(metrics.moves(PieceType.KNIGHT, true)).isEqualTo(1);
+        assertThat(metrics.moves(PieceType.BISHOP, true)).isEqualTo(1);
+        assertThat(metrics.moves(PieceType.ROOK, false)).isEqualTo(1);
+        assertThat(metrics.moves(true)).isEqualTo(3);
+        assertThat(metrics.moves(false)).isEqualTo(1);
+        assertThat(metrics.validation(PieceType.ROOK, false).count()).isEqualTo(1);
+        assertThat(metrics.validation(PieceType.PAWN, true).count()).isEqualTo(1);
+        assertThat(metrics.phase(MoveMetrics.Phase.LOOKUP).count()).isEqualTo(4);
+        assertThat(metrics.phase(MoveMetrics.Phase.MAKE_MOVE).count()).isEqualTo(3);
+        assertThat(metrics.phase(MoveMetrics.Phase.HISTORY).count()).isEqualTo(3);
+    }
+
+    @Test
+    public void rejectionsBeforeValidationAreCountedByPiece() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.useMetrics(metrics);
+
+        // Out of turn, the opponent's piece, a king as promotion piece, and an empty square.
+        assertThat(game.move(black, Coords.of(1, 4), Coords.of(3, 4))).isFalse();
+        assertThat(game.move(white, Coords.of(0, 1), Coords.of(2, 2))).isFalse();
+        assertThat(game.move(white, Coords.of(6, 4), Coords.of(4, 4), PieceType.KING)).isFalse();
+        assertThat(game.move(white, Coords.of(4, 4), Coords.of(3, 4))).isFalse();
+
+        assertThat(metrics.moves(PieceType.PAWN, false)).isEqualTo(2);
+        assertThat(metrics.moves(PieceType.KNIGHT, false)).isEqualTo(1);
+        assertThat(metrics.moves(false)).isEqualTo(3);
+        assertThat(metrics.phase(MoveMetrics.Phase.LOOKUP).count()).isZero();
+    }
+
+    @Test
+    public void cachedVerdictsSkipValidationTiming() {
+        ValidationCache cache = new ValidationCache(1024);
+        for (int i = 0; i < 2; i++) {
+            DefaultGame game = DefaultGame.newGame(white, black);
+            game.useValidationCache(cache);
+            game.useMetrics(metrics);
+            game.move(white, Coords.of(6, 4), Coords.of(4, 4));
+        }
+
+        assertThat(metrics.moves(PieceType.PAWN, true)).isEqualTo(2);
+        assertThat(metrics.validation(PieceType.PAWN, true).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void gamesWithoutMetricsRecordNothing() {
+        DefaultGame game = DefaultGame.newGame(white, black);
+        game.move(white, Coords.of(6, 4), Coords.of(4, 4));
+        game.useMetrics(metrics);
+        game.useMetrics(null);
+        game.move(black, Coords.of(1, 4), Coords.of(3, 4));
+
+        assertThat(metrics.snapshot().get("moves.accepted")).isZero();
+    }
+
+    @Test
+    public void histogramPercentilesAreBucketUpperBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5_000);
+        histogram.record(1_000_000);
+
+        assertThat(histogram.count()).isEqualTo(100);
+        assertThat(histogram.percentileNanos(0.5)).isEqualTo(127);
+        assertThat(histogram.percentileNanos(0.99)).isEqualTo(8191);
+        assertThat(histogram.percentileNanos(1)).isEqualTo((1 << 20) - 1);
+        assertThat(histogram.meanNanos()).isEqualTo((98 * 100 + 5_000 + 1_000_000) / 100.0);
+        assertThat(new LatencyHistogram().percentileNanos(0.99)).isZero();
+    }
+
+    @Test
+    public void snapshotNamesEveryFigure() {
+        metrics.gameStarted();
+        metrics.gameStarted();
+        metrics.gameEnded();
+        metrics.moved(PieceType.QUEEN, false);
+
+        Map<String, Long> snapshot = metrics.snapshot();
+
+        assertThat(snapshot).containsEntry("games.live", 1L)
+                .containsEntry("moves.rejected.queen", 1L)
+                .containsEntry("moves.accepted.queen", 0L)
+                .containsKeys("validation.valid.knight.p99_nanos", "phase.make_move.mean_nanos", "moves.per_second");
+    }
+
+    @Test
+    public void exportsSnapshotsOnSchedule() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        List<Map<String, Long>> exported = new ArrayList<>();
+        try {
+            metrics.moved(PieceType.KING, true);
+            metrics.exportEvery(scheduler, 10, TimeUnit.MILLISECONDS, (timestamp, figures) -> {
+                synchronized (exported) {
+                    exported.add(figures);
+                    exported.notifyAll();
+                }
+            });
+            synchronized (exported) {
+                while (exported.size() < 2) {
+                    exported.wait(1000);
+                }
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertThat(exported.get(0)).containsEntry("moves.accepted.king", 1L);
+    }
+
+    @Test
+    public void exposesFiguresThroughJmx() throws Exception {
+        metrics.moved(PieceType.PAWN, true);
+        metrics.gameStarted();
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertThat(server.getAttribute(name, "MovesAccepted")).isEqualTo(1L);
+            assertThat(server.getAttribute(name, "LiveGames")).isEqualTo(1L);
+            assertThat(server.getAttribute(name, "AcceptedByPieceType")).isNotNull();
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package demo.chess.pgn;
+
+import demo.chess.game.Board;
+import demo.chess.game.Moves;
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PgnReaderTest {
+
+    private static final String OPERA_GAME = "[Event \"Paris\"]\n" +
+            "[White \"Paul Morphy\"]\n" +
+            "[Black \"Duke Karl / Count Isouard\"]\n" +
+            "[Result \"1-0\"]\n\n" +
+            "1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3 5. Qxf3 dxe5\n" +
+            "6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 b5?! (9... Qb4+ 10. Qxb4 (10. Kd1) 10... Bxb4) 10. Nxb5 cxb5\n" +
+            "11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 $1 Rxd7 14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0\n\n";
+
+    @Test
+    public void replaysGameSkippingCommentsAndVariations() throws IOException {
+        PgnGame game = new PgnGame();
+        try (PgnReader reader = reader(OPERA_GAME)) {
+            assertThat(reader.next(game)).isTrue();
+
+            assertThat(game.tag("White")).isEqualTo("Paul Morphy");
+            assertThat(game.isLegal()).isTrue();
+            assertThat(game.plies()).isEqualTo(33);
+            assertThat(game.result()).isEqualTo("1-0");
+            assertThat(Moves.toString(game.game().movePlayed(32))).isEqualTo("d1d8");
+            assertThat(reader.next(game)).isFalse();
+        }
+    }
+
+    @Test
+    public void startsFromFenTagAndUnderpromotes() throws IOException {
+        PgnGame game = new PgnGame();
+        try (PgnReader reader = reader("[FEN \"8/P7/8/8/8/8/8/k6K w - - 0 1\"]\n1. a8=N Kb2 *\n")) {
+            reader.next(game);
+        }
+
+        Board board = game.game().board();
+        assertThat(game.isLegal()).isTrue();
+        assertThat(board.pieceAt(0)).isEqualTo(Piece.of(PieceType.KNIGHT, PieceColor.WHITE));
+        assertThat(game.result()).isEqualTo(PgnGame.UNKNOWN_RESULT);
+    }
+
+    @Test
+    public void reportsFirstIllegalMoveAndKeepsReading() throws IOException {
+        PgnGame game = new PgnGame();
+        try (PgnReader reader = reader("1. e4 e5 2. Ke3 Nc6 0-1\n1.e4 Nf6 2.e5 d5 3.exd6 exd6 1/2-1/2")) {
+            reader.next(game);
+            assertThat(game.isLegal()).isFalse();
+            assertThat(game.firstIllegalPly()).isEqualTo(2);
+            assertThat(game.firstIllegalMove()).isEqualTo("Ke3");
+            assertThat(game.plies()).isEqualTo(2);
+
+            reader.next(game);
+            assertThat(game.isLegal()).isTrue();
+            assertThat(game.plies()).isEqualTo(6);
+            assertThat(Moves.flags(game.game().movePlayed(4))).isEqualTo(Moves.EN_PASSANT);
+        }
+    }
+
+    @Test
+    public void readsAcrossBufferBoundaries() throws IOException {
+        StringBuilder pgn = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            pgn.append(OPERA_GAME);
+        }
+
+        PgnGame game = new PgnGame();
+        int legal = 0;
+        try (PgnReader reader = reader(pgn.toString())) {
+            while (reader.next(game)) {
+                if (game.isLegal() && game.plies() == 33) {
+                    legal++;
+                }
+            }
+            assertThat(reader.gamesRead()).isEqualTo(1_000);
+        }
+        assertThat(legal).isEqualTo(1_000);
+    }
+
+    @Test
+    public void sanNeedsDisambiguationWhenTwoPiecesCanMove() {
+        Board board = Board.fromFen("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        San san = new San();
+
+        assertThat(san.resolve(board, "Rd1")).isEqualTo(Moves.NONE);
+        assertThat(Moves.toString(san.resolve(board, "Rad1"))).isEqualTo("a1d1");
+        assertThat(Moves.toString(san.resolve(board, "Rhf1+"))).isEqualTo("h1f1");
+    }
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))));
+    }
+
+}
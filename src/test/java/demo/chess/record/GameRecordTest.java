@@ -0,0 +1,77 @@
+package demo.chess.record;
+
+import demo.chess.game.Board;
+import demo.chess.game.Coords;
+import demo.chess.game.DefaultGame;
+import demo.chess.game.Moves;
+import demo.chess.game.piece.Piece.PieceType;
+import demo.chess.player.Player;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameRecordTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Player white = Player.newWhiteSide();
+    private final Player black = Player.newBlackSide();
+
+    @Test
+    public void gamesReadBackByIndex() throws IOException {
+        Path file = folder.newFile("games.chgr").toPath();
+        DefaultGame opening = DefaultGame.newGame(white, black);
+        opening.move(white, Coords.of(6, 4), Coords.of(4, 4));
+        opening.move(black, Coords.of(1, 4), Coords.of(3, 4));
+        opening.move(white, Coords.of(7, 6), Coords.of(5, 5));
+        DefaultGame promotion = DefaultGame.fromPosition(white, black, Board.fromFen("8/P7/8/8/8/8/8/k6K w - - 0 1"));
+        promotion.move(white, Coords.of(1, 0), Coords.of(0, 0), PieceType.KNIGHT);
+
+        try (GameRecordWriter writer = GameRecordWriter.create(file)) {
+            for (int i = 0; i < 1_000; i++) {
+                writer.append(i % 2 == 0 ? opening : promotion, i % 2 == 0 ? Outcome.DRAW : Outcome.WHITE_WINS);
+            }
+        }
+
+        try (GameRecordReader reader = GameRecordReader.open(file)) {
+            assertThat(reader.games()).isEqualTo(1_000);
+
+            StoredGame first = reader.game(998);
+            assertThat(first.startFen()).isNull();
+            assertThat(first.outcome()).isEqualTo(Outcome.DRAW);
+            assertThat(first.plies()).isEqualTo(3);
+            assertThat(Moves.toString(first.move(2))).isEqualTo("g1f3");
+            assertThat(first.replay(white, black).board().hash()).isEqualTo(opening.board().hash());
+            assertThat(first.board(3).hash()).isEqualTo(opening.board().hash());
+            assertThat(first.board(0).hash()).isEqualTo(DefaultGame.newGame(white, black).board().hash());
+
+            StoredGame second = reader.game(501);
+            assertThat(second.startFen()).isEqualTo("8/P7/8/8/8/8/8/k6K w - - 0 1");
+            assertThat(second.outcome()).isEqualTo(Outcome.WHITE_WINS);
+            assertThat(Moves.toString(second.move(0))).isEqualTo("a7a8n");
+            assertThat(second.replay(white, black).board().hash()).isEqualTo(promotion.board().hash());
+            assertThat(second.board(1).hash()).isEqualTo(promotion.board().hash());
+        }
+    }
+
+    @Test
+    public void movesTakeTwoBytesEach() throws IOException {
+        Path file = folder.newFile("size.chgr").toPath();
+        int[] moves = new int[100];
+
+        try (GameRecordWriter writer = GameRecordWriter.create(file)) {
+            writer.append(null, moves, moves.length, Outcome.UNKNOWN);
+        }
+
+        long expected = GameRecordWriter.HEADER_BYTES + 4 + 2 * moves.length + 8 + GameRecordWriter.FOOTER_BYTES;
+        assertThat(Files.size(file)).isEqualTo(expected);
+    }
+
+}
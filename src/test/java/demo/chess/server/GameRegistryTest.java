@@ -0,0 +1,107 @@
+package demo.chess.server;
+
+import demo.chess.game.Coords;
+import demo.chess.game.piece.Piece.PieceColor;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class GameRegistryTest {
+
+    private final GameRegistry registry = GameRegistry.withThreads(4);
+
+    @After
+    public void closeRegistry() {
+        registry.close();
+    }
+
+    @Test
+    public void movesOfOneGameApplyInSubmissionOrder() throws Exception {
+        List<CompletableFuture<Boolean>> moves = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long id = registry.createGame();
+            ids.add(id);
+            // Knights out and back: every move is only legal if the previous one was applied.
+            for (int round = 0; round < 5; round++) {
+                moves.add(registry.move(id, PieceColor.WHITE, Coords.of(7, 1), Coords.of(5, 2)));
+                moves.add(registry.move(id, PieceColor.BLACK, Coords.of(0, 1), Coords.of(2, 2)));
+                moves.add(registry.move(id, PieceColor.WHITE, Coords.of(5, 2), Coords.of(7, 1)));
+                moves.add(registry.move(id, PieceColor.BLACK, Coords.of(2, 2), Coords.of(0, 1)));
+            }
+        }
+
+        for (CompletableFuture<Boolean> move : moves) {
+            assertThat(move.get()).isTrue();
+        }
+        for (long id : ids) {
+            assertThat(registry.submit(id, game -> game.plies()).get()).isEqualTo(20);
+        }
+        // Every game plays the same four moves, so nearly all are found in the shared cache.
+        assertThat(registry.validationCache().hitRate()).isGreaterThan(0.9);
+    }
+
+    @Test
+    public void moveOutOfTurnIsRejected() throws Exception {
+        long id = registry.createGame();
+
+        assertThat(registry.move(id, PieceColor.BLACK, Coords.of(1, 4), Coords.of(3, 4)).get()).isFalse();
+        assertThat(registry.move(id, PieceColor.WHITE, Coords.of(6, 4), Coords.of(4, 4)).get()).isTrue();
+        assertThat(registry.position(id).get().sideToMove()).isEqualTo(PieceColor.BLACK);
+    }
+
+    @Test
+    public void moveRejectedByAFullExecutorDoesNotStallTheGame() throws Exception {
+        // One worker and room for one queued drain.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        try (GameRegistry bounded = new GameRegistry(executor)) {
+            long busy = bounded.createGame();
+            long queued = bounded.createGame();
+            long id = bounded.createGame();
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Boolean> blocking = bounded.submit(busy, game -> {
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            CompletableFuture<Integer> waiting = bounded.submit(queued, game -> game.plies());
+
+            assertThatThrownBy(() -> bounded.move(id, PieceColor.WHITE, Coords.of(6, 4), Coords.of(4, 4)))
+                    .isInstanceOf(RejectedExecutionException.class);
+            release.countDown();
+            assertThat(blocking.get()).isTrue();
+            assertThat(waiting.get()).isZero();
+
+            assertThat(bounded.move(id, PieceColor.WHITE, Coords.of(6, 4), Coords.of(4, 4)).get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(bounded.submit(id, game -> game.plies()).get(10, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void endedGameIsGone() {
+        long id = registry.createGame();
+        assertThat(registry.liveGames()).isEqualTo(1);
+
+        assertThat(registry.endGame(id)).isTrue();
+
+        assertThat(registry.liveGames()).isZero();
+        assertThatThrownBy(() -> registry.position(id).get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+}
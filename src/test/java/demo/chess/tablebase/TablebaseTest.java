@@ -0,0 +1,195 @@
+package demo.chess.tablebase;
+
+import demo.chess.game.Board;
+import demo.chess.game.MoveGenerator;
+import demo.chess.game.MoveList;
+import demo.chess.game.piece.Piece;
+import demo.chess.game.piece.Piece.PieceColor;
+import demo.chess.game.piece.Piece.PieceType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TablebaseTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static Tablebase tablebase;
+
+    @BeforeClass
+    public static void generate() throws IOException {
+        try (TablebaseGenerator generator = TablebaseGenerator.withThreads(2)) {
+            generator.generate("KRK", folder.getRoot().toPath());
+            generator.generate("KPK", folder.getRoot().toPath());
+            generator.generate("KRNK", folder.getRoot().toPath());
+        }
+        tablebase = Tablebase.open(folder.getRoot().toPath());
+    }
+
+    @AfterClass
+    public static void close() throws IOException {
+        tablebase.close();
+    }
+
+    @Test
+    public void pawnEndingsPullInThePromotionTables() {
+        // KPK, KQK, KRK, KRNK, and the drawn KBK and KNK.
+        assertThat(tablebase.tables()).isEqualTo(6);
+        assertThat(tablebase.maxPieces()).isEqualTo(4);
+    }
+
+    @Test
+    public void matedSideLosesAtDistanceZero() {
+        int result = probe("k7/1Q6/2K5/8/8/8/8/8 b - - 0 1");
+
+        assertThat(Tablebase.isLoss(result)).isTrue();
+        assertThat(Tablebase.distanceToMate(result)).isZero();
+    }
+
+    @Test
+    public void mateInOneIsWonInOnePly() {
+        int result = probe("k7/8/2K5/8/8/8/8/1Q6 w - - 0 1");
+
+        assertThat(Tablebase.isWin(result)).isTrue();
+        assertThat(Tablebase.distanceToMate(result)).isEqualTo(1);
+    }
+
+    @Test
+    public void colorsAndBoardHalvesAreInterchangeable() {
+        assertThat(probe("k7/8/2K5/8/8/8/8/1Q6 w - - 0 1"))
+                .isEqualTo(probe("1q6/8/8/8/8/2k5/8/K7 b - - 0 1"))
+                .isEqualTo(probe("7k/8/5K2/8/8/8/8/6Q1 w - - 0 1"))
+                .isEqualTo(probe("1Q6/8/8/8/8/2K5/8/k7 w - - 0 1"));
+    }
+
+    @Test
+    public void longestRookMateTakesSixteenMoves() {
+        Board board = Board.fromFen("k7/8/8/8/8/8/8/K6R w - - 0 1");
+        int longest = 0;
+        for (int king = 0; king < 64; king++) {
+            for (int enemy = 0; enemy < 64; enemy++) {
+                for (int rook = 0; rook < 64; rook++) {
+                    if (king == enemy || king == rook || enemy == rook) {
+                        continue;
+                    }
+                    char[] squares = new char[64];
+                    squares[king] = 'K';
+                    squares[enemy] = 'k';
+                    squares[rook] = 'R';
+                    board.loadFen(fen(squares, "w"));
+                    int result = tablebase.probe(board);
+                    if (Tablebase.isWin(result)) {
+                        longest = Math.max(longest, Tablebase.distanceToMate(result));
+                    }
+                }
+            }
+        }
+
+        assertThat(longest).isEqualTo(31);
+    }
+
+    @Test
+    public void kingInFrontOfThePawnHoldsTheDraw() {
+        assertThat(probe("8/8/8/8/8/4k3/4P3/4K3 w - - 0 1")).isEqualTo(Tablebase.DRAW);
+        // Stalemate.
+        assertThat(probe("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1")).isEqualTo(Tablebase.DRAW);
+    }
+
+    @Test
+    public void kingOnTheSixthInFrontOfThePawnWins() {
+        assertThat(Tablebase.isWin(probe("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1"))).isTrue();
+        assertThat(Tablebase.isLoss(probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1"))).isTrue();
+        assertThat(Tablebase.isLoss(probe("8/8/8/8/4p3/4k3/8/4K3 w - - 0 1"))).isTrue();
+    }
+
+    @Test
+    public void valuesAgreeWithTheBestMoveWhenCapturesLoseSlowest() {
+        // Kxd2 holds out longest although the king has quiet moves.
+        int result = probe("8/R7/8/8/8/8/3N1K2/2k5 b - - 0 1");
+        assertThat(Tablebase.isLoss(result)).isTrue();
+        assertThat(Tablebase.distanceToMate(result)).isEqualTo(18);
+
+        // The bare king can take the knight, into a rook ending that often lasts longer
+        // than the mate with both pieces, while it still has quiet moves.
+        Piece[] pieces = {Piece.of(PieceType.KING, PieceColor.WHITE), Piece.of(PieceType.KING, PieceColor.BLACK),
+                Piece.of(PieceType.ROOK, PieceColor.WHITE), Piece.of(PieceType.KNIGHT, PieceColor.WHITE)};
+        int[] squares = new int[pieces.length];
+        Board board = Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        MoveGenerator generator = new MoveGenerator();
+        MoveList moves = new MoveList();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int checked = 0; checked < 200_000; ) {
+            long occupied = 0;
+            for (int i = 0; i < squares.length; i++) {
+                do {
+                    squares[i] = random.nextInt(64);
+                } while ((occupied & 1L << squares[i]) != 0);
+                occupied |= 1L << squares[i];
+            }
+            board.load(pieces, squares, random.nextBoolean() ? PieceColor.WHITE : PieceColor.BLACK);
+            if (MoveGenerator.isInCheck(board, board.sideToMove().opposite())) {
+                continue;
+            }
+            assertThat(tablebase.probe(board)).as(board.toFen()).isEqualTo(bestMove(board, generator, moves));
+            checked++;
+        }
+    }
+
+    @Test
+    public void otherMaterialIsNotFound() {
+        assertThat(probe("k7/8/8/8/8/8/8/KQQ5 w - - 0 1")).isEqualTo(Tablebase.NOT_FOUND);
+        assertThat(probe("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1")).isEqualTo(Tablebase.NOT_FOUND);
+    }
+
+    // The value of board from a one-ply search over the probed positions its moves reach.
+    private static int bestMove(Board board, MoveGenerator generator, MoveList moves) {
+        generator.generateLegalMoves(board, moves);
+        if (moves.isEmpty()) {
+            return board.isInCheck() ? 1 : Tablebase.DRAW;
+        }
+        int win = 0, loss = 0;
+        boolean draw = false;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            // Only captures into bare kings or a lone minor piece leave the tables.
+            int result = Math.max(Tablebase.DRAW, tablebase.probe(board));
+            board.unmakeMove(move);
+            if (Tablebase.isLoss(result)) {
+                win = win == 0 ? result + 1 : Math.min(win, result + 1);
+            } else if (Tablebase.isWin(result)) {
+                loss = Math.max(loss, result + 1);
+            } else {
+                draw = true;
+            }
+        }
+        return win != 0 ? win : draw ? Tablebase.DRAW : loss;
+    }
+
+    private static int probe(String fen) {
+        return tablebase.probe(Board.fromFen(fen));
+    }
+
+    private static String fen(char[] squares, String sideToMove) {
+        StringBuilder fen = new StringBuilder();
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                char piece = squares[row * 8 + column];
+                fen.append(piece == '\0' ? '1' : piece);
+            }
+            if (row < 7) {
+                fen.append('/');
+            }
+        }
+        return fen.append(' ').append(sideToMove).append(" - - 0 1").toString();
+    }
+
+}
@@ -0,0 +1,57 @@
+package demo.chess.validation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchValidatorTest {
+
+    @Test
+    public void reportsFirstIllegalPlyAndFinalPosition() {
+        GameRecord legal = GameRecord.of(1, "e2e4", "e7e5", "g1f3");
+        GameRecord illegal = GameRecord.of(2, "e2e4", "e7e5", "e1e3", "b8c6");
+        GameRecord malformed = GameRecord.of(3, "e2e4", "e7");
+
+        List<ValidationResult> results;
+        try (BatchValidator validator = BatchValidator.withThreads(2)) {
+            results = validator.validate(Arrays.asList(legal, illegal, malformed));
+        }
+
+        assertThat(results).extracting(ValidationResult::id).containsExactly(1L, 2L, 3L);
+        assertThat(results.get(0).isLegal()).isTrue();
+        assertThat(results.get(0).finalFen())
+                .isEqualTo("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2");
+        assertThat(results.get(1).firstIllegalPly()).isEqualTo(2);
+        assertThat(results.get(1).plies()).isEqualTo(2);
+        assertThat(results.get(2).firstIllegalPly()).isEqualTo(1);
+    }
+
+    @Test
+    public void startsFromFenAndUnderpromotes() {
+        ValidationResult result = BatchValidator.validate(
+                GameRecord.fromPosition(7, "8/P7/8/8/8/8/8/k6K w - - 0 1", "a7a8r", "a1b2"));
+
+        assertThat(result.isLegal()).isTrue();
+        assertThat(result.finalFen()).isEqualTo("R7/8/8/8/8/8/1k6/7K w - - 1 2");
+    }
+
+    @Test
+    public void parallelResultsMatchSequentialReplay() {
+        List<GameRecord> corpus = ValidationBench.randomGames(200, 7);
+
+        List<ValidationResult> results;
+        try (BatchValidator validator = BatchValidator.withThreads(4)) {
+            results = validator.validate(corpus);
+        }
+
+        for (int i = 0; i < corpus.size(); i++) {
+            ValidationResult sequential = BatchValidator.validate(corpus.get(i));
+            assertThat(results.get(i).isLegal()).isTrue();
+            assertThat(results.get(i).finalFen()).isEqualTo(sequential.finalFen());
+        }
+    }
+
+}